@@ -0,0 +1,69 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.ArebbusApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the whole application on a private in-memory H2 database for benchmarks that go
+ * through Spring proxies, transactions and Hibernate. Background jobs keep running, as they
+ * would in production, but logging and SQL echo are turned down so they do not skew results.
+ * Setting -Dbenchmark.datasource.url (with .username and .password) in the forked JVM, e.g.
+ * through {@code -jvmArgsAppend}, runs on that PostgreSQL database instead. Its schema is
+ * dropped and recreated, so it must be a scratch database.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param settings Further application arguments, e.g. --spring.threads.virtual.enabled=true
+     * @return The started application
+     */
+    static ConfigurableApplicationContext start(String... settings) {
+        String url = System.getProperty("benchmark.datasource.url");
+        List<String> datasource = url == null
+                ? List.of(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+                : List.of(
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""));
+        List<String> args = new ArrayList<>(datasource);
+        args.addAll(List.of(
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.project.arebbus=WARN",
+                "--FRONTEND_URL=http://localhost:3000",
+                "--SECRET_KEY=dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW9ubHktMDEyMzQ1Njc4OQ=="));
+        args.addAll(List.of(settings));
+        return new SpringApplicationBuilder(ArebbusApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * @param context A started application
+     * @return Read-only transactions to call services in, standing in for the session that
+     *         spring.jpa.open-in-view keeps open for a web request
+     */
+    static TransactionTemplate requestSession(ConfigurableApplicationContext context) {
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+}
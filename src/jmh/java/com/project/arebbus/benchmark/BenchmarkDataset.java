@@ -0,0 +1,163 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.model.Bus;
+import com.project.arebbus.model.BusUpvote;
+import com.project.arebbus.model.Install;
+import com.project.arebbus.model.Post;
+import com.project.arebbus.model.PostTag;
+import com.project.arebbus.model.Route;
+import com.project.arebbus.model.RouteStop;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.Tag;
+import com.project.arebbus.model.Upvote;
+import com.project.arebbus.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Synthetic data written through JPA in batched transactions. Sizes come from the @Param of
+ * each benchmark, so a larger dataset is a matter of {@code -p posts=100000} on the command
+ * line. The random source is seeded, so every run of a given size sees the same data.
+ */
+final class BenchmarkDataset {
+
+    /** Entities persisted per transaction */
+    private static final int BATCH_SIZE = 500;
+
+    private static final double MIN_LAT = 23.70;
+    private static final double MAX_LAT = 23.90;
+    private static final double MIN_LON = 90.35;
+    private static final double MAX_LON = 90.45;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    BenchmarkDataset(ApplicationContext context) {
+        this.entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    /**
+     * @param count Number of users
+     * @return The users, the first of which is meant to act as the viewer
+     */
+    List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        batched(count, i -> users.add(persist(User.builder()
+                .email("user" + i + "@example.com")
+                .name("User " + i)
+                .password("password")
+                .reputation(0)
+                .image("https://picsum.photos/seed/example/300/200")
+                .valid(true)
+                .build())));
+        return users;
+    }
+
+    /**
+     * Creates one route of stopsPerRoute new stops per bus. Every other bus is based on the
+     * previous one, and the viewer has upvoted and installed every third bus.
+     *
+     * @param viewer The viewing user, also the author of everything
+     * @param count Number of buses
+     * @param stopsPerRoute Stops on the route of each bus
+     */
+    void buses(User viewer, int count, int stopsPerRoute) {
+        Bus[] previous = new Bus[1];
+        batched(count, i -> {
+            Route route = persist(Route.builder().name("Route " + i).author(viewer).build());
+            for (long index = 0; index < stopsPerRoute; index++) {
+                Stop stop = persist(Stop.builder()
+                        .name("Stop " + i + "-" + index)
+                        .latitude(coordinate(MIN_LAT, MAX_LAT))
+                        .longitude(coordinate(MIN_LON, MAX_LON))
+                        .author(viewer)
+                        .build());
+                persist(RouteStop.builder().routeId(route.getId()).stopId(stop.getId()).stopIndex(index).build());
+            }
+            Bus bus = persist(Bus.builder()
+                    .name("Bus " + i)
+                    .author(viewer)
+                    .route(route)
+                    .capacity((short) 40)
+                    .numInstall(0)
+                    .numUpvote(0L)
+                    .basedOn(i % 2 == 1 && previous[0] != null ? reference(Bus.class, previous[0].getId()) : null)
+                    .build());
+            if (i % 3 == 0) {
+                persist(BusUpvote.builder().userId(viewer.getId()).busId(bus.getId()).build());
+                persist(Install.builder().userId(viewer.getId()).busId(bus.getId()).build());
+            }
+            previous[0] = bus;
+        });
+    }
+
+    /**
+     * Creates posts by random authors with one to tags.size() tags each. The viewer has
+     * upvoted every third post.
+     *
+     * @param viewer The viewing user
+     * @param authors Authors to pick from
+     * @param count Number of posts
+     * @param tagNames Tags to pick from
+     */
+    void posts(User viewer, List<User> authors, int count, List<String> tagNames) {
+        List<Tag> tags = new ArrayList<>();
+        batched(tagNames.size(), i -> tags.add(persist(Tag.builder().name(tagNames.get(i)).build())));
+        batched(count, i -> {
+            Post post = persist(Post.builder()
+                    .author(reference(User.class, authors.get(random.nextInt(authors.size())).getId()))
+                    .content("Post " + i + " about the buses on this route")
+                    .numUpvote(0L)
+                    .build());
+            int tagCount = 1 + random.nextInt(tags.size());
+            for (int t = 0; t < tagCount; t++) {
+                persist(PostTag.builder().postId(post.getId()).tagId(tags.get(t).getId()).build());
+            }
+            if (i % 3 == 0) {
+                persist(Upvote.builder().userId(viewer.getId()).postId(post.getId()).build());
+            }
+        });
+    }
+
+    private void batched(int count, Consumer<Integer> action) {
+        for (int start = 0; start < count; start += BATCH_SIZE) {
+            int from = start;
+            int to = Math.min(count, start + BATCH_SIZE);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+            });
+        }
+    }
+
+    private <T> T persist(T entity) {
+        entityManager().persist(entity);
+        return entity;
+    }
+
+    private <T> T reference(Class<T> type, Long id) {
+        return entityManager().getReference(type, id);
+    }
+
+    private EntityManager entityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+
+    private BigDecimal coordinate(double min, double max) {
+        return BigDecimal.valueOf(random.nextDouble(min, max)).setScale(6, RoundingMode.HALF_UP);
+    }
+}
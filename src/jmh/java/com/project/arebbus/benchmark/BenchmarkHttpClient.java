@@ -0,0 +1,93 @@
+package com.project.arebbus.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.arebbus.service.JwtService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * JSON over HTTP against an application started by {@link BenchmarkApplication}, authenticated
+ * with bearer tokens minted by the application itself.
+ */
+final class BenchmarkHttpClient implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ConfigurableApplicationContext context;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String baseUrl;
+
+    BenchmarkHttpClient(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    /**
+     * @param emails Users to sign in
+     * @return A bearer token for each user
+     */
+    List<String> tokens(List<String> emails) {
+        JwtService jwtService = context.getBean(JwtService.class);
+        UserDetailsService userDetailsService = context.getBean(UserDetailsService.class);
+        return emails.stream()
+                .map(email -> jwtService.generateToken(userDetailsService.loadUserByUsername(email)))
+                .toList();
+    }
+
+    JsonNode get(String path, String token) {
+        return getAsync(path, token).join();
+    }
+
+    JsonNode post(String path, String token, Map<String, Object> body) {
+        return postAsync(path, token, body).join();
+    }
+
+    CompletableFuture<JsonNode> getAsync(String path, String token) {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), token);
+    }
+
+    CompletableFuture<JsonNode> postAsync(String path, String token, Map<String, Object> body) {
+        try {
+            return send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body))), token);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private CompletableFuture<JsonNode> send(HttpRequest.Builder request, String token) {
+        return client.sendAsync(
+                        request.header("Authorization", "Bearer " + token).build(),
+                        HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    // A failing request would otherwise be measured as a fast one
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException(response.request().uri() + " returned " + response.statusCode()
+                                + ": " + new String(response.body(), StandardCharsets.UTF_8));
+                    }
+                    try {
+                        return MAPPER.readTree(response.body());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.dto.PagedBusResponse;
+import com.project.arebbus.model.User;
+import com.project.arebbus.service.BusService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BusService.getAllBuses} on H2: the page query plus {@code buildBusResponses}, which
+ * attaches route snapshots, upvote and install flags to every bus of the page. Pages are
+ * visited round robin, so after the first pass every route snapshot is warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusPageBenchmark {
+
+    @Param({"1000"})
+    public int buses;
+
+    @Param({"10"})
+    public int stopsPerRoute;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate requestSession;
+    private BusService busService;
+    private User viewer;
+    private int pages;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        requestSession = BenchmarkApplication.requestSession(context);
+        BenchmarkDataset dataset = new BenchmarkDataset(context);
+        viewer = dataset.users(1).get(0);
+        dataset.buses(viewer, buses, stopsPerRoute);
+
+        busService = context.getBean(BusService.class);
+        pages = Math.max(1, buses / pageSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PagedBusResponse getAllBuses() {
+        next = (next + 1) % pages;
+        int page = next;
+        return requestSession.execute(status -> busService.getAllBuses(viewer, page, pageSize));
+    }
+}
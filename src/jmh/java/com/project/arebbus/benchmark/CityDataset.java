@@ -0,0 +1,246 @@
+package com.project.arebbus.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic city written straight through JDBC batches, bypassing Hibernate so that large
+ * datasets load in seconds: users, stops scattered over the city, routes threading stops in
+ * RouteStop order, buses on every route, tags, posts and comments. The random source is
+ * seeded, so a given {@link Scale} always produces the same city.
+ * Rows get their ids from the database; the ids of each table are read back after its batch,
+ * which assumes nothing else is inserting into the database while it is generated.
+ */
+final class CityDataset {
+
+    /** Rows per JDBC batch */
+    private static final int BATCH_SIZE = 1000;
+
+    private static final double MIN_LAT = 23.70;
+    private static final double MAX_LAT = 23.90;
+    private static final double MIN_LON = 90.35;
+    private static final double MAX_LON = 90.45;
+
+    private static final List<String> TAG_NAMES =
+            List.of("traffic", "delay", "crowded", "ac", "route-change", "accident", "rain", "strike");
+
+    /**
+     * @param users Number of users; riders and voters are drawn from them
+     * @param stops Number of stops
+     * @param routes Number of routes
+     * @param stopsPerRoute Stops on each route, at most stops
+     * @param busesPerRoute Buses running on each route
+     * @param posts Number of posts
+     * @param commentsPerPost Comments on each post
+     */
+    record Scale(int users, int stops, int routes, int stopsPerRoute, int busesPerRoute, int posts, int commentsPerPost) {
+    }
+
+    /**
+     * A bus and the coordinates of its route's stops in order, which riders follow.
+     */
+    record BusLine(long busId, List<BigDecimal[]> stops) {
+    }
+
+    /**
+     * @param userEmails Emails of the users, in id order
+     * @param userIds Ids of the users
+     * @param lines Every bus with its route
+     * @param postIds Ids of the posts, oldest first
+     */
+    record City(List<String> userEmails, List<Long> userIds, List<BusLine> lines, List<Long> postIds) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    CityDataset(ApplicationContext context) {
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Generates a city of the given scale.
+     *
+     * @param scale Number of rows of each kind
+     * @return What the workload needs to address the generated rows
+     */
+    City generate(Scale scale) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<String> emails = IntStream.range(0, scale.users()).mapToObj(i -> "rider" + i + "@city.example").toList();
+        List<Long> userIds = insert("users", emails,
+                "INSERT INTO users (name, email, password, image, reputation, valid, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                (ps, email) -> {
+                    ps.setString(1, "Rider " + email.substring(5, email.indexOf('@')));
+                    ps.setString(2, email);
+                    ps.setString(3, "password");
+                    ps.setString(4, "https://picsum.photos/seed/example/300/200");
+                    ps.setInt(5, 0);
+                    ps.setBoolean(6, true);
+                    ps.setTimestamp(7, now);
+                    ps.setTimestamp(8, now);
+                });
+
+        List<BigDecimal[]> stopCoordinates = IntStream.range(0, scale.stops())
+                .mapToObj(i -> new BigDecimal[]{coordinate(MIN_LAT, MAX_LAT), coordinate(MIN_LON, MAX_LON)})
+                .toList();
+        List<Long> stopIds = insert("stop", indexes(scale.stops()),
+                "INSERT INTO stop (name, latitude, longitude, author_id) VALUES (?, ?, ?, ?)",
+                (ps, i) -> {
+                    ps.setString(1, "Stop " + i);
+                    ps.setBigDecimal(2, stopCoordinates.get(i)[0]);
+                    ps.setBigDecimal(3, stopCoordinates.get(i)[1]);
+                    ps.setLong(4, pick(userIds));
+                });
+
+        List<Long> routeIds = insert("route", indexes(scale.routes()),
+                "INSERT INTO route (name, author_id) VALUES (?, ?)",
+                (ps, i) -> {
+                    ps.setString(1, "Route " + i);
+                    ps.setLong(2, pick(userIds));
+                });
+
+        // Each route walks from a random stop to its nearest unvisited neighbours
+        List<List<Integer>> routeStops = routeIds.stream()
+                .map(routeId -> walk(stopCoordinates, Math.min(scale.stopsPerRoute(), scale.stops())))
+                .toList();
+        List<long[]> routeStopRows = new ArrayList<>();
+        for (int r = 0; r < routeIds.size(); r++) {
+            List<Integer> stopsOfRoute = routeStops.get(r);
+            for (int index = 0; index < stopsOfRoute.size(); index++) {
+                routeStopRows.add(new long[]{routeIds.get(r), stopIds.get(stopsOfRoute.get(index)), index});
+            }
+        }
+        batch("INSERT INTO route_stop (route_id, stop_id, stop_index) VALUES (?, ?, ?)", routeStopRows, (ps, row) -> {
+            ps.setLong(1, row[0]);
+            ps.setLong(2, row[1]);
+            ps.setLong(3, row[2]);
+        });
+
+        List<Integer> busRoutes = IntStream.range(0, routeIds.size() * scale.busesPerRoute())
+                .map(i -> i / scale.busesPerRoute())
+                .boxed()
+                .toList();
+        List<Long> busIds = insert("bus", busRoutes,
+                "INSERT INTO bus (name, author_id, route_id, capacity, num_install, num_upvote) VALUES (?, ?, ?, ?, ?, ?)",
+                (ps, route) -> {
+                    ps.setString(1, "Bus on route " + route);
+                    ps.setLong(2, pick(userIds));
+                    ps.setLong(3, routeIds.get(route));
+                    ps.setShort(4, (short) 40);
+                    ps.setInt(5, 0);
+                    ps.setLong(6, 0);
+                });
+        List<BusLine> lines = new ArrayList<>(busIds.size());
+        for (int b = 0; b < busIds.size(); b++) {
+            lines.add(new BusLine(busIds.get(b), routeStops.get(busRoutes.get(b)).stream().map(stopCoordinates::get).toList()));
+        }
+
+        List<Long> tagIds = insert("tag", TAG_NAMES, "INSERT INTO tag (name) VALUES (?)", (ps, name) -> ps.setString(1, name));
+
+        // Posts are spread over the last month, oldest first
+        long span = 30L * 24 * 60 * 60 * 1000;
+        List<Long> postIds = insert("post", indexes(scale.posts()),
+                "INSERT INTO post (author_id, content, num_upvote, created_at) VALUES (?, ?, ?, ?)",
+                (ps, i) -> {
+                    ps.setLong(1, pick(userIds));
+                    ps.setString(2, "Post " + i + " about the buses on this route");
+                    ps.setLong(3, 0);
+                    ps.setTimestamp(4, new Timestamp(now.getTime() - span + span * i / Math.max(1, scale.posts())));
+                });
+        List<long[]> postTagRows = new ArrayList<>();
+        for (Long postId : postIds) {
+            int tagCount = 1 + random.nextInt(3);
+            int first = random.nextInt(tagIds.size());
+            for (int t = 0; t < tagCount; t++) {
+                postTagRows.add(new long[]{postId, tagIds.get((first + t) % tagIds.size())});
+            }
+        }
+        batch("INSERT INTO post_tag (post_id, tag_id) VALUES (?, ?)", postTagRows, (ps, row) -> {
+            ps.setLong(1, row[0]);
+            ps.setLong(2, row[1]);
+        });
+
+        List<Long> commentedPosts = postIds.stream()
+                .flatMap(postId -> IntStream.range(0, scale.commentsPerPost()).mapToObj(c -> postId))
+                .toList();
+        batch("INSERT INTO comment (content, author_id, post_id, num_upvote, created_at) VALUES (?, ?, ?, ?, ?)",
+                commentedPosts, (ps, postId) -> {
+                    ps.setString(1, "Seen it too");
+                    ps.setLong(2, pick(userIds));
+                    ps.setLong(3, postId);
+                    ps.setLong(4, 0);
+                    ps.setTimestamp(5, now);
+                });
+
+        return new City(emails, userIds, lines, postIds);
+    }
+
+    /**
+     * Inserts one row per item and reads back the generated ids in insertion order.
+     */
+    private <T> List<Long> insert(String table, List<T> items, String sql, ParameterizedPreparedStatementSetter<T> setter) {
+        Long before = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        batch(sql, items, setter);
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id > ? ORDER BY id", Long.class, before);
+    }
+
+    private <T> void batch(String sql, List<T> items, ParameterizedPreparedStatementSetter<T> setter) {
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, items, BATCH_SIZE, setter);
+        }
+    }
+
+    private List<Integer> walk(List<BigDecimal[]> stops, int length) {
+        List<Integer> path = new ArrayList<>(length);
+        boolean[] visited = new boolean[stops.size()];
+        int current = random.nextInt(stops.size());
+        while (true) {
+            path.add(current);
+            visited[current] = true;
+            if (path.size() == length) {
+                return path;
+            }
+            int nearest = -1;
+            double best = Double.MAX_VALUE;
+            for (int candidate = 0; candidate < stops.size(); candidate++) {
+                if (!visited[candidate]) {
+                    double distance = distance(stops.get(current), stops.get(candidate));
+                    if (distance < best) {
+                        best = distance;
+                        nearest = candidate;
+                    }
+                }
+            }
+            current = nearest;
+        }
+    }
+
+    private static double distance(BigDecimal[] a, BigDecimal[] b) {
+        double lat = a[0].doubleValue() - b[0].doubleValue();
+        double lon = a[1].doubleValue() - b[1].doubleValue();
+        return lat * lat + lon * lon;
+    }
+
+    private static List<Integer> indexes(int count) {
+        return IntStream.range(0, count).boxed().toList();
+    }
+
+    private long pick(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private BigDecimal coordinate(double min, double max) {
+        return BigDecimal.valueOf(random.nextDouble(min, max)).setScale(6, RoundingMode.HALF_UP);
+    }
+}
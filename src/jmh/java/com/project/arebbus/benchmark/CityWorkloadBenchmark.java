@@ -0,0 +1,239 @@
+package com.project.arebbus.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed load against the running application over HTTP, on a {@link CityDataset} city.
+ * The threads of the "city" group play different parts at the same time:
+ * <ul>
+ *     <li>riders replay location traces along the routes of their buses through
+ *     /location/user/update, every thread moving its share of the riders in turn,</li>
+ *     <li>readers scroll the cursor feed of /post/feed from the top to the end and over again,</li>
+ *     <li>browsers open random pages of /bus/all,</li>
+ *     <li>voters toggle upvotes on a handful of hot posts through /upvote/post.</li>
+ * </ul>
+ * Sample time mode reports the latency percentiles of every part separately. The mix is
+ * changed with {@code -tg}, which takes the thread counts of the parts in alphabetical order
+ * of their methods (browse, move, scroll, upvote), and the city with {@code -p}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CityWorkloadBenchmark {
+
+    @Param({"5000"})
+    public int users;
+
+    /** Riders moving at the same time, taken from the first users */
+    @Param({"2000"})
+    public int riders;
+
+    @Param({"2000"})
+    public int stops;
+
+    @Param({"100"})
+    public int routes;
+
+    @Param({"20"})
+    public int stopsPerRoute;
+
+    @Param({"3"})
+    public int busesPerRoute;
+
+    @Param({"20000"})
+    public int posts;
+
+    @Param({"2"})
+    public int commentsPerPost;
+
+    @Param({"20"})
+    public int pageSize;
+
+    /** Points of a trace between two consecutive stops */
+    @Param({"10"})
+    public int pointsPerLeg;
+
+    /** Newest posts the voters pile onto */
+    @Param({"5"})
+    public int hotPosts;
+
+    private ConfigurableApplicationContext context;
+    private CityDataset.City city;
+    private List<String> tokens;
+    private BenchmarkHttpClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        city = new CityDataset(context).generate(
+                new CityDataset.Scale(users, stops, routes, stopsPerRoute, busesPerRoute, posts, commentsPerPost));
+        client = new BenchmarkHttpClient(context);
+        tokens = client.tokens(city.userEmails());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    /**
+     * A rider following the stops of a bus line back and forth.
+     */
+    private static final class Rider {
+        private final String token;
+        private final List<BigDecimal[]> stops;
+        private int point;
+
+        private Rider(String token, List<BigDecimal[]> stops) {
+            this.token = token;
+            this.stops = stops;
+        }
+
+        private BigDecimal[] next(int pointsPerLeg) {
+            int legs = stops.size() - 1;
+            if (legs == 0) {
+                return stops.get(0);
+            }
+            // Out to the last stop and back, then again
+            int cycle = 2 * legs * pointsPerLeg;
+            int position = point++ % cycle;
+            if (position >= legs * pointsPerLeg) {
+                position = cycle - position;
+            }
+            int leg = Math.min(position / pointsPerLeg, legs - 1);
+            double fraction = (position - leg * pointsPerLeg) / (double) pointsPerLeg;
+            return new BigDecimal[]{
+                    between(stops.get(leg)[0], stops.get(leg + 1)[0], fraction),
+                    between(stops.get(leg)[1], stops.get(leg + 1)[1], fraction)};
+        }
+
+        private static BigDecimal between(BigDecimal from, BigDecimal to, double fraction) {
+            return BigDecimal.valueOf(from.doubleValue() + (to.doubleValue() - from.doubleValue()) * fraction)
+                    .setScale(6, RoundingMode.HALF_UP);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Riders {
+        private final List<Rider> riders = new ArrayList<>();
+        private int next;
+
+        /**
+         * Puts this thread's share of the riders on their buses.
+         */
+        @Setup(Level.Trial)
+        public void setUp(CityWorkloadBenchmark workload, ThreadParams threadParams) {
+            CityDataset.City city = workload.city;
+            int threads = threadParams.getSubgroupThreadCount();
+            int count = Math.min(workload.riders, city.userIds().size());
+            for (int user = threadParams.getSubgroupThreadIndex(); user < count; user += threads) {
+                CityDataset.BusLine line = city.lines().get(user % city.lines().size());
+                Rider rider = new Rider(workload.tokens.get(user), line.stops());
+                BigDecimal[] start = line.stops().get(0);
+                workload.client.post("/location/user/waiting", rider.token,
+                        Map.of("latitude", start[0], "longitude", start[1], "busId", line.busId()));
+                workload.client.post("/location/user/on-bus", rider.token,
+                        Map.of("latitude", start[0], "longitude", start[1]));
+                riders.add(rider);
+            }
+        }
+
+        private Rider next() {
+            Rider rider = riders.get(next);
+            next = (next + 1) % riders.size();
+            return rider;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+        private String token;
+        private String cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(CityWorkloadBenchmark workload, ThreadParams threadParams) {
+            token = workload.tokens.get(threadParams.getThreadIndex() % workload.tokens.size());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Visitor {
+        private String token;
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(CityWorkloadBenchmark workload, ThreadParams threadParams) {
+            token = workload.tokens.get(threadParams.getThreadIndex() % workload.tokens.size());
+            random = new SplittableRandom(threadParams.getThreadIndex());
+        }
+    }
+
+    @Benchmark
+    @Group("city")
+    @GroupThreads(4)
+    public JsonNode move(Riders riders) {
+        Rider rider = riders.next();
+        BigDecimal[] point = rider.next(pointsPerLeg);
+        return client.post("/location/user/update", rider.token, Map.of("latitude", point[0], "longitude", point[1]));
+    }
+
+    @Benchmark
+    @Group("city")
+    @GroupThreads(2)
+    public JsonNode scroll(Reader reader) {
+        String query = "/post/feed?size=" + pageSize
+                + (reader.cursor == null ? "" : "&cursor=" + URLEncoder.encode(reader.cursor, StandardCharsets.UTF_8));
+        JsonNode page = client.get(query, reader.token);
+        JsonNode nextCursor = page.get("nextCursor");
+        reader.cursor = nextCursor == null || nextCursor.isNull() ? null : nextCursor.asText();
+        return page;
+    }
+
+    @Benchmark
+    @Group("city")
+    @GroupThreads(1)
+    public JsonNode browse(Visitor visitor) {
+        int pages = Math.max(1, city.lines().size() / pageSize);
+        return client.get("/bus/all?size=" + pageSize + "&page=" + visitor.random.nextInt(pages), visitor.token);
+    }
+
+    @Benchmark
+    @Group("city")
+    @GroupThreads(1)
+    public JsonNode upvote(Visitor visitor) {
+        List<Long> postIds = city.postIds();
+        long postId = postIds.get(postIds.size() - 1 - visitor.random.nextInt(Math.min(hotPosts, postIds.size())));
+        return client.post("/upvote/post", visitor.token, Map.of("id", postId));
+    }
+}
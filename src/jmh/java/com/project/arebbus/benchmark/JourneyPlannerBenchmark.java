@@ -0,0 +1,125 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.dto.JourneyResponse;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.User;
+import com.project.arebbus.service.TransitNetwork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journey planning on a synthetic city: stops on a square grid of roughly 250 m spacing and
+ * routes that wander across it as random walks, so most stop pairs need a transfer or two.
+ * {@code addRoute} measures the incremental update that follows {@code RouteService.createRoute}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JourneyPlannerBenchmark {
+
+    private static final double ORIGIN_LAT = 23.70;
+    private static final double ORIGIN_LON = 90.35;
+    private static final double SPACING_DEGREES = 0.00225;
+
+    @Param({"100"})
+    public int gridSize;
+
+    @Param({"500", "2000"})
+    public int routes;
+
+    @Param({"40"})
+    public int stopsPerRoute;
+
+    @Param({"2"})
+    public int maxTransfers;
+
+    private TransitNetwork network;
+    private Stop[] stops;
+    private List<Stop> extraRoute;
+    private long[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        User author = User.builder().id(1L).name("author").build();
+        stops = new Stop[gridSize * gridSize];
+        for (int i = 0; i < stops.length; i++) {
+            stops[i] = Stop.builder()
+                    .id((long) i + 1)
+                    .name("Stop " + (i + 1))
+                    .latitude(coordinate(ORIGIN_LAT + (i / gridSize) * SPACING_DEGREES))
+                    .longitude(coordinate(ORIGIN_LON + (i % gridSize) * SPACING_DEGREES))
+                    .author(author)
+                    .build();
+        }
+
+        network = new TransitNetwork(null, ids -> Map.of(author.getId(), author.getName()), true);
+        for (long routeId = 1; routeId <= routes; routeId++) {
+            network.addRoute(routeId, "Route " + routeId, randomWalk(random));
+        }
+        extraRoute = randomWalk(random);
+
+        queries = new long[1024][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new long[]{random.nextInt(stops.length) + 1, random.nextInt(stops.length) + 1};
+        }
+    }
+
+    @Benchmark
+    public List<JourneyResponse> plan() {
+        next = (next + 1) & (queries.length - 1);
+        return network.plan(queries[next][0], queries[next][1], maxTransfers);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TransitNetwork addRoute() {
+        network.addRoute((long) routes + 1 + next++, "Extra", extraRoute);
+        return network;
+    }
+
+    private List<Stop> randomWalk(SplittableRandom random) {
+        int row = random.nextInt(gridSize);
+        int col = random.nextInt(gridSize);
+        List<Stop> walk = new ArrayList<>(stopsPerRoute);
+        for (int i = 0; i < stopsPerRoute; i++) {
+            walk.add(stops[row * gridSize + col]);
+            // Mostly keep heading one way so routes cross the city instead of circling
+            if (random.nextInt(3) == 0) {
+                row = Math.min(gridSize - 1, Math.max(0, row + (random.nextBoolean() ? 1 : -1)));
+            } else {
+                col = Math.min(gridSize - 1, col + 1);
+            }
+        }
+        return walk;
+    }
+
+    private static BigDecimal coordinate(double value) {
+        return BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
+    }
+}
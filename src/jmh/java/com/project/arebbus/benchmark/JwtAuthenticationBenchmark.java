@@ -0,0 +1,124 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.model.User;
+import com.project.arebbus.security.JwtAuthenticationFilter;
+import com.project.arebbus.security.JwtPrincipalCache;
+import com.project.arebbus.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-request cost of authenticating a bearer token in {@link JwtAuthenticationFilter}.
+ * {@code legacy} replays the old path: three parses, each deriving the key and building a
+ * parser, plus a user lookup. {@code uncached} is the new filter with the principal cache
+ * disabled (one parse and a lookup), {@code cached} the new filter on a repeated token.
+ * {@code parseAndValidate} is the {@link JwtService} part of the uncached path on its own.
+ * Users are looked up in a map, so the database round trip the cache also saves is not
+ * included in any of the numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW9ubHktMDEyMzQ1Njc4OQ==";
+
+    private UserDetailsService userDetailsService;
+    private JwtService jwtService;
+    private User user;
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = User.builder().id(1L).email("rider@example.com").name("rider").valid(true).build();
+        Map<String, User> users = Map.of(user.getEmail(), user);
+        userDetailsService = username -> {
+            User found = users.get(username);
+            if (found == null) {
+                throw new UsernameNotFoundException("User not found");
+            }
+            return found;
+        };
+
+        jwtService = new JwtService(SECRET, 3_600_000);
+        uncachedFilter = new JwtAuthenticationFilter(
+                null, jwtService, userDetailsService, new JwtPrincipalCache(0, 1), new SimpleMeterRegistry());
+        cachedFilter = new JwtAuthenticationFilter(
+                null, jwtService, userDetailsService, new JwtPrincipalCache(3_600_000, 10_000),
+                new SimpleMeterRegistry());
+
+        token = jwtService.generateToken(user);
+        request = new MockHttpServletRequest("GET", "/bus/all");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String username = legacyClaim(token, Claims::getSubject);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return legacyClaim(token, Claims::getSubject).equals(userDetails.getUsername())
+                && !legacyClaim(token, Claims::getExpiration).before(new Date());
+    }
+
+    @Benchmark
+    public boolean parseAndValidate() {
+        return jwtService.isTokenValid(jwtService.parseClaims(token), user);
+    }
+
+    @Benchmark
+    public Authentication uncached() throws Exception {
+        return authenticate(uncachedFilter);
+    }
+
+    @Benchmark
+    public Authentication cached() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static <T> T legacyClaim(String token, Function<Claims, T> resolver) {
+        return resolver.apply(Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody());
+    }
+}
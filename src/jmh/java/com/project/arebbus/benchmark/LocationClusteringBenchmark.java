@@ -0,0 +1,93 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.dto.BusLocationCluster;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.service.DbscanLocationClusterer;
+import com.project.arebbus.service.GridLocationClusterer;
+import com.project.arebbus.service.LiveLocationStore;
+import com.project.arebbus.service.LocationClusterer;
+import com.project.arebbus.service.MetersLocationClusterer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clustering of the ON_BUS riders of one bus, the step behind the bus position stream and
+ * {@code LocationService.getBusLocations}. Riders sit around a handful of vehicles spread
+ * along a 10 km corridor, with some scattered stragglers, using the default thresholds of
+ * application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationClusteringBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int riders;
+
+    @Param({"20"})
+    public int vehicles;
+
+    @Param({"grid", "meters", "dbscan"})
+    public String algorithm;
+
+    private LocationClusterer clusterer;
+    private List<LiveLocationStore.Entry> locations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clusterer = switch (algorithm) {
+            case "grid" -> new GridLocationClusterer(0.001);
+            case "meters" -> new MetersLocationClusterer(100);
+            case "dbscan" -> new DbscanLocationClusterer(0.001, 3);
+            default -> throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        };
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.now();
+        locations = new ArrayList<>(riders);
+        for (long userId = 1; userId <= riders; userId++) {
+            double lat;
+            double lon;
+            if (userId % 10 == 0) {
+                lat = random.nextDouble(23.70, 23.79);
+                lon = random.nextDouble(90.35, 90.44);
+            } else {
+                int vehicle = random.nextInt(vehicles);
+                lat = 23.70 + 0.09 * vehicle / vehicles + random.nextDouble(-0.0003, 0.0003);
+                lon = 90.35 + 0.09 * vehicle / vehicles + random.nextDouble(-0.0003, 0.0003);
+            }
+            locations.add(new LiveLocationStore.Entry(
+                    userId, 1L, "Bus", coordinate(lat), coordinate(lon), now, LocationStatus.ON_BUS));
+        }
+    }
+
+    @Benchmark
+    public List<BusLocationCluster> cluster() {
+        return clusterer.cluster(locations);
+    }
+
+    private static BigDecimal coordinate(double value) {
+        return BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
+    }
+}
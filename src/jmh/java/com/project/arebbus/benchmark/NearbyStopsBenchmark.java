@@ -0,0 +1,127 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.dto.StopResponse;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.User;
+import com.project.arebbus.service.StopSpatialIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the grid index behind {@code StopService.getNearbyStops} with the full scan it
+ * replaced. The scan baseline runs over stops already in memory, so it excludes the cost of
+ * loading them from the database and is a lower bound for the old implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearbyStopsBenchmark {
+
+    /** Stops are spread over a Bangladesh-sized bounding box */
+    private static final double MIN_LAT = 20.5;
+    private static final double MAX_LAT = 26.6;
+    private static final double MIN_LON = 88.0;
+    private static final double MAX_LON = 92.7;
+
+    @Param({"10000", "100000", "1000000"})
+    public int stops;
+
+    @Param({"1.0"})
+    public double radiusKm;
+
+    private List<Stop> allStops;
+    private StopSpatialIndex index;
+    private double[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        User author = User.builder().id(1L).name("author").build();
+
+        allStops = new ArrayList<>(stops);
+        index = new StopSpatialIndex(null, ids -> Map.of(author.getId(), author.getName()), 0.01);
+        for (long id = 1; id <= stops; id++) {
+            Stop stop = Stop.builder()
+                    .id(id)
+                    .name("Stop " + id)
+                    .latitude(coordinate(random, MIN_LAT, MAX_LAT))
+                    .longitude(coordinate(random, MIN_LON, MAX_LON))
+                    .author(author)
+                    .build();
+            allStops.add(stop);
+            index.add(stop);
+        }
+
+        queries = new double[1024][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[]{
+                    random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON)};
+        }
+    }
+
+    @Benchmark
+    public List<StopResponse> fullScan() {
+        double[] query = nextQuery();
+        return allStops.stream()
+                .filter(stop -> haversineKm(query[0], query[1],
+                        stop.getLatitude().doubleValue(), stop.getLongitude().doubleValue()) <= radiusKm)
+                .map(NearbyStopsBenchmark::toResponse)
+                .toList();
+    }
+
+    @Benchmark
+    public List<StopResponse> gridIndex() {
+        double[] query = nextQuery();
+        return index.findWithin(query[0], query[1], radiusKm);
+    }
+
+    private double[] nextQuery() {
+        next = (next + 1) & (queries.length - 1);
+        return queries[next];
+    }
+
+    private static BigDecimal coordinate(SplittableRandom random, double min, double max) {
+        return BigDecimal.valueOf(random.nextDouble(min, max)).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static StopResponse toResponse(Stop stop) {
+        return StopResponse.builder()
+                .id(stop.getId())
+                .name(stop.getName())
+                .latitude(stop.getLatitude())
+                .longitude(stop.getLongitude())
+                .authorName(stop.getAuthor().getName())
+                .build();
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        return 6371 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,177 @@
+package com.project.arebbus.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.arebbus.config.RouteJsonConfiguration;
+import com.project.arebbus.dto.BusResponse;
+import com.project.arebbus.dto.PagedBusResponse;
+import com.project.arebbus.dto.PagedPostResponse;
+import com.project.arebbus.dto.PagedRouteResponse;
+import com.project.arebbus.dto.PagedStopResponse;
+import com.project.arebbus.dto.PostSummaryResponse;
+import com.project.arebbus.dto.RouteResponse;
+import com.project.arebbus.dto.StopResponse;
+import com.project.arebbus.model.Route;
+import com.project.arebbus.model.RouteStop;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.User;
+import com.project.arebbus.service.RouteSnapshotCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of full Paged*Response pages to UTF-8 bytes, as the message converter
+ * writes them. The mapper is built like Spring Boot's; with {@code preEncodedRoutes} it also
+ * has the module of {@link RouteJsonConfiguration}, so routes of the bus and route pages are
+ * written from their cached JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagedResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    @Param({"20"})
+    public int stopsPerRoute;
+
+    @Param({"true", "false"})
+    public boolean preEncodedRoutes;
+
+    private ObjectMapper objectMapper;
+    private PagedBusResponse busPage;
+    private PagedRouteResponse routePage;
+    private PagedStopResponse stopPage;
+    private PagedPostResponse postPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        User author = User.builder().id(1L).name("author").build();
+        RouteSnapshotCache routeSnapshotCache = new RouteSnapshotCache();
+
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (preEncodedRoutes) {
+            builder.modulesToInstall(new RouteJsonConfiguration().preEncodedRouteModule(routeSnapshotCache));
+        }
+        objectMapper = builder.build();
+
+        List<Route> routes = new ArrayList<>();
+        List<RouteStop> routeStops = new ArrayList<>();
+        List<StopResponse> stops = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Route route = Route.builder().id(id).name("Route " + id).author(author).build();
+            routes.add(route);
+            for (long index = 0; index < stopsPerRoute; index++) {
+                long stopId = id * stopsPerRoute + index;
+                Stop stop = Stop.builder()
+                        .id(stopId)
+                        .name("Stop " + stopId)
+                        .latitude(coordinate(random, 23.70, 23.90))
+                        .longitude(coordinate(random, 90.35, 90.45))
+                        .author(author)
+                        .build();
+                routeStops.add(RouteStop.builder()
+                        .routeId(id).stopId(stopId).stopIndex(index).route(route).stop(stop).build());
+                if (stops.size() < pageSize) {
+                    stops.add(StopResponse.builder()
+                            .id(stopId)
+                            .name(stop.getName())
+                            .latitude(stop.getLatitude())
+                            .longitude(stop.getLongitude())
+                            .authorName(author.getName())
+                            .build());
+                }
+            }
+        }
+        Collection<RouteResponse> routeResponses =
+                routeSnapshotCache.getAll(routes, routeIds -> routeStops).values();
+
+        List<BusResponse> buses = new ArrayList<>();
+        for (RouteResponse route : routeResponses) {
+            buses.add(BusResponse.builder()
+                    .id(route.getId())
+                    .name("Bus " + route.getId())
+                    .authorName(author.getName())
+                    .route(route)
+                    .capacity((short) 40)
+                    .numInstall(random.nextInt(1000))
+                    .numUpvote((long) random.nextInt(1000))
+                    .status("ACTIVE")
+                    .rating(random.nextDouble(5))
+                    .upvoted(random.nextBoolean())
+                    .installed(random.nextBoolean())
+                    .build());
+        }
+
+        List<PostSummaryResponse> posts = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            posts.add(PostSummaryResponse.builder()
+                    .postId(id)
+                    .authorName(author.getName())
+                    .content("Post " + id + " about the buses on this route, which were late again today")
+                    .numUpvote((long) random.nextInt(1000))
+                    .tags(List.of("traffic", "delay"))
+                    .createdAt(new Date())
+                    .upvoted(random.nextBoolean())
+                    .build());
+        }
+
+        busPage = PagedBusResponse.builder()
+                .buses(buses).page(0).size(pageSize).totalPages(50).totalElements(50L * pageSize).build();
+        routePage = PagedRouteResponse.builder()
+                .routes(List.copyOf(routeResponses)).page(0).size(pageSize).totalPages(50)
+                .totalElements(50L * pageSize).build();
+        stopPage = PagedStopResponse.builder()
+                .stops(stops).page(0).size(pageSize).totalPages(50).totalElements(50L * pageSize).build();
+        postPage = PagedPostResponse.builder()
+                .posts(posts).page(0).size(pageSize).totalPages(50).totalElements(50L * pageSize).build();
+    }
+
+    @Benchmark
+    public byte[] busPage() throws Exception {
+        return objectMapper.writeValueAsBytes(busPage);
+    }
+
+    @Benchmark
+    public byte[] routePage() throws Exception {
+        return objectMapper.writeValueAsBytes(routePage);
+    }
+
+    @Benchmark
+    public byte[] stopPage() throws Exception {
+        return objectMapper.writeValueAsBytes(stopPage);
+    }
+
+    @Benchmark
+    public byte[] postPage() throws Exception {
+        return objectMapper.writeValueAsBytes(postPage);
+    }
+
+    private static BigDecimal coordinate(SplittableRandom random, double min, double max) {
+        return BigDecimal.valueOf(random.nextDouble(min, max)).setScale(6, RoundingMode.HALF_UP);
+    }
+}
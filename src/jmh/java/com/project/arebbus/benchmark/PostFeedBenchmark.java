@@ -0,0 +1,96 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.dto.CursorPostResponse;
+import com.project.arebbus.dto.PagedPostResponse;
+import com.project.arebbus.model.User;
+import com.project.arebbus.service.UserPostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post feed assembly on H2 (page query, authors, tags and the viewer's upvotes), reached
+ * through offset pages ({@code getAllPostsPage}, which also counts) and through keyset
+ * cursors ({@code getAllPostsFeed}). Both visit the same pages of the whole feed round robin,
+ * so deep pages weigh in as much as the first one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostFeedBenchmark {
+
+    @Param({"10000"})
+    public int posts;
+
+    @Param({"100"})
+    public int authors;
+
+    @Param({"20"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate requestSession;
+    private UserPostService userPostService;
+    private User viewer;
+    private List<String> cursors;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        requestSession = BenchmarkApplication.requestSession(context);
+        BenchmarkDataset dataset = new BenchmarkDataset(context);
+        List<User> users = dataset.users(authors);
+        viewer = users.get(0);
+        dataset.posts(viewer, users, posts, List.of("traffic", "delay", "crowded", "ac", "route-change"));
+
+        userPostService = context.getBean(UserPostService.class);
+        cursors = new ArrayList<>();
+        String cursor = null;
+        CursorPostResponse page;
+        do {
+            cursors.add(cursor);
+            String current = cursor;
+            page = requestSession.execute(status -> userPostService.getAllPostsFeed(viewer, current, pageSize));
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PagedPostResponse offsetPage() {
+        next = (next + 1) % cursors.size();
+        int page = next;
+        return requestSession.execute(status -> userPostService.getAllPostsPage(viewer, page, pageSize));
+    }
+
+    @Benchmark
+    public CursorPostResponse cursorPage() {
+        next = (next + 1) % cursors.size();
+        String cursor = cursors.get(next);
+        return requestSession.execute(status -> userPostService.getAllPostsFeed(viewer, cursor, pageSize));
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.arebbus.benchmark;
+
+import com.project.arebbus.service.CoalescingCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of counting upvotes on a single viral post from many threads.
+ * {@code coalescing} is {@link CoalescingCounter} with a flush every 500 ms, as used by
+ * PostUpvoteCounter. {@code atomic} keeps one AtomicLong per post, and {@code locked}
+ * serializes on the post like the old transaction did on its row (without the database
+ * round trips and COUNT(*) it also paid, so the real gap is much larger).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class PostUpvoteCounterBenchmark {
+
+    private static final Long POST_ID = 42L;
+
+    private final AtomicLong written = new AtomicLong();
+    private CoalescingCounter coalescing;
+    private ScheduledExecutorService flusher;
+
+    private final Map<Long, AtomicLong> atomic = new ConcurrentHashMap<>();
+
+    private final Object postRow = new Object();
+    private long lockedCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        coalescing = new CoalescingCounter(deltas -> deltas.values().forEach(written::addAndGet));
+        flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(coalescing::flush, 500, 500, TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        flusher.shutdownNow();
+    }
+
+    @Benchmark
+    public void coalescing() {
+        coalescing.add(POST_ID, 1);
+    }
+
+    @Benchmark
+    public long atomic() {
+        return atomic.computeIfAbsent(POST_ID, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Benchmark
+    public long locked() {
+        synchronized (postRow) {
+            return ++lockedCount;
+        }
+    }
+}
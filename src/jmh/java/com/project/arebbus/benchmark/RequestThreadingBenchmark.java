@@ -0,0 +1,109 @@
+package com.project.arebbus.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform-thread against virtual-thread request execution under the same load: every
+ * operation fires a burst of concurrent requests and waits for all of them. Eight in ten
+ * are location updates, which stay in memory, and the rest are first feed pages and bus pages,
+ * which block on JDBC. With more requests in flight than Tomcat has platform threads, the
+ * in-memory updates queue behind the JDBC-bound ones; on virtual threads only the JDBC calls
+ * wait, on the connection semaphore.
+ * Throughput is in bursts per second (requests per second divided by concurrency) and the
+ * sample time percentiles are those of a whole burst, i.e. of its slowest request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    /** Requests in flight per burst, also the number of riders */
+    @Param({"500"})
+    public int concurrency;
+
+    @Param({"2000"})
+    public int users;
+
+    @Param({"5000"})
+    public int posts;
+
+    @Param({"20"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private CityDataset.City city;
+    private BenchmarkHttpClient client;
+    private List<String> tokens;
+    private int burst;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--spring.threads.virtual.enabled=" + threads.equals("virtual"));
+        city = new CityDataset(context).generate(new CityDataset.Scale(users, 500, 50, 10, 2, posts, 1));
+        client = new BenchmarkHttpClient(context);
+        tokens = client.tokens(city.userEmails().subList(0, Math.min(concurrency, users)));
+
+        for (int rider = 0; rider < tokens.size(); rider++) {
+            CityDataset.BusLine line = city.lines().get(rider % city.lines().size());
+            BigDecimal[] start = line.stops().get(0);
+            client.post("/location/user/waiting", tokens.get(rider),
+                    Map.of("latitude", start[0], "longitude", start[1], "busId", line.busId()));
+            client.post("/location/user/on-bus", tokens.get(rider),
+                    Map.of("latitude", start[0], "longitude", start[1]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() {
+        BigDecimal offset = BigDecimal.valueOf(burst++ % 100, 5);
+        int busPages = Math.max(1, city.lines().size() / pageSize);
+        List<CompletableFuture<JsonNode>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String token = tokens.get(i % tokens.size());
+            responses.add(switch (i % 10) {
+                case 8 -> client.getAsync("/post/feed?size=" + pageSize, token);
+                case 9 -> client.getAsync("/bus/all?size=" + pageSize + "&page=" + (i / 10) % busPages, token);
+                default -> {
+                    BigDecimal[] start = city.lines().get(i % tokens.size() % city.lines().size()).stops().get(0);
+                    yield client.postAsync("/location/user/update", token,
+                            Map.of("latitude", start[0].add(offset), "longitude", start[1]));
+                }
+            });
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return responses.size();
+    }
+}
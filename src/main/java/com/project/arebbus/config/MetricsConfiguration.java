@@ -0,0 +1,51 @@
+package com.project.arebbus.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Records {@code @Timed} services and repositories. Every public method of an annotated class
+ * gets a timer tagged with its fully qualified class, method and exception, e.g.
+ * {@code arebbus_service_seconds_bucket{class="...BusService",method="getAllBuses"}}.
+ * HTTP requests, Spring Data repositories, Hibernate queries and the HikariCP pool are
+ * instrumented by Spring Boot; everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /** Timer of the public methods of the request-serving services */
+    public static final String SERVICE_TIMER = "arebbus.service";
+
+    /** Timer of the public methods of the JDBC repositories */
+    public static final String REPOSITORY_TIMER = "arebbus.repository";
+
+    /** Upvote toggles, tagged with the entity type (target) and upvoted or removed (result) */
+    public static final String UPVOTE_TOGGLES = "arebbus.upvote.toggles";
+
+    /** Points per location batch, tagged with whether they were accepted or rejected (outcome) */
+    public static final String LOCATION_BATCH_POINTS = "arebbus.location.batch.points";
+
+    /** JWT authentication of a request, tagged with how the token was resolved (outcome) */
+    public static final String JWT_AUTHENTICATION_TIMER = "arebbus.auth.jwt";
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Execution counts and times per HQL query (hibernate_query_*{query="..."}), which tell the
+     * queries apart that Spring Boot's session-wide Hibernate metrics lump together.
+     */
+    @Bean
+    HibernateQueryMetrics hibernateQueryMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateQueryMetrics(
+                entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty());
+    }
+}
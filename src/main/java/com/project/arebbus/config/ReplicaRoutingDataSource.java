@@ -0,0 +1,129 @@
+package com.project.arebbus.config;
+
+import com.project.arebbus.model.User;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends the read-only transactions of web requests round robin to replica pools and
+ * everything else to the primary. Replicas may lag behind the primary, so a user who wrote
+ * within the read-your-writes window keeps reading from the primary and sees their own
+ * changes. Work outside a request (scheduled jobs, startup loading) always uses the primary,
+ * since it may act on what it reads.
+ * The lookup happens when a statement first needs a connection, so this data source must sit
+ * behind a LazyConnectionDataSourceProxy for the transaction's read-only flag to be known, and
+ * Hibernate must release the connection after each transaction for the next one to be routed
+ * again (see ReplicaDataSourceConfiguration).
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<DataSource> replicas;
+    private final long readYourWritesMs;
+    private final int maxWriters;
+    private final LongSupplier clock;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** Writers still pinned to the primary, by user id, with the end of their window */
+    private final Map<Long, Long> recentWriters = new ConcurrentHashMap<>();
+
+    /**
+     * @param primary The primary pool
+     * @param replicas The replica pools, at least one
+     * @param readYourWritesMs How long a writer reads from the primary after a write
+     * @param maxWriters Writers remembered at once before expired ones are dropped
+     * @param clock Milliseconds now
+     */
+    public ReplicaRoutingDataSource(
+            DataSource primary, List<DataSource> replicas, long readYourWritesMs, int maxWriters, LongSupplier clock) {
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesMs = readYourWritesMs;
+        this.maxWriters = maxWriters;
+        this.clock = clock;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(replicaKey(i), this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite(userId);
+            }
+            return PRIMARY;
+        }
+        if (RequestContextHolder.getRequestAttributes() == null || (userId != null && wroteRecently(userId))) {
+            return PRIMARY;
+        }
+        return replicaKey(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    /**
+     * Closes the replica pools; the primary belongs to its own bean.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void recordWrite(Long userId) {
+        long now = clock.getAsLong();
+        if (recentWriters.size() >= maxWriters) {
+            Iterator<Long> deadlines = recentWriters.values().iterator();
+            while (deadlines.hasNext()) {
+                if (deadlines.next() <= now) {
+                    deadlines.remove();
+                }
+            }
+        }
+        recentWriters.put(userId, now + readYourWritesMs);
+    }
+
+    private boolean wroteRecently(Long userId) {
+        Long until = recentWriters.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until <= clock.getAsLong()) {
+            recentWriters.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user ? user.getId() : null;
+    }
+
+    private static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.arebbus.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.project.arebbus.dto.RouteResponse;
+import com.project.arebbus.service.RouteSnapshotCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes route snapshots of {@link RouteSnapshotCache} as pre-encoded JSON. The first time a
+ * snapshot is serialized its JSON is kept with it; after that every route and bus
+ * response embedding the snapshot copies the UTF-8 bytes instead of serializing the stops.
+ * RouteResponses that are not snapshots are serialized as usual.
+ */
+@Configuration
+public class RouteJsonConfiguration {
+
+    @Bean
+    public Module preEncodedRouteModule(RouteSnapshotCache routeSnapshotCache) {
+        SimpleModule module = new SimpleModule("pre-encoded-routes");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(
+                    SerializationConfig config, BeanDescription description, JsonSerializer<?> serializer) {
+                if (description.getBeanClass() != RouteResponse.class) {
+                    return serializer;
+                }
+                return new PreEncodedRouteSerializer((JsonSerializer<Object>) serializer, routeSnapshotCache);
+            }
+        });
+        return module;
+    }
+
+    static class PreEncodedRouteSerializer extends StdSerializer<RouteResponse> implements ResolvableSerializer {
+
+        private final JsonSerializer<Object> delegate;
+        private final RouteSnapshotCache routeSnapshotCache;
+
+        PreEncodedRouteSerializer(JsonSerializer<Object> delegate, RouteSnapshotCache routeSnapshotCache) {
+            super(RouteResponse.class);
+            this.delegate = delegate;
+            this.routeSnapshotCache = routeSnapshotCache;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        public void serialize(RouteResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            SerializableString json = routeSnapshotCache.encoded(value);
+            if (json == null) {
+                if (gen.getCodec() == null || !routeSnapshotCache.isSnapshot(value)) {
+                    delegate.serialize(value, gen, provider);
+                    return;
+                }
+                json = encode(value, gen, provider);
+                routeSnapshotCache.storeEncoded(value, json);
+            }
+            gen.writeRawValue(json);
+        }
+
+        private SerializableString encode(RouteResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            try (ByteArrayBuilder bytes = new ByteArrayBuilder()) {
+                // A plain generator, so the fragment carries no indentation of the enclosing document
+                try (JsonGenerator fragment = gen.getCodec().getFactory().createGenerator(bytes)) {
+                    delegate.serialize(value, fragment, provider);
+                }
+                return new SerializedString(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
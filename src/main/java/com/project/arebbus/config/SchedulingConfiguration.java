@@ -0,0 +1,12 @@
+package com.project.arebbus.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the location write-behind flush.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,75 @@
+package com.project.arebbus.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache backed by Caffeine through JCache.
+ * Every region is created here with a size bound and a time to live, read from
+ * {@code cache.l2.<region>.max-size} and {@code cache.l2.<region>.ttl-seconds}; Hibernate is
+ * told to fail on any other region so nothing ends up in an unbounded cache.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    /** Regions of the cached entities, collections and query results */
+    public static final List<String> REGIONS = List.of(
+            "stop", "route", "route-stops", "route-stop", "tag", "user-name",
+            "default-query-results-region");
+
+    /** Last change of every table, checked before a cached query result is used */
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private static final long DEFAULT_MAX_SIZE = 10_000;
+    private static final long DEFAULT_TTL_SECONDS = 3600;
+
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(Environment environment) {
+        // A URI of its own keeps application contexts (e.g. of tests) from sharing regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            String prefix = "cache.l2." + region;
+            cacheManager.createCache(region, regionConfiguration(
+                    environment.getProperty(prefix + ".max-size", Long.class, DEFAULT_MAX_SIZE),
+                    environment.getProperty(prefix + ".ttl-seconds", Long.class, DEFAULT_TTL_SECONDS)));
+        }
+        // One entry per table; expiring them early would only make cached queries miss
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, regionConfiguration(DEFAULT_MAX_SIZE, 0));
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.arebbus.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hit, miss and put counts and the size of every second-level cache region, from Hibernate's
+ * statistics ({@code hibernate.generate_statistics} has to be enabled for them to be counted),
+ * e.g. {@code arebbus_cache_l2_gets_total{region="stop",result="hit"}}. Published with the
+ * other meters on the management port only.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    /** Lookups of a region, tagged with region and result (hit or miss) */
+    public static final String GETS = "arebbus.cache.l2.gets";
+
+    /** Entries put into a region, tagged with region */
+    public static final String PUTS = "arebbus.cache.l2.puts";
+
+    /** Entries held in memory by a region, tagged with region */
+    public static final String SIZE = "arebbus.cache.l2.size";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : SecondLevelCacheConfiguration.REGIONS) {
+            FunctionCounter.builder(GETS, statistics, region(region, CacheRegionStatistics::getHitCount))
+                    .tags("region", region, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder(GETS, statistics, region(region, CacheRegionStatistics::getMissCount))
+                    .tags("region", region, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder(PUTS, statistics, region(region, CacheRegionStatistics::getPutCount))
+                    .tags("region", region)
+                    .register(registry);
+            Gauge.builder(SIZE, statistics, region(region, CacheRegionStatistics::getElementCountInMemory))
+                    .tags("region", region)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Reads one value of a region; NaN while the region has no statistics (statistics
+     * disabled or region not created).
+     */
+    private static ToDoubleFunction<Statistics> region(String region, ToDoubleFunction<CacheRegionStatistics> value) {
+        return statistics -> {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            return stats == null ? Double.NaN : value.applyAsDouble(stats);
+        };
+    }
+}
@@ -1,9 +1,11 @@
 package com.project.arebbus.config;
 
 import com.project.arebbus.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,6 +14,7 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -19,6 +22,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfiguration {
     private final AuthenticationProvider authenticationProvider;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final Environment environment;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -26,9 +30,14 @@ public class SecurityConfiguration {
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches of an already authenticated stream (e.g. /location/bus/stream)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/api-test/**").permitAll()
                         .requestMatchers("/health").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Metrics are only served on the management port, which is kept private
+                        .requestMatchers(managementPort()).permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess
@@ -39,4 +48,13 @@ public class SecurityConfiguration {
                 .build();
     }
 
+    /**
+     * Matches requests that arrived on the actuator's own port, once that server is running.
+     */
+    private RequestMatcher managementPort() {
+        return request -> {
+            Integer port = environment.getProperty("local.management.port", Integer.class);
+            return port != null && request.getLocalPort() == port;
+        };
+    }
 }
\ No newline at end of file
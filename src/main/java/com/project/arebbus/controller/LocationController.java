@@ -1,16 +1,25 @@
 package com.project.arebbus.controller;
 
 import com.project.arebbus.dto.BusLocationResponse;
+import com.project.arebbus.dto.LocationBatchRequest;
+import com.project.arebbus.dto.LocationBatchResponse;
 import com.project.arebbus.dto.LocationResponse;
 import com.project.arebbus.dto.LocationSetRequest;
 import com.project.arebbus.dto.LocationUpdateRequest;
 import com.project.arebbus.dto.WaitingUsersCountResponse;
 import com.project.arebbus.model.User;
+import com.project.arebbus.service.LocationHistoryService;
 import com.project.arebbus.service.LocationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 @RestController
 @RequiredArgsConstructor
@@ -18,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 public class LocationController {
 
     private final LocationService locationService;
+    private final LocationHistoryService locationHistoryService;
 
     @PostMapping("/user/waiting")
     public ResponseEntity<LocationResponse> setUserWaiting(@RequestBody LocationSetRequest request, Authentication authentication) {
@@ -53,6 +63,19 @@ public class LocationController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(path = "/bus/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBusLocations(@RequestParam Long busId) {
+        return locationService.streamBusLocations(busId);
+    }
+
+    @GetMapping(path = "/bus/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getBusHistory(
+            @RequestParam Long busId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(locationHistoryService.streamBusHistory(busId, from, to));
+    }
+
     @PostMapping("/user/update")
     public ResponseEntity<LocationResponse> updateUserLocation(@RequestBody LocationUpdateRequest request, Authentication authentication) {
         User user = (User) authentication.getPrincipal();
@@ -60,6 +83,13 @@ public class LocationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/user/update/batch")
+    public ResponseEntity<LocationBatchResponse> updateUserLocations(@RequestBody LocationBatchRequest request, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        LocationBatchResponse response = locationService.updateUserLocations(user, request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/users/wait-count")
     public ResponseEntity<WaitingUsersCountResponse> getWaitingUsersCount(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
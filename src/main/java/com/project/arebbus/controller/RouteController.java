@@ -1,5 +1,6 @@
 package com.project.arebbus.controller;
 
+import com.project.arebbus.dto.JourneyPlanResponse;
 import com.project.arebbus.dto.PagedRouteResponse;
 import com.project.arebbus.dto.RouteCreateRequest;
 import com.project.arebbus.dto.RouteResponse;
@@ -34,4 +35,12 @@ public class RouteController {
             @RequestParam(defaultValue = "10") int size) {
         return ResponseEntity.ok(routeService.getAllRoutes(page, size));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/plan")
+    public ResponseEntity<JourneyPlanResponse> planJourney(
+            @RequestParam Long fromStopId,
+            @RequestParam Long toStopId,
+            @RequestParam(defaultValue = "2") int maxTransfers) {
+        return ResponseEntity.ok(routeService.planJourney(fromStopId, toStopId, maxTransfers));
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.arebbus.controller;
 
 import com.project.arebbus.dto.PagedStopResponse;
+import com.project.arebbus.dto.StopArrivalsResponse;
 import com.project.arebbus.dto.StopCreateRequest;
 import com.project.arebbus.dto.StopResponse;
 import com.project.arebbus.model.User;
@@ -44,4 +45,9 @@ public class StopController {
             @RequestParam double radius) {
         return ResponseEntity.ok(stopService.getNearbyStops(latitude, longitude, radius));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{stopId}/arrivals")
+    public ResponseEntity<StopArrivalsResponse> getArrivals(@PathVariable Long stopId) {
+        return ResponseEntity.ok(stopService.getArrivals(stopId));
+    }
+}
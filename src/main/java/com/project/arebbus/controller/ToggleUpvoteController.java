@@ -3,6 +3,7 @@ package com.project.arebbus.controller;
 import com.project.arebbus.dto.ToggleUpvoteRequest;
 import com.project.arebbus.dto.ToggleUpvoteResponse;
 import com.project.arebbus.model.User;
+import com.project.arebbus.service.ToggleBusUpvoteService;
 import com.project.arebbus.service.ToggleCommentUpvoteService;
 import com.project.arebbus.service.ToggleUpvoteService;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ToggleUpvoteController {
   private final ToggleUpvoteService upvoteService;
   private final ToggleCommentUpvoteService commentUpvoteService;
+  private final ToggleBusUpvoteService busUpvoteService;
 
   @PostMapping("/post")
   public ResponseEntity<ToggleUpvoteResponse> togglePostUpvote(
@@ -35,4 +37,12 @@ public class ToggleUpvoteController {
     ToggleUpvoteResponse response = commentUpvoteService.toggleUpvote(user, request.getId());
     return ResponseEntity.ok(response);
   }
+
+  @PostMapping("/bus")
+  public ResponseEntity<ToggleUpvoteResponse> toggleBusUpvote(
+      @RequestBody ToggleUpvoteRequest request, Authentication authentication) {
+    User user = (User) authentication.getPrincipal();
+    ToggleUpvoteResponse response = busUpvoteService.toggleUpvote(user, request.getId());
+    return ResponseEntity.ok(response);
+  }
 }
@@ -44,6 +44,15 @@ public class UserPostController {
         return ResponseEntity.ok(userPostService.getAllPostsPage(user, page, size));
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPostResponse> getAllPostsFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(userPostService.getAllPostsFeed(user, cursor, size));
+    }
+
     @GetMapping("/my")
     public ResponseEntity<PagedPostResponse> getMyPosts(
             @RequestParam(defaultValue = "0") int page,
@@ -53,6 +62,14 @@ public class UserPostController {
         return ResponseEntity.ok(userPostService.getMyPostsPage(user, page, size));
     }
 
+    @GetMapping("/my/feed")
+    public ResponseEntity<CursorPostResponse> getMyPostsFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(userPostService.getMyPostsFeed(user, cursor, size));
+    }
 
     @GetMapping
     public ResponseEntity<PostResponse> getPostById(@RequestParam Long postId, Authentication authentication) {
@@ -70,6 +87,26 @@ public class UserPostController {
         return ResponseEntity.ok(userPostService.getPostsByTags(user, tags, page, size));
     }
 
+    @GetMapping("/by-tags/feed")
+    public ResponseEntity<CursorPostResponse> getPostsByTagsFeed(
+            @RequestParam List<String> tags,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(userPostService.getPostsByTagsFeed(user, tags, cursor, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PagedPostResponse> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(userPostService.searchPosts(user, q, page, size));
+    }
+
     @GetMapping("/tags")
     public ResponseEntity<List<String>> getAllTags() {
         return ResponseEntity.ok(userPostService.getAllTags());
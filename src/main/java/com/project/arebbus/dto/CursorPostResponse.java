@@ -0,0 +1,17 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class CursorPostResponse {
+    private List<PostSummaryResponse> posts;
+    private int size;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+}
@@ -0,0 +1,18 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class JourneyLegResponse {
+    private Long routeId;
+    private String routeName;
+    private List<StopResponse> stops;
+    private BigDecimal distanceKm;
+}
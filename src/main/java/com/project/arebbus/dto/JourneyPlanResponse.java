@@ -0,0 +1,16 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class JourneyPlanResponse {
+    private Long fromStopId;
+    private Long toStopId;
+    private List<JourneyResponse> journeys;
+}
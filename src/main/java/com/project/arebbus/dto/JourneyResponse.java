@@ -0,0 +1,17 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class JourneyResponse {
+    private Integer transfers;
+    private BigDecimal distanceKm;
+    private List<JourneyLegResponse> legs;
+}
@@ -0,0 +1,14 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationBatchRequest {
+    private List<LocationPoint> points;
+}
@@ -0,0 +1,18 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationBatchResponse {
+    private Integer accepted;
+    private List<Integer> rejected;
+    private LocationResponse latest;
+}
@@ -0,0 +1,17 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPoint {
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private LocalDateTime time;
+}
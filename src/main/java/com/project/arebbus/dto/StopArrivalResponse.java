@@ -0,0 +1,20 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class StopArrivalResponse {
+    private Long busId;
+    private String busName;
+    private LocalDateTime expectedAt;
+    private Long etaSeconds;
+    private BigDecimal distanceKm;
+    private BigDecimal speedKmh;
+}
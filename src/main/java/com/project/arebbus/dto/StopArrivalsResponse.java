@@ -0,0 +1,16 @@
+package com.project.arebbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class StopArrivalsResponse {
+    private Long stopId;
+    private String stopName;
+    private List<StopArrivalResponse> arrivals;
+}
@@ -66,6 +66,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse(e.getMessage()));
     }
 
+    @ExceptionHandler(InvalidLocationBatchException.class)
+    public ResponseEntity<?> handleInvalidLocationBatchException(InvalidLocationBatchException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse(e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> handleInvalidCursorException(InvalidCursorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse(e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidPageException.class)
+    public ResponseEntity<?> handleInvalidPageException(InvalidPageException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse(e.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleException(Exception e) {
         e.printStackTrace(System.err);
@@ -0,0 +1,7 @@
+package com.project.arebbus.exception;
+
+public class InvalidLocationBatchException extends RuntimeException {
+    public InvalidLocationBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.arebbus.exception;
+
+public class InvalidPageException extends RuntimeException {
+    public InvalidPageException(String message) {
+        super(message);
+    }
+}
@@ -13,7 +13,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "Location")
+@Table(name = "Location", indexes = {
+        @Index(name = "idx_location_user_time", columnList = "user_id, time DESC"),
+        @Index(name = "idx_location_bus_status_time", columnList = "bus_id, status, time DESC")
+})
 @IdClass(LocationId.class)
 public class Location {
     @Id
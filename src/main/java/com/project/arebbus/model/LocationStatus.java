@@ -3,5 +3,20 @@ package com.project.arebbus.model;
 public enum LocationStatus {
     ON_BUS,
     WAITING,
-    NO_TRACK
-}
\ No newline at end of file
+    NO_TRACK;
+
+    /**
+     * A rider starts WAITING from NO_TRACK, boards (ON_BUS) from WAITING and can stop
+     * tracking from anywhere. Repeating the current status is always allowed.
+     *
+     * @param next The requested status
+     * @return true if a user whose latest status is this one may move to next
+     */
+    public boolean canTransitionTo(LocationStatus next) {
+        return switch (next) {
+            case WAITING -> this == NO_TRACK || this == WAITING;
+            case ON_BUS -> this == WAITING || this == ON_BUS;
+            case NO_TRACK -> true;
+        };
+    }
+}
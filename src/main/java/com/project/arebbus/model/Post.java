@@ -13,7 +13,10 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@Table(name = "Post")
+@Table(name = "Post", indexes = {
+        @Index(name = "idx_post_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_post_author_created_at_id", columnList = "author_id, created_at DESC, id DESC")
+})
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,6 +39,6 @@ public class Post {
     private Set<Comment> comments;
 
     @CreationTimestamp
-    @Column(updatable = false, name = "created_at")
+    @Column(updatable = false, name = "created_at", nullable = false)
     private Date createdAt;
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
@@ -13,6 +15,8 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "route")
 @Table(name = "Route")
 public class Route {
     @Id
@@ -22,16 +26,30 @@ public class Route {
     @Column(nullable = false)
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
+    /** The author's name, resolved from the cached projection instead of loading the author */
+    @ManyToOne
+    @JoinColumn(name = "author_id", insertable = false, updatable = false)
+    private UserName authorName;
+
     @OneToMany(mappedBy = "route")
     private Set<Bus> buses;
 
+    /** Cached since the stops of a route are only written when the route is created */
     @OneToMany(mappedBy = "route")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "route-stops")
     private Set<RouteStop> routeStops;
 
     @OneToMany(mappedBy = "route")
     private Set<RouteSubscription> subscriptions;
+
+    /**
+     * @return Name of the author, from the cached projection once the route has been loaded
+     */
+    public String getAuthorDisplayName() {
+        return authorName != null ? authorName.getName() : author.getName();
+    }
 }
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.util.Set;
 
@@ -13,6 +15,8 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stop")
 @Table(name = "Stop")
 public class Stop {
     @Id
@@ -28,13 +32,25 @@ public class Stop {
     @Column(nullable = false, precision = 8, scale = 2)
     private BigDecimal longitude;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
+    /** The author's name, resolved from the cached projection instead of loading the author */
+    @ManyToOne
+    @JoinColumn(name = "author_id", insertable = false, updatable = false)
+    private UserName authorName;
+
     @OneToMany(mappedBy = "stop")
     private Set<RouteStop> routeStops;
 
     @OneToMany(mappedBy = "stop")
     private Set<StopSubscription> subscriptions;
-}
\ No newline at end of file
+
+    /**
+     * @return Name of the author, from the cached projection once the stop has been loaded
+     */
+    public String getAuthorDisplayName() {
+        return authorName != null ? authorName.getName() : author.getName();
+    }
+}
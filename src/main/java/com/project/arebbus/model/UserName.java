@@ -0,0 +1,35 @@
+package com.project.arebbus.model;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Read-only view of a user's id and name, used to show authors without loading the whole
+ * user. Cached in the second-level cache; renaming a user has to evict it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "user-name")
+@Table(name = "Users")
+public class UserName {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+}
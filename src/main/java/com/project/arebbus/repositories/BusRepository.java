@@ -7,6 +7,7 @@ import com.project.arebbus.model.User;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -53,7 +54,19 @@ public interface BusRepository extends JpaRepository<Bus, Long> {
   @Query(nativeQuery = true, value = "SELECT b FROM Bus b JOIN b.installs i WHERE i.user = :user")
   List<Bus> findBusesInstalledByUser(@Param("user") User user);
 
+  /**
+   * Finds a page of buses with the associations needed for a BusResponse fetched in the same
+   * query.
+   *
+   * @param pageable The page request
+   * @return Page of Bus entities
+   */
+  @Override
+  @EntityGraph(attributePaths = {"author", "route", "route.author", "basedOn", "basedOn.author", "basedOn.route"})
+  Page<Bus> findAll(Pageable pageable);
+
   // Find buses installed by a specific user with pagination and sorting
+  @EntityGraph(attributePaths = {"author", "route", "route.author", "basedOn", "basedOn.author", "basedOn.route"})
   @Query("SELECT b FROM Bus b JOIN b.installs i WHERE i.user = :user")
   Page<Bus> findBusesInstalledByUser(@Param("user") User user, Pageable pageable);
 
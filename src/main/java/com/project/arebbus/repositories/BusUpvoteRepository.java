@@ -3,6 +3,10 @@ package com.project.arebbus.repositories;
 import com.project.arebbus.model.BusUpvote;
 import com.project.arebbus.model.BusUpvoteId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 
 public interface BusUpvoteRepository extends JpaRepository<BusUpvote, BusUpvoteId> {
     /**
@@ -12,4 +16,15 @@ public interface BusUpvoteRepository extends JpaRepository<BusUpvote, BusUpvoteI
      * @return true if entity exists, false otherwise
      */
     boolean existsByUserIdAndBusId(Long userId, Long busId);
+
+    // Find which of the given buses a user has upvoted
+    /**
+     * Finds the ids of the buses among busIds that the user has upvoted.
+     * 
+     * @param userId The user to check
+     * @param busIds The candidate bus ids
+     * @return Ids of the upvoted buses
+     */
+    @Query("SELECT bu.busId FROM BusUpvote bu WHERE bu.userId = :userId AND bu.busId IN :busIds")
+    List<Long> findUpvotedBusIds(@Param("userId") Long userId, @Param("busIds") Collection<Long> busIds);
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.project.arebbus.model.Comment;
 import com.project.arebbus.model.Post;
 import com.project.arebbus.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -28,11 +29,13 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @return List of Comment entities matching the criteria
      */
     List<Comment> findByPostOrderByNumUpvoteDesc(Post post);
+
+    // Text of every comment for the search index
     /**
-     * Finds all Comment entities by ContentContainingIgnoreCase.
+     * Finds the content of every comment.
      * 
-     * @param ContentContainingIgnoreCase The ContentContainingIgnoreCase to search for
-     * @return List of Comment entities matching the criteria
+     * @return Rows of [commentId, postId, content]
      */
-    List<Comment> findByContentContainingIgnoreCase(String content);
-}
\ No newline at end of file
+    @Query("SELECT c.id, c.post.id, c.content FROM Comment c")
+    List<Object[]> findAllContents();
+}
@@ -7,6 +7,7 @@ import com.project.arebbus.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface InstallRepository extends JpaRepository<Install, InstallId> {
@@ -41,6 +42,17 @@ public interface InstallRepository extends JpaRepository<Install, InstallId> {
     @Query("SELECT COUNT(i) FROM Install i WHERE i.bus = :bus")
     Long countInstallationsByBus(@Param("bus") Bus bus);
 
+    // Find which of the given buses a user has installed
+    /**
+     * Finds the ids of the buses among busIds that the user has installed.
+     * 
+     * @param userId The user to check
+     * @param busIds The candidate bus ids
+     * @return Ids of the installed buses
+     */
+    @Query("SELECT i.busId FROM Install i WHERE i.userId = :userId AND i.busId IN :busIds")
+    List<Long> findInstalledBusIds(@Param("userId") Long userId, @Param("busIds") Collection<Long> busIds);
+
     // Find most active users (by installation count)
     /**
      * Custom query method with specific business logic.
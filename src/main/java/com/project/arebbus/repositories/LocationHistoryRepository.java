@@ -0,0 +1,223 @@
+package com.project.arebbus.repositories;
+
+import com.project.arebbus.config.MetricsConfiguration;
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationStatus;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to the append-only location_history table.
+ * On PostgreSQL the table is range-partitioned by day, so retention drops whole partitions
+ * instead of deleting rows. Points older than the oldest daily partition (offline batches have
+ * no lower time bound) land in a DEFAULT partition. Daily partitions are only created from
+ * yesterday on, so they never overlap rows already in the default one. Other databases (H2 in
+ * tests) get a plain table and retention falls back to a DELETE.
+ */
+@Repository
+@Timed(MetricsConfiguration.REPOSITORY_TIMER)
+public class LocationHistoryRepository {
+
+    private static final String TABLE = "location_history";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String COLUMNS = """
+            bus_id int8 NOT NULL,
+            user_id int8 NOT NULL,
+            latitude numeric(9,6) NOT NULL,
+            longitude numeric(9,6) NOT NULL,
+            time timestamp NOT NULL,
+            status varchar(16) NOT NULL""";
+    private static final String INSERT_SQL =
+            "INSERT INTO location_history (bus_id, user_id, latitude, longitude, time, status) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_BUS_SQL = """
+            SELECT bus_id, user_id, latitude, longitude, time, status FROM location_history
+            WHERE bus_id = ? AND time >= ? AND time < ?
+            ORDER BY time, user_id""";
+    // Keeps the first point of every user in each bucket of the given number of seconds
+    private static final String DOWNSAMPLE_SQL = """
+            DELETE FROM location_history h
+            WHERE h.time >= ? AND h.time < ?
+              AND EXISTS (
+                SELECT 1 FROM location_history e
+                WHERE e.user_id = h.user_id AND e.time >= ? AND e.time < h.time
+                  AND FLOOR(EXTRACT(EPOCH FROM e.time) / ?) = FLOOR(EXTRACT(EPOCH FROM h.time) / ?))""";
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = 'location_history'""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    private volatile Boolean partitioned;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationHistoryRepository.class);
+
+    public LocationHistoryRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${location.history.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Creates the table and its indexes if they do not exist yet.
+     */
+    public void createSchema() {
+        if (isPartitioned()) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" + COLUMNS + ") PARTITION BY RANGE (time)");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+        } else {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" + COLUMNS + ")");
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_location_history_bus_time ON " + TABLE + " (bus_id, time)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_location_history_user_time ON " + TABLE + " (user_id, time)");
+    }
+
+    /**
+     * Creates the daily partitions of every day in [from, to]. Does nothing on databases
+     * without partitioning.
+     *
+     * @param from First day
+     * @param to Last day
+     */
+    public void createPartitions(LocalDate from, LocalDate to) {
+        if (!isPartitioned()) {
+            return;
+        }
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day) + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+        }
+    }
+
+    /**
+     * Appends rows in one batch.
+     *
+     * @param locations The rows to append
+     */
+    @Transactional
+    public void insertAll(Collection<Location> locations) {
+        if (locations.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, locations, locations.size(), (ps, location) -> {
+            ps.setLong(1, location.getBusId());
+            ps.setLong(2, location.getUserId());
+            ps.setBigDecimal(3, location.getLatitude());
+            ps.setBigDecimal(4, location.getLongitude());
+            ps.setTimestamp(5, Timestamp.valueOf(location.getTime()));
+            ps.setString(6, location.getStatus().name());
+        });
+    }
+
+    /**
+     * Streams the points of a bus in [from, to) ordered by time without materializing them.
+     *
+     * @param busId The bus id
+     * @param from Inclusive start
+     * @param to Exclusive end
+     * @param consumer Receives every point
+     */
+    @Transactional(readOnly = true)
+    public void streamByBus(Long busId, LocalDateTime from, LocalDateTime to, Consumer<Location> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(SELECT_BY_BUS_SQL);
+                    // A fetch size inside a transaction makes the PostgreSQL driver use a cursor
+                    ps.setFetchSize(fetchSize);
+                    ps.setLong(1, busId);
+                    ps.setTimestamp(2, Timestamp.valueOf(from));
+                    ps.setTimestamp(3, Timestamp.valueOf(to));
+                    return ps;
+                },
+                rs -> {
+                    consumer.accept(Location.builder()
+                            .busId(rs.getLong("bus_id"))
+                            .userId(rs.getLong("user_id"))
+                            .latitude(rs.getBigDecimal("latitude"))
+                            .longitude(rs.getBigDecimal("longitude"))
+                            .time(rs.getTimestamp("time").toLocalDateTime())
+                            .status(LocationStatus.valueOf(rs.getString("status")))
+                            .build());
+                });
+    }
+
+    /**
+     * Thins the points in [from, to) to the first point of each user per bucket.
+     *
+     * @param from Inclusive start
+     * @param to Exclusive end
+     * @param bucketSeconds Length of a bucket in seconds
+     * @return Number of deleted points
+     */
+    @Transactional
+    public int downsample(LocalDateTime from, LocalDateTime to, int bucketSeconds) {
+        return jdbcTemplate.update(DOWNSAMPLE_SQL,
+                Timestamp.valueOf(from), Timestamp.valueOf(to), Timestamp.valueOf(from), bucketSeconds, bucketSeconds);
+    }
+
+    /**
+     * Removes every point from before a day, dropping whole partitions when partitioned.
+     *
+     * @param cutoff First day to keep
+     */
+    @Transactional
+    public void dropBefore(LocalDate cutoff) {
+        if (!isPartitioned()) {
+            jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE time < ?", Timestamp.valueOf(cutoff.atStartOfDay()));
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE time < ?", Timestamp.valueOf(cutoff.atStartOfDay()));
+        for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class)) {
+            LocalDate day = partitionDay(partition);
+            if (day != null && day.isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                LOGGER.info("Dropped location history partition {}", partition);
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            partitioned = result;
+        }
+        return result;
+    }
+
+    static String partitionName(LocalDate day) {
+        return TABLE + "_p" + day.format(PARTITION_SUFFIX);
+    }
+
+    static LocalDate partitionDay(String partition) {
+        String prefix = TABLE + "_p";
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(prefix.length()), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
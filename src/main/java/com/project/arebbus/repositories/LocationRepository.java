@@ -10,8 +10,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface LocationRepository extends JpaRepository<Location, LocationId> {
+public interface LocationRepository extends JpaRepository<Location, LocationId>, LocationRepositoryCustom {
     /**
      * Finds all Location entities by Bus.
      * 
@@ -48,21 +49,57 @@ public interface LocationRepository extends JpaRepository<Location, LocationId>
      */
     List<Location> findByTimeBetween(LocalDateTime start, LocalDateTime end);
 
+    // Find the latest location of a user
+    /**
+     * Finds the newest location row of a user, served by the (user_id, time) index.
+     * 
+     * @param userId The user id
+     * @return The latest location, or empty if the user has never shared one
+     */
+    Optional<Location> findFirstByUserIdOrderByTimeDesc(Long userId);
+
+    // Find latest location of every user
+    /**
+     * Finds the newest location row of every user.
+     * 
+     * @return One location per user
+     */
+    @Query(nativeQuery = true, value = "SELECT DISTINCT ON (user_id) * FROM location ORDER BY user_id, time DESC")
+    List<Location> findLatestForEachUser();
+
     // Find latest location for each bus
     /**
-     * Custom query method with specific business logic.
+     * Finds the newest location row reported for every bus.
      * 
-     * @return Query result based on custom implementation
+     * @return One location per bus
      */
-    @Query(nativeQuery = true,value = "SELECT l FROM Location l WHERE l.time = (SELECT MAX(l2.time) FROM Location l2 WHERE l2.bus = l.bus)")
+    @Query(nativeQuery = true, value = "SELECT DISTINCT ON (bus_id) * FROM location ORDER BY bus_id, time DESC")
     List<Location> findLatestLocationForEachBus();
 
     // Find users currently on a specific bus
     /**
-     * Custom query method with specific business logic.
+     * Finds the users whose latest location is ON_BUS for the given bus.
      * 
-     * @return Query result based on custom implementation
+     * @param bus The bus
+     * @return The riders of the bus
      */
-    @Query(nativeQuery = true,value = "SELECT l.user FROM Location l WHERE l.bus = :bus AND l.status = 'ON_BUS' AND l.time = (SELECT MAX(l2.time) FROM Location l2 WHERE l2.user = l.user)")
+    @Query("""
+            SELECT u FROM Location l JOIN l.user u
+            WHERE l.bus = :bus AND l.status = com.project.arebbus.model.LocationStatus.ON_BUS
+              AND l.time = (SELECT MAX(l2.time) FROM Location l2 WHERE l2.userId = l.userId)
+            """)
     List<User> findUsersCurrentlyOnBus(@Param("bus") Bus bus);
-}
\ No newline at end of file
+
+    // Count users per bus and status using each user's latest location
+    /**
+     * Counts users by the bus and status of their latest location.
+     * 
+     * @return Rows of [busId, status, count]
+     */
+    @Query("""
+            SELECT l.busId, l.status, COUNT(l) FROM Location l
+            WHERE l.time = (SELECT MAX(l2.time) FROM Location l2 WHERE l2.userId = l.userId)
+            GROUP BY l.busId, l.status
+            """)
+    List<Object[]> countLatestByBusAndStatus();
+}
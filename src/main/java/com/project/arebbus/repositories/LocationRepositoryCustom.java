@@ -0,0 +1,17 @@
+package com.project.arebbus.repositories;
+
+import com.project.arebbus.model.Location;
+import java.util.Collection;
+
+public interface LocationRepositoryCustom {
+    /**
+     * Writes the given rows with two JDBC batches: an UPDATE for every row and an INSERT for the
+     * rows whose (bus_id, user_id) key did not exist yet. Avoids the per-entity SELECT that
+     * {@code save()} performs for entities with assigned ids. A row already holding a newer
+     * time than the written one is left as it is, which relies on the times of one user's rows
+     * being server times that never go back (see LocationService).
+     *
+     * @param locations The rows to write; bus and user associations are ignored
+     */
+    void upsertAll(Collection<Location> locations);
+}
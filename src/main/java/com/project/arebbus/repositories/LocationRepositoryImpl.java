@@ -0,0 +1,71 @@
+package com.project.arebbus.repositories;
+
+import com.project.arebbus.model.Location;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link LocationRepositoryCustom}, picked up by Spring Data through the
+ * {@code Impl} suffix.
+ */
+@RequiredArgsConstructor
+public class LocationRepositoryImpl implements LocationRepositoryCustom {
+
+    // A row never goes back in time, whatever order the writes of one user reach the database in
+    private static final String UPDATE_SQL =
+            "UPDATE location SET latitude = ?, longitude = ?, time = ?, status = ? WHERE bus_id = ? AND user_id = ? AND time <= ?";
+    private static final String INSERT_SQL = """
+            INSERT INTO location (bus_id, user_id, latitude, longitude, time, status)
+            SELECT ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM location WHERE bus_id = ? AND user_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void upsertAll(Collection<Location> locations) {
+        if (locations.isEmpty()) {
+            return;
+        }
+        List<Location> rows = new ArrayList<>(locations);
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, location) -> {
+            ps.setBigDecimal(1, location.getLatitude());
+            ps.setBigDecimal(2, location.getLongitude());
+            ps.setTimestamp(3, Timestamp.valueOf(location.getTime()));
+            ps.setString(4, location.getStatus().name());
+            ps.setLong(5, location.getBusId());
+            ps.setLong(6, location.getUserId());
+            ps.setTimestamp(7, Timestamp.valueOf(location.getTime()));
+        })[0];
+
+        List<Location> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            // Drivers may report SUCCESS_NO_INFO instead of a count; only an explicit 0 means the
+            // row is missing or newer, which the INSERT tells apart
+            if (updated[i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, location) -> {
+            ps.setLong(1, location.getBusId());
+            ps.setLong(2, location.getUserId());
+            ps.setBigDecimal(3, location.getLatitude());
+            ps.setBigDecimal(4, location.getLongitude());
+            ps.setTimestamp(5, Timestamp.valueOf(location.getTime()));
+            ps.setString(6, location.getStatus().name());
+            ps.setLong(7, location.getBusId());
+            ps.setLong(8, location.getUserId());
+        });
+    }
+}
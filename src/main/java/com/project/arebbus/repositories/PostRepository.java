@@ -4,12 +4,18 @@ package com.project.arebbus.repositories;
 import com.project.arebbus.model.Post;
 import com.project.arebbus.model.User;
 import com.project.arebbus.model.Tag;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -20,13 +26,6 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * @return List of Post entities matching the criteria
      */
     List<Post> findByAuthor(User author);
-    /**
-     * Finds all Post entities by ContentContainingIgnoreCase.
-     * 
-     * @param ContentContainingIgnoreCase The ContentContainingIgnoreCase to search for
-     * @return List of Post entities matching the criteria
-     */
-    List<Post> findByContentContainingIgnoreCase(String content);
     /**
      * Finds all Post entities by OrderByNumUpvoteDesc.
      * 
@@ -71,6 +70,13 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query(nativeQuery = true, value = "SELECT p FROM Post p ORDER BY p.numUpvote DESC")
     List<Post> findMostPopularPosts();
 
+    /**
+     * Finds a page of posts with their authors fetched in the same query.
+     * 
+     * @param pageable The pagination information
+     * @return Page of Post entities
+     */
+    @EntityGraph(attributePaths = "author")
     Page<Post> findAll(Pageable pageable);
     /**
      * Finds all Post entities by Author with pagination.
@@ -79,6 +85,7 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * @param pageable The pagination information
      * @return Page of Post entities matching the criteria
      */
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByAuthor(User author, Pageable pageable);
 
     // Find posts by tag names with pagination and sorting
@@ -87,6 +94,105 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * 
      * @return Query result based on custom implementation
      */
-     @Query("SELECT DISTINCT p FROM Post p JOIN p.postTags pt JOIN pt.tag t WHERE t.name IN :tagNames")
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT DISTINCT p FROM Post p JOIN p.postTags pt JOIN pt.tag t WHERE t.name IN :tagNames")
     Page<Post> findByTagNames(@Param("tagNames") List<String> tagNames, Pageable pageable);
+
+    // Keyset pages of the feed, newest first
+    /**
+     * Finds the posts that come after the cursor (createdAt, id) in the feed order, with
+     * authors fetched. No count query is run.
+     * 
+     * @param createdAt Creation time of the last post already seen
+     * @param id Id of the last post already seen
+     * @param limit Maximum number of posts to return
+     * @return Posts ordered by createdAt and id descending
+     */
+    @Query("""
+            SELECT p FROM Post p JOIN FETCH p.author
+            WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<Post> findFeedAfter(@Param("createdAt") Date createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Finds the posts of an author that come after the cursor (createdAt, id) in the feed order.
+     * 
+     * @param author The author of the posts
+     * @param createdAt Creation time of the last post already seen
+     * @param id Id of the last post already seen
+     * @param limit Maximum number of posts to return
+     * @return Posts ordered by createdAt and id descending
+     */
+    @Query("""
+            SELECT p FROM Post p JOIN FETCH p.author
+            WHERE p.author = :author
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<Post> findFeedByAuthorAfter(
+            @Param("author") User author, @Param("createdAt") Date createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Finds the posts tagged with any of tagNames that come after the cursor (createdAt, id)
+     * in the feed order.
+     * 
+     * @param tagNames The tag names to match
+     * @param createdAt Creation time of the last post already seen
+     * @param id Id of the last post already seen
+     * @param limit Maximum number of posts to return
+     * @return Posts ordered by createdAt and id descending
+     */
+    @Query("""
+            SELECT p FROM Post p JOIN FETCH p.author
+            WHERE p.id IN (SELECT pt.postId FROM PostTag pt JOIN pt.tag t WHERE t.name IN :tagNames)
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<Post> findFeedByTagNamesAfter(
+            @Param("tagNames") List<String> tagNames, @Param("createdAt") Date createdAt, @Param("id") Long id,
+            Limit limit);
+
+    // Give posts from before created_at existed a creation time
+    /**
+     * Sets the creation time of posts without one to the oldest known creation time, so they
+     * sort after every dated post (their ids are lower) and the feed cursor can reach them.
+     * 
+     * @return Number of posts backfilled
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE post SET created_at = COALESCE((SELECT MIN(created_at) FROM post), CURRENT_TIMESTAMP)
+            WHERE created_at IS NULL
+            """)
+    int backfillCreatedAt();
+
+    /**
+     * Makes created_at NOT NULL on databases created before the constraint; schema update
+     * does not tighten existing columns.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "ALTER TABLE post ALTER COLUMN created_at SET NOT NULL")
+    void requireCreatedAt();
+
+    // Posts of search results, authors included
+    /**
+     * Finds the posts with the given ids with their authors fetched in the same query.
+     * 
+     * @param ids The post ids
+     * @return Post entities in no particular order
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Post> findByIdIn(Collection<Long> ids);
+
+    // Text of every post for the search index
+    /**
+     * Finds the content of every post.
+     * 
+     * @return Rows of [postId, content]
+     */
+    @Query("SELECT p.id, p.content FROM Post p")
+    List<Object[]> findAllContents();
 }
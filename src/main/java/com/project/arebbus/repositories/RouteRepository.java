@@ -2,12 +2,28 @@ package com.project.arebbus.repositories;
 
 import com.project.arebbus.model.Route;
 import com.project.arebbus.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface RouteRepository extends JpaRepository<Route, Long> {
+    // Pages of routes are served from the query cache until a route is written
+    /**
+     * Finds a page of Route entities.
+     * 
+     * @param pageable The page to load
+     * @return Page of Route entities
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Route> findAll(Pageable pageable);
+
     /**
      * Finds all Route entities by Author.
      * 
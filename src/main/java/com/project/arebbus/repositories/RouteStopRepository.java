@@ -5,8 +5,12 @@ import com.project.arebbus.model.RouteStopId;
 import com.project.arebbus.model.Route;
 import com.project.arebbus.model.Stop;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface RouteStopRepository extends JpaRepository<RouteStop, RouteStopId> {
@@ -30,8 +34,43 @@ public interface RouteStopRepository extends JpaRepository<RouteStop, RouteStopI
      * @param RouteOrderByStopIndex The RouteOrderByStopIndex to search for
      * @return List of RouteStop entities matching the criteria
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<RouteStop> findByRouteOrderByStopIndex(Route route);
 
+    // Find the ordered stops of several routes at once
+    /**
+     * Finds the RouteStop entities of all given routes with stop and stop author name fetched,
+     * ordered by route and stop index.
+     * 
+     * @param routeIds The route ids
+     * @return List of RouteStop entities grouped by route in stop order
+     */
+    @Query("""
+            SELECT rs FROM RouteStop rs
+            JOIN FETCH rs.stop s
+            JOIN FETCH s.authorName
+            WHERE rs.routeId IN :routeIds
+            ORDER BY rs.routeId, rs.stopIndex
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<RouteStop> findByRouteIdsWithStops(@Param("routeIds") Collection<Long> routeIds);
+
+    // Load the whole network for the journey planner
+    /**
+     * Finds every RouteStop entity with route, stop and stop author fetched,
+     * ordered by route and stop index.
+     * 
+     * @return List of all RouteStop entities grouped by route in stop order
+     */
+    @Query("""
+            SELECT rs FROM RouteStop rs
+            JOIN FETCH rs.route
+            JOIN FETCH rs.stop s
+            JOIN FETCH s.authorName
+            ORDER BY rs.routeId, rs.stopIndex
+            """)
+    List<RouteStop> findAllWithStops();
+
     // Find stops for a route in order
     /**
      * Custom query method with specific business logic.
@@ -2,13 +2,29 @@ package com.project.arebbus.repositories;
 
 import com.project.arebbus.model.Stop;
 import com.project.arebbus.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.math.BigDecimal;
 
 public interface StopRepository extends JpaRepository<Stop, Long> {
+    // Pages of stops are served from the query cache until a stop is written
+    /**
+     * Finds a page of Stop entities.
+     * 
+     * @param pageable The page to load
+     * @return Page of Stop entities
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Stop> findAll(Pageable pageable);
+
     /**
      * Finds all Stop entities by Author.
      * 
@@ -38,6 +54,15 @@ public interface StopRepository extends JpaRepository<Stop, Long> {
     List<Stop> findStopsInArea(@Param("minLat") BigDecimal minLat, @Param("maxLat") BigDecimal maxLat,
                                @Param("minLon") BigDecimal minLon, @Param("maxLon") BigDecimal maxLon);
 
+    // Load every stop with its author name in a single query
+    /**
+     * Finds all Stop entities with their author name fetched.
+     * 
+     * @return List of all Stop entities
+     */
+    @Query("SELECT s FROM Stop s JOIN FETCH s.authorName")
+    List<Stop> findAllWithAuthor();
+
     // Find stops subscribed by a user
     /**
      * Custom query method with specific business logic.
@@ -2,8 +2,12 @@ package com.project.arebbus.repositories;
 
 import com.project.arebbus.model.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +18,7 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
      * @param Name The Name to search for
      * @return Optional containing the Tag if found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Tag> findByName(String name);
     /**
      * Checks if an entity exists by Name.
@@ -39,6 +44,25 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
      @Query("SELECT t FROM Tag t JOIN t.postTags pt WHERE pt.post.id = :postId")
     List<Tag> findTagsByPostId(@Param("postId") Long postId);
 
+    // Find tag names of several posts at once
+    /**
+     * Finds the tag names of all given posts.
+     * 
+     * @param postIds The post ids
+     * @return Rows of [postId, tagName]
+     */
+    @Query("SELECT pt.postId, t.name FROM PostTag pt JOIN pt.tag t WHERE pt.postId IN :postIds")
+    List<Object[]> findTagNamesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Tag names of every post for the search index
+    /**
+     * Finds the tag names of all posts.
+     * 
+     * @return Rows of [postId, tagName]
+     */
+    @Query("SELECT pt.postId, t.name FROM PostTag pt JOIN pt.tag t")
+    List<Object[]> findAllTagNamesByPost();
+
     // Find most popular tags
     /**
      * Custom query method with specific business logic.
@@ -0,0 +1,116 @@
+package com.project.arebbus.repositories;
+
+import com.project.arebbus.config.MetricsConfiguration;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies accumulated upvote changes as relative updates, so concurrent writers never
+ * overwrite each other's counts and no row is read first.
+ */
+@Repository
+@Timed(MetricsConfiguration.REPOSITORY_TIMER)
+public class UpvoteCountRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UpvoteCountRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds a delta to the upvote count of every given post in one batch.
+     *
+     * @param deltas Change of the count per post id
+     */
+    @Transactional
+    public void addPostUpvotes(Map<Long, Long> deltas) {
+        addUpvotes(UpvoteTable.POST, deltas);
+    }
+
+    /**
+     * Reads in a read-write transaction so the row comes from the primary: a toggle is decided
+     * on it, and a replica may not have the last flush yet. This also keeps the toggling user on
+     * the primary for the read-your-writes window, which the flush itself, running without a
+     * user, cannot do.
+     *
+     * @param table The upvote table
+     * @param userId The user id
+     * @param entityId The upvoted entity id
+     * @return true if the user has upvoted the entity
+     */
+    @Transactional
+    public boolean hasUpvote(UpvoteTable table, Long userId, Long entityId) {
+        return !jdbcTemplate.queryForList(table.existsSql(), Integer.class, userId, entityId).isEmpty();
+    }
+
+    /**
+     * Inserts and deletes upvote rows in batches and adjusts the counts by the rows that were
+     * actually changed, so votes already present or already gone are not counted twice.
+     *
+     * @param table The upvote table
+     * @param added (user id, entity id) pairs to insert
+     * @param removed (user id, entity id) pairs to delete
+     */
+    @Transactional
+    public void applyVotes(
+            UpvoteTable table,
+            Collection<Map.Entry<Long, Long>> added,
+            Collection<Map.Entry<Long, Long>> removed) {
+        Map<Long, Long> deltas = new HashMap<>();
+        if (!added.isEmpty()) {
+            List<Map.Entry<Long, Long>> rows = new ArrayList<>(added);
+            int[][] counts = jdbcTemplate.batchUpdate(table.insertSql(), rows, rows.size(), (ps, vote) -> {
+                ps.setLong(1, vote.getKey());
+                ps.setLong(2, vote.getValue());
+                ps.setLong(3, vote.getKey());
+                ps.setLong(4, vote.getValue());
+            });
+            collectChanges(rows, counts, 1, deltas);
+        }
+        if (!removed.isEmpty()) {
+            List<Map.Entry<Long, Long>> rows = new ArrayList<>(removed);
+            int[][] counts = jdbcTemplate.batchUpdate(table.deleteSql(), rows, rows.size(), (ps, vote) -> {
+                ps.setLong(1, vote.getKey());
+                ps.setLong(2, vote.getValue());
+            });
+            collectChanges(rows, counts, -1, deltas);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        addUpvotes(table, deltas);
+    }
+
+    private void addUpvotes(UpvoteTable table, Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> rows = new ArrayList<>(deltas.entrySet());
+        // A stable order keeps concurrent batches from locking the same rows in opposite orders
+        rows.sort(Map.Entry.comparingByKey());
+        jdbcTemplate.batchUpdate(table.addCountSql(), rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getValue());
+            ps.setLong(2, row.getKey());
+        });
+    }
+
+    private static void collectChanges(
+            List<Map.Entry<Long, Long>> rows, int[][] counts, long sign, Map<Long, Long> deltas) {
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers that cannot tell report SUCCESS_NO_INFO; the statement then changed its row
+                long changed = count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                deltas.merge(rows.get(i++).getValue(), sign * changed, Long::sum);
+            }
+        }
+    }
+}
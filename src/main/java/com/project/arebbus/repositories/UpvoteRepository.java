@@ -4,13 +4,16 @@ import com.project.arebbus.model.Post;
 import com.project.arebbus.model.Upvote;
 import com.project.arebbus.model.UpvoteId;
 import com.project.arebbus.model.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UpvoteRepository extends JpaRepository<Upvote, UpvoteId> {
   /**
@@ -38,6 +41,17 @@ public interface UpvoteRepository extends JpaRepository<Upvote, UpvoteId> {
      */
     boolean existsByUserIdAndPostId(Long userId, Long postId);
 
+  // Find which of the given posts a user has upvoted
+  /**
+     * Finds the ids of the posts among postIds that the user has upvoted.
+     * 
+     * @param userId The user to check
+     * @param postIds The candidate post ids
+     * @return Ids of the upvoted posts
+     */
+    @Query("SELECT u.postId FROM Upvote u WHERE u.userId = :userId AND u.postId IN :postIds")
+    List<Long> findUpvotedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
   // Count upvotes for a specific post
   /**
      * Counts entities by PostId.
@@ -64,6 +78,36 @@ public interface UpvoteRepository extends JpaRepository<Upvote, UpvoteId> {
      */
     void deleteByUserIdAndPostId(Long userId, Long postId);
 
+  // Remove an upvote, reporting whether it existed
+  /**
+     * Deletes the upvote of a user on a post in a single statement.
+     * 
+     * @param userId The user id
+     * @param postId The post id
+     * @return 1 if the upvote was removed, 0 if there was none
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Upvote u WHERE u.userId = :userId AND u.postId = :postId")
+    int removeUpvote(@Param("userId") Long userId, @Param("postId") Long postId);
+
+  // Add an upvote unless it already exists
+  /**
+     * Inserts the upvote of a user on a post if it does not exist yet.
+     * 
+     * @param userId The user id
+     * @param postId The post id
+     * @return 1 if the upvote was added, 0 if it already existed
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO upvotes (user_id, post_id, created_at)
+            SELECT :userId, :postId, CURRENT_TIMESTAMP
+            WHERE NOT EXISTS (SELECT 1 FROM upvotes WHERE user_id = :userId AND post_id = :postId)
+            """)
+    int addUpvote(@Param("userId") Long userId, @Param("postId") Long postId);
+
   // Find upvote by user and post
   /**
      * Finds a Upvote by UserIdAndPostId.
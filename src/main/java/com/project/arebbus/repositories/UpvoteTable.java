@@ -0,0 +1,40 @@
+package com.project.arebbus.repositories;
+
+/**
+ * An upvote join table together with the table whose num_upvote column counts its rows.
+ */
+public enum UpvoteTable {
+    POST("upvotes", "post_id", "Post"),
+    COMMENT("comment_upvotes", "comment_id", "Comment"),
+    BUS("bus_upvotes", "bus_id", "Bus");
+
+    /** Table with one row per (user, entity) upvote */
+    private final String votes;
+    /** Column of the upvoted entity's id in the votes table */
+    private final String entityColumn;
+    /** Table holding num_upvote of the entity */
+    private final String counted;
+
+    UpvoteTable(String votes, String entityColumn, String counted) {
+        this.votes = votes;
+        this.entityColumn = entityColumn;
+        this.counted = counted;
+    }
+
+    String existsSql() {
+        return "SELECT 1 FROM " + votes + " WHERE user_id = ? AND " + entityColumn + " = ?";
+    }
+
+    String insertSql() {
+        return "INSERT INTO " + votes + " (user_id, " + entityColumn + ", created_at) SELECT ?, ?, CURRENT_TIMESTAMP"
+                + " WHERE NOT EXISTS (SELECT 1 FROM " + votes + " WHERE user_id = ? AND " + entityColumn + " = ?)";
+    }
+
+    String deleteSql() {
+        return "DELETE FROM " + votes + " WHERE user_id = ? AND " + entityColumn + " = ?";
+    }
+
+    String addCountSql() {
+        return "UPDATE " + counted + " SET num_upvote = num_upvote + ? WHERE id = ?";
+    }
+}
@@ -1,6 +1,10 @@
 package com.project.arebbus.security;
 
+import com.project.arebbus.config.MetricsConfiguration;
 import com.project.arebbus.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -29,6 +33,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final MeterRegistry meterRegistry;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
@@ -47,11 +53,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (authentication == null) {
+                UserDetails userDetails = resolvePrincipal(jwt);
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -66,4 +71,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
+
+    /**
+     * Returns the cached principal of a token, or verifies the token once and loads its user.
+     * The time taken is recorded with an outcome of cached, verified, invalid or rejected
+     * (the token could not be parsed or has expired).
+     *
+     * @param jwt The raw token
+     * @return The principal, or null if the token does not identify a valid user
+     */
+    private UserDetails resolvePrincipal(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "rejected";
+        try {
+            UserDetails cached = jwtPrincipalCache.get(jwt);
+            if (cached != null) {
+                outcome = "cached";
+                return cached;
+            }
+            Claims claims = jwtService.parseClaims(jwt);
+            if (claims.getSubject() == null) {
+                outcome = "invalid";
+                return null;
+            }
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            if (!jwtService.isTokenValid(claims, userDetails)) {
+                outcome = "invalid";
+                return null;
+            }
+            jwtPrincipalCache.put(jwt, userDetails, claims.getExpiration());
+            outcome = "verified";
+            return userDetails;
+        } finally {
+            sample.stop(meterRegistry.timer(MetricsConfiguration.JWT_AUTHENTICATION_TIMER, "outcome", outcome));
+        }
+    }
 }
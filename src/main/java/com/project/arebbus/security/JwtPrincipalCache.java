@@ -0,0 +1,106 @@
+package com.project.arebbus.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the principal a verified token resolved to, so repeated requests with the same
+ * token skip signature verification and the user lookup.
+ * Entries live for at most the configured TTL and never past the token's own expiry. The
+ * entries of a user are evicted when the user changes, and at worst the TTL bounds how long a
+ * change made elsewhere stays invisible.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final long ttlMs;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    private final Map<String, Entry> byToken = new ConcurrentHashMap<>();
+
+    private record Entry(UserDetails principal, long expiresAt) {
+    }
+
+    @Autowired
+    public JwtPrincipalCache(
+            @Value("${security.jwt.principal-cache.ttl-ms:60000}") long ttlMs,
+            @Value("${security.jwt.principal-cache.max-size:10000}") int maxSize) {
+        this(ttlMs, maxSize, System::currentTimeMillis);
+    }
+
+    JwtPrincipalCache(long ttlMs, int maxSize, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * @param token The raw token
+     * @return The principal of a previously verified token, or null if unknown or expired
+     */
+    public UserDetails get(String token) {
+        Entry entry = byToken.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            byToken.remove(token, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    /**
+     * Caches the principal of a verified token.
+     *
+     * @param token The raw token
+     * @param principal The user the token resolved to
+     * @param tokenExpiration Expiration claim of the token
+     */
+    public void put(String token, UserDetails principal, Date tokenExpiration) {
+        long now = clock.getAsLong();
+        long expiresAt = Math.min(now + ttlMs, tokenExpiration.getTime());
+        if (expiresAt <= now) {
+            return;
+        }
+        if (byToken.size() >= maxSize) {
+            evict(now);
+        }
+        byToken.put(token, new Entry(principal, expiresAt));
+    }
+
+    /**
+     * Forgets every cached token of a user, e.g. after their profile or validity changed.
+     *
+     * @param username The username (email) of the user
+     */
+    public void evictUser(String username) {
+        byToken.values().removeIf(entry -> entry.principal().getUsername().equals(username));
+    }
+
+    /**
+     * @return Number of cached tokens
+     */
+    public int size() {
+        return byToken.size();
+    }
+
+    /** Drops expired entries, then arbitrary ones until there is room for a new entry */
+    private void evict(long now) {
+        byToken.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<String> tokens = byToken.keySet().iterator();
+        while (byToken.size() >= maxSize && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.arebbus.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Names of users by id, for in-memory views that keep authors by id only (the stop index and
+ * the transit graph) and name them when a response is built.
+ */
+public interface AuthorNames {
+
+    /**
+     * @param userIds Ids of the users, possibly repeated
+     * @return Current name per user id; unknown ids are left out
+     */
+    Map<Long, String> namesOf(Collection<Long> userIds);
+}
@@ -0,0 +1,340 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationCluster;
+import com.project.arebbus.model.Bus;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.model.RouteStop;
+import com.project.arebbus.repositories.BusRepository;
+import com.project.arebbus.repositories.RouteStopRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Predicts when buses reach the stops ahead of them from the positions of their riders.
+ * Every ON_BUS cluster of a bus is treated as one vehicle and projected onto the polyline
+ * through the stops of the bus's route. Matching each vehicle to its previous projection
+ * gives its direction and a smoothed speed, from which the arrival at every downstream stop
+ * follows. Location updates only mark the bus as dirty; the work happens once per tick for
+ * the dirty buses, and the predictions are stored per stop so reads are plain lookups.
+ */
+@Component
+public class BusEtaEngine {
+
+    private static final double KM_PER_DEGREE = 111.32;
+    /** Weight of the newest speed sample in the moving average */
+    private static final double SPEED_SMOOTHING = 0.3;
+    /** Smaller movements along the route are treated as GPS noise when deciding direction */
+    private static final double MIN_MOVE_KM = 0.02;
+
+    /** Repository used to find the route of a bus */
+    private final BusRepository busRepository;
+
+    /** Repository used to load the stops of a route */
+    private final RouteStopRepository routeStopRepository;
+
+    /** Latest rider positions */
+    private final LiveLocationStore liveLocationStore;
+
+    /** Groups the riders of a bus into vehicles */
+    private final LocationClusterer locationClusterer;
+
+    private final double maxOffRouteKm;
+    private final double defaultSpeedKmh;
+    private final double minSpeedKmh;
+    private final double maxSpeedKmh;
+    private final Duration vehicleTimeout;
+    private final Duration horizon;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    /** Only touched from {@link #update(LocalDateTime)} */
+    private final Map<Long, BusTrack> tracks = new HashMap<>();
+    private final Map<Long, Map<Long, Arrival>> arrivalsByStop = new ConcurrentHashMap<>();
+    private final AtomicLong vehicleIds = new AtomicLong();
+
+    public BusEtaEngine(
+            BusRepository busRepository,
+            RouteStopRepository routeStopRepository,
+            LiveLocationStore liveLocationStore,
+            LocationClusterer locationClusterer,
+            @Value("${eta.max-off-route-km:0.3}") double maxOffRouteKm,
+            @Value("${eta.default-speed-kmh:15}") double defaultSpeedKmh,
+            @Value("${eta.min-speed-kmh:3}") double minSpeedKmh,
+            @Value("${eta.max-speed-kmh:80}") double maxSpeedKmh,
+            @Value("${eta.vehicle-timeout-seconds:180}") long vehicleTimeoutSeconds,
+            @Value("${eta.horizon-minutes:60}") long horizonMinutes) {
+        this.busRepository = busRepository;
+        this.routeStopRepository = routeStopRepository;
+        this.liveLocationStore = liveLocationStore;
+        this.locationClusterer = locationClusterer;
+        this.maxOffRouteKm = maxOffRouteKm;
+        this.defaultSpeedKmh = defaultSpeedKmh;
+        this.minSpeedKmh = minSpeedKmh;
+        this.maxSpeedKmh = maxSpeedKmh;
+        this.vehicleTimeout = Duration.ofSeconds(vehicleTimeoutSeconds);
+        this.horizon = Duration.ofMinutes(horizonMinutes);
+    }
+
+    /**
+     * Predicted arrival of one vehicle at a stop.
+     *
+     * @param vehicleId Id of the tracked rider cluster, stable while it is being followed
+     * @param distanceKm Remaining distance along the route
+     */
+    public record Arrival(
+            Long busId,
+            String busName,
+            long vehicleId,
+            LocalDateTime expectedAt,
+            double distanceKm,
+            double speedKmh) {
+    }
+
+    /** Stops of a route in order with the cumulative distance along the route */
+    private record Polyline(long[] stopIds, double[] latitudes, double[] longitudes, double[] km) {
+
+        /**
+         * @return Distance along the route of the closest point and the distance to it, in km
+         */
+        double[] project(double latitude, double longitude) {
+            double cosLat = Math.cos(Math.toRadians(latitude));
+            double bestAlong = 0;
+            double bestOffset = Double.POSITIVE_INFINITY;
+            for (int i = 0; i + 1 < stopIds.length; i++) {
+                // Equirectangular plane centred on the point, in km
+                double ax = (longitudes[i] - longitude) * cosLat * KM_PER_DEGREE;
+                double ay = (latitudes[i] - latitude) * KM_PER_DEGREE;
+                double bx = (longitudes[i + 1] - longitude) * cosLat * KM_PER_DEGREE;
+                double by = (latitudes[i + 1] - latitude) * KM_PER_DEGREE;
+                double dx = bx - ax;
+                double dy = by - ay;
+                double lengthSquared = dx * dx + dy * dy;
+                double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSquared));
+                double offset = Math.hypot(ax + t * dx, ay + t * dy);
+                if (offset < bestOffset) {
+                    bestOffset = offset;
+                    bestAlong = km[i] + t * (km[i + 1] - km[i]);
+                }
+            }
+            return new double[]{bestAlong, bestOffset};
+        }
+    }
+
+    /** A rider cluster followed across ticks */
+    private static final class Vehicle {
+        private final long id;
+        private double positionKm;
+        private LocalDateTime seenAt;
+        /** Smoothed speed along the route, 0 until the vehicle has been seen twice */
+        private double speedKmh;
+        /** +1 towards the last stop, -1 towards the first, 0 while unknown */
+        private int direction;
+        private final List<Long> publishedStops = new ArrayList<>();
+
+        private Vehicle(long id, double positionKm, LocalDateTime seenAt) {
+            this.id = id;
+            this.positionKm = positionKm;
+            this.seenAt = seenAt;
+        }
+    }
+
+    /** Route geometry and vehicles of one bus; the polyline is null for buses without a usable route */
+    private record BusTrack(String busName, Polyline polyline, List<Vehicle> vehicles) {
+    }
+
+    /**
+     * Notes a new rider location; predictions are refreshed on the next tick.
+     *
+     * @param previous The rider's previous latest location, or null
+     * @param next The rider's new latest location
+     */
+    public void onLocation(LiveLocationStore.Entry previous, LiveLocationStore.Entry next) {
+        if (next.status() == LocationStatus.ON_BUS) {
+            dirty.add(next.busId());
+        }
+        if (previous != null && previous.status() == LocationStatus.ON_BUS
+                && (next.status() != LocationStatus.ON_BUS || !previous.busId().equals(next.busId()))) {
+            dirty.add(previous.busId());
+        }
+    }
+
+    /**
+     * Refreshes the vehicles of the dirty buses and drops vehicles nobody reported lately.
+     */
+    @Scheduled(fixedDelayString = "${eta.tick-ms:2000}")
+    public void tick() {
+        update(LocalDateTime.now());
+    }
+
+    synchronized void update(LocalDateTime now) {
+        for (Long busId : dirty) {
+            dirty.remove(busId);
+            refresh(busId, now);
+        }
+        LocalDateTime cutoff = now.minus(vehicleTimeout);
+        for (BusTrack track : tracks.values()) {
+            track.vehicles().removeIf(vehicle -> {
+                if (vehicle.seenAt.isBefore(cutoff)) {
+                    unpublish(vehicle);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * @param stopId The stop id
+     * @param now The current time; predictions before it are skipped
+     * @return Predicted arrivals at the stop, soonest first
+     */
+    public List<Arrival> arrivals(Long stopId, LocalDateTime now) {
+        Map<Long, Arrival> byVehicle = arrivalsByStop.get(stopId);
+        if (byVehicle == null) {
+            return List.of();
+        }
+        return byVehicle.values().stream()
+                .filter(arrival -> arrival.expectedAt().isAfter(now))
+                .sorted(Comparator.comparing(Arrival::expectedAt))
+                .toList();
+    }
+
+    private void refresh(Long busId, LocalDateTime now) {
+        BusTrack track = tracks.computeIfAbsent(busId, this::loadTrack);
+        if (track.polyline() == null) {
+            return;
+        }
+
+        List<LiveLocationStore.Entry> riders = liveLocationStore.ridersOf(busId).stream()
+                .filter(entry -> entry.status() == LocationStatus.ON_BUS)
+                .toList();
+        List<Double> positions = new ArrayList<>();
+        for (BusLocationCluster cluster : locationClusterer.cluster(riders)) {
+            double[] projection = track.polyline().project(
+                    cluster.getLatitude().doubleValue(), cluster.getLongitude().doubleValue());
+            if (projection[1] <= maxOffRouteKm) {
+                positions.add(projection[0]);
+            }
+        }
+
+        List<Vehicle> unmatched = new ArrayList<>(track.vehicles());
+        for (double position : positions) {
+            Vehicle vehicle = closest(unmatched, position, now);
+            if (vehicle == null) {
+                vehicle = new Vehicle(vehicleIds.incrementAndGet(), position, now);
+                track.vehicles().add(vehicle);
+            } else {
+                unmatched.remove(vehicle);
+                move(vehicle, position, now);
+            }
+            publish(busId, track, vehicle, now);
+        }
+    }
+
+    /** The previous vehicle nearest to a position that could have driven there since it was seen */
+    private Vehicle closest(List<Vehicle> candidates, double position, LocalDateTime now) {
+        Vehicle best = null;
+        double bestGap = Double.POSITIVE_INFINITY;
+        for (Vehicle vehicle : candidates) {
+            double hours = Math.max(0, Duration.between(vehicle.seenAt, now).toMillis()) / 3_600_000.0;
+            double gap = Math.abs(position - vehicle.positionKm);
+            if (gap <= maxOffRouteKm + maxSpeedKmh * hours && gap < bestGap) {
+                best = vehicle;
+                bestGap = gap;
+            }
+        }
+        return best;
+    }
+
+    private void move(Vehicle vehicle, double position, LocalDateTime now) {
+        double hours = Duration.between(vehicle.seenAt, now).toMillis() / 3_600_000.0;
+        if (hours <= 0) {
+            return;
+        }
+        double delta = position - vehicle.positionKm;
+        if (Math.abs(delta) >= MIN_MOVE_KM) {
+            vehicle.direction = delta > 0 ? 1 : -1;
+        }
+        if (vehicle.direction != 0) {
+            double sample = Math.min(maxSpeedKmh, Math.max(0, delta * vehicle.direction) / hours);
+            vehicle.speedKmh = vehicle.speedKmh == 0
+                    ? sample
+                    : SPEED_SMOOTHING * sample + (1 - SPEED_SMOOTHING) * vehicle.speedKmh;
+        }
+        vehicle.positionKm = position;
+        vehicle.seenAt = now;
+    }
+
+    private void publish(Long busId, BusTrack track, Vehicle vehicle, LocalDateTime now) {
+        unpublish(vehicle);
+        if (vehicle.direction == 0) {
+            return;
+        }
+        Polyline polyline = track.polyline();
+        double speed = Math.max(minSpeedKmh, vehicle.speedKmh == 0 ? defaultSpeedKmh : vehicle.speedKmh);
+        LocalDateTime latest = now.plus(horizon);
+        for (int i = 0; i < polyline.stopIds().length; i++) {
+            double distance = (polyline.km()[i] - vehicle.positionKm) * vehicle.direction;
+            if (distance <= 0) {
+                continue;
+            }
+            LocalDateTime expectedAt = now.plusNanos((long) (distance / speed * 3.6e12));
+            if (expectedAt.isAfter(latest)) {
+                continue;
+            }
+            Arrival arrival = new Arrival(busId, track.busName(), vehicle.id, expectedAt, distance, speed);
+            // A route passing a stop twice keeps the earlier arrival
+            arrivalsByStop.computeIfAbsent(polyline.stopIds()[i], id -> new ConcurrentHashMap<>())
+                    .merge(vehicle.id, arrival, (a, b) -> a.expectedAt().isBefore(b.expectedAt()) ? a : b);
+            vehicle.publishedStops.add(polyline.stopIds()[i]);
+        }
+    }
+
+    private void unpublish(Vehicle vehicle) {
+        for (Long stopId : vehicle.publishedStops) {
+            arrivalsByStop.computeIfPresent(stopId, (id, byVehicle) -> {
+                byVehicle.remove(vehicle.id);
+                return byVehicle.isEmpty() ? null : byVehicle;
+            });
+        }
+        vehicle.publishedStops.clear();
+    }
+
+    private BusTrack loadTrack(Long busId) {
+        Bus bus = busRepository.findById(busId).orElse(null);
+        if (bus == null || bus.getRoute() == null) {
+            return new BusTrack(null, null, new ArrayList<>());
+        }
+        List<RouteStop> routeStops = routeStopRepository.findByRouteIdsWithStops(List.of(bus.getRoute().getId()));
+        if (routeStops.size() < 2) {
+            return new BusTrack(bus.getName(), null, new ArrayList<>());
+        }
+
+        int n = routeStops.size();
+        long[] stopIds = new long[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        double[] km = new double[n];
+        for (int i = 0; i < n; i++) {
+            stopIds[i] = routeStops.get(i).getStop().getId();
+            latitudes[i] = routeStops.get(i).getStop().getLatitude().doubleValue();
+            longitudes[i] = routeStops.get(i).getStop().getLongitude().doubleValue();
+            if (i > 0) {
+                km[i] = km[i - 1] + StopSpatialIndex.haversineKm(
+                        latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i]);
+            }
+        }
+        return new BusTrack(bus.getName(), new Polyline(stopIds, latitudes, longitudes, km), new ArrayList<>());
+    }
+}
@@ -0,0 +1,180 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Pushes clustered bus positions to Server-Sent Event subscribers.
+ * Location writes only mark a bus as dirty; once per tick every dirty bus with subscribers is
+ * clustered a single time and the result is offered to each of its subscribers, skipping
+ * ticks where the clusters did not change. Every subscriber is drained by its own virtual
+ * thread and holds at most one undelivered snapshot, so a slow client only ever sees the
+ * latest positions and never holds back the others.
+ */
+@Component
+public class BusLocationStream {
+
+    private final long timeoutMs;
+
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BusLocationStream.class);
+
+    public BusLocationStream(@Value("${location.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /** Subscribers of one bus and the last snapshot sent to them */
+    private static final class Topic {
+        private final Supplier<BusLocationResponse> snapshot;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private volatile BusLocationResponse last;
+
+        private Topic(Supplier<BusLocationResponse> snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    /** One client connection with a single conflating slot for the next snapshot */
+    private final class Subscriber {
+        private final Long busId;
+        private final SseEmitter emitter;
+        private final AtomicReference<BusLocationResponse> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long busId, SseEmitter emitter) {
+            this.busId = busId;
+            this.emitter = emitter;
+        }
+
+        private void offer(BusLocationResponse response) {
+            // A snapshot the client has not received yet is simply replaced
+            pending.set(response);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                BusLocationResponse next = pending.getAndSet(null);
+                if (next == null) {
+                    draining.set(false);
+                    if (pending.get() == null || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    emitter.send(next);
+                } catch (Exception e) {
+                    LOGGER.debug("Dropping subscriber of bus {}: {}", busId, e.getMessage());
+                    remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a stream for a bus. The current snapshot is sent right away.
+     *
+     * @param busId The bus to follow
+     * @param snapshot Computes the current clusters of the bus
+     * @return The emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long busId, Supplier<BusLocationResponse> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(busId, emitter);
+        Topic topic = topics.compute(busId, (id, existing) -> {
+            Topic next = existing != null ? existing : new Topic(snapshot);
+            next.subscribers.add(subscriber);
+            return next;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        BusLocationResponse current = topic.last;
+        if (current == null) {
+            current = topic.snapshot.get();
+            topic.last = current;
+        }
+        subscriber.offer(current);
+        return emitter;
+    }
+
+    /**
+     * Notes that a rider position of a bus changed; subscribers are updated on the next tick.
+     *
+     * @param busId The bus whose riders changed
+     */
+    public void markDirty(Long busId) {
+        if (busId != null && topics.containsKey(busId)) {
+            dirty.add(busId);
+        }
+    }
+
+    /**
+     * Recomputes each dirty bus once and fans the result out to its subscribers.
+     */
+    @Scheduled(fixedDelayString = "${location.stream.tick-ms:1000}")
+    public void tick() {
+        for (Long busId : dirty) {
+            dirty.remove(busId);
+            Topic topic = topics.get(busId);
+            if (topic == null) {
+                continue;
+            }
+            BusLocationResponse response = topic.snapshot.get();
+            if (Objects.equals(response, topic.last)) {
+                continue;
+            }
+            topic.last = response;
+            topic.subscribers.forEach(subscriber -> subscriber.offer(response));
+        }
+    }
+
+    /**
+     * @param busId The bus id
+     * @return Number of open streams for the bus
+     */
+    public int subscriberCount(Long busId) {
+        Topic topic = topics.get(busId);
+        return topic == null ? 0 : topic.subscribers.size();
+    }
+
+    private void remove(Subscriber subscriber) {
+        topics.computeIfPresent(subscriber.busId, (id, topic) -> {
+            topic.subscribers.remove(subscriber);
+            return topic.subscribers.isEmpty() ? null : topic;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        topics.values().forEach(topic -> topic.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdown();
+    }
+}
@@ -0,0 +1,168 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.repositories.LocationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Number of WAITING and ON_BUS users per bus, maintained on every status transition so the
+ * waiting count endpoint does not have to look at any riders.
+ * The counters are rebuilt from the database at startup and checked against it periodically.
+ * A periodic check is skipped while location writes are still pending or when a transition
+ * happens during the check, since the database would then be behind the counters.
+ */
+@Component
+@RequiredArgsConstructor
+public class BusRiderCounters {
+
+    /** Repository used to reconcile the counters */
+    private final LocationRepository locationRepository;
+
+    /** Pending location writes; the database is only authoritative once they are flushed */
+    private final LocationWriteBehind locationWriteBehind;
+
+    private final Map<Long, Counts> byBus = new ConcurrentHashMap<>();
+
+    /** Incremented on every transition so a reconciliation can detect concurrent changes */
+    private final AtomicLong transitions = new AtomicLong();
+
+    /** Transitions share the lock; applying a reconciliation takes it exclusively */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BusRiderCounters.class);
+
+    private record Counts(AtomicInteger waiting, AtomicInteger onBus) {
+        Counts() {
+            this(new AtomicInteger(), new AtomicInteger());
+        }
+
+        AtomicInteger of(LocationStatus status) {
+            return switch (status) {
+                case WAITING -> waiting;
+                case ON_BUS -> onBus;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * Moves a user's contribution from their previous bus and status to the new ones.
+     *
+     * @param previous The user's previous latest location, or null
+     * @param next The user's new latest location
+     */
+    public void transition(LiveLocationStore.Entry previous, LiveLocationStore.Entry next) {
+        if (previous != null && previous.busId().equals(next.busId()) && previous.status() == next.status()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            transitions.incrementAndGet();
+            if (previous != null) {
+                adjust(previous.busId(), previous.status(), -1);
+            }
+            adjust(next.busId(), next.status(), 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param busId The bus id
+     * @return Number of users whose latest location is WAITING for the bus
+     */
+    public int waiting(Long busId) {
+        Counts counts = byBus.get(busId);
+        return counts == null ? 0 : Math.max(0, counts.waiting().get());
+    }
+
+    /**
+     * @param busId The bus id
+     * @return Number of users whose latest location is ON_BUS for the bus
+     */
+    public int onBus(Long busId) {
+        Counts counts = byBus.get(busId);
+        return counts == null ? 0 : Math.max(0, counts.onBus().get());
+    }
+
+    /**
+     * Rebuilds the counters from the database once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!reconcile(transitions.get())) {
+            LOGGER.warn("Rider counters changed while loading; they will be reconciled on the next run");
+        }
+    }
+
+    /**
+     * Replaces the counters with the database counts when the database is up to date.
+     */
+    @Scheduled(
+            initialDelayString = "${location.counters.reconcile-interval-ms:60000}",
+            fixedDelayString = "${location.counters.reconcile-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void reconcileIfQuiet() {
+        // Read first: a transition after the drain check has not reached the database either
+        long before = transitions.get();
+        if (locationWriteBehind.isDrained()) {
+            reconcile(before);
+        }
+    }
+
+    /**
+     * @param before The transition count read before the database was known to be up to date
+     * @return true if the counters were replaced, false if a transition happened since before
+     */
+    synchronized boolean reconcile(long before) {
+        Map<Long, int[]> counted = new HashMap<>();
+        for (Object[] row : locationRepository.countLatestByBusAndStatus()) {
+            int[] counts = counted.computeIfAbsent((Long) row[0], busId -> new int[2]);
+            LocationStatus status = (LocationStatus) row[1];
+            if (status == LocationStatus.WAITING) {
+                counts[0] += ((Number) row[2]).intValue();
+            } else if (status == LocationStatus.ON_BUS) {
+                counts[1] += ((Number) row[2]).intValue();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (transitions.get() != before) {
+                return false;
+            }
+            byBus.keySet().removeIf(busId -> !counted.containsKey(busId));
+            counted.forEach((busId, counts) -> {
+                Counts current = byBus.computeIfAbsent(busId, id -> new Counts());
+                current.waiting().set(counts[0]);
+                current.onBus().set(counts[1]);
+            });
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void adjust(Long busId, LocationStatus status, int delta) {
+        AtomicInteger counter = byBus.computeIfAbsent(busId, id -> new Counts()).of(status);
+        if (counter != null) {
+            counter.addAndGet(delta);
+        }
+    }
+}
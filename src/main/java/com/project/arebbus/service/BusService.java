@@ -1,5 +1,6 @@
 package com.project.arebbus.service;
 
+import com.project.arebbus.config.MetricsConfiguration;
 import com.project.arebbus.dto.*;
 import com.project.arebbus.exception.BusAlreadyInstalledException;
 import com.project.arebbus.exception.BusNotFoundException;
@@ -7,16 +8,21 @@ import com.project.arebbus.exception.BusNotInstalledException;
 import com.project.arebbus.exception.RouteNotFoundException;
 import com.project.arebbus.model.*;
 import com.project.arebbus.repositories.*;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class for bus business logic operations.
@@ -24,6 +30,7 @@ import java.util.Optional;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class BusService {
 
     /** Repository for bus data access */
@@ -42,6 +49,10 @@ public class BusService {
     /** Repository for bus installation tracking */
     /** Repository for  data access */
     private final InstallRepository installRepository;
+    /** Bus upvotes not yet written */
+    private final UpvoteCounters upvoteCounters;
+    /** Built RouteResponses shared between requests */
+    private final RouteSnapshotCache routeSnapshotCache;
 
     /**
      * Creates a new bus with the specified details and route.
@@ -73,7 +84,7 @@ public class BusService {
 
         Bus savedBus = busRepository.save(bus);
 
-        return buildBusResponse(savedBus, user);
+        return buildBusResponses(List.of(savedBus), user).get(0);
     }
 
     /**
@@ -91,11 +102,12 @@ public class BusService {
      * @param user The user requesting the 
      * @return BusResponse containing  details
      */
+    @Transactional(readOnly = true)
     public BusResponse getBusById(Long busId, User user) {
         Bus bus = busRepository.findById(busId)
                 .orElseThrow(() -> new BusNotFoundException(busId));
 
-        return buildBusResponse(bus, user);
+        return buildBusResponses(List.of(bus), user).get(0);
     }
 
     /**
@@ -114,13 +126,12 @@ public class BusService {
      * @param size The page size
      * @return PagedBusResponse containing  and pagination info
      */
+    @Transactional(readOnly = true)
     public PagedBusResponse getAllBuses(User user, int page, int size) {
         Sort sort = Sort.by(Sort.Direction.DESC, "id");
         Page<Bus> buses = busRepository.findAll(PageRequest.of(page, size, sort));
 
-        List<BusResponse> busResponses = buses.getContent().stream()
-                .map(bus -> buildBusResponse(bus, user))
-                .toList();
+        List<BusResponse> busResponses = buildBusResponses(buses.getContent(), user);
 
         return PagedBusResponse.builder()
                 .buses(busResponses)
@@ -206,13 +217,12 @@ public class BusService {
      * @param size The number of buses per page
      * @return PagedBusResponse containing installed buses and pagination info
      */
+    @Transactional(readOnly = true)
     public PagedBusResponse getInstalledBuses(User user, int page, int size) {
         Sort sort = Sort.by(Sort.Direction.DESC, "id");
         Page<Bus> buses = busRepository.findBusesInstalledByUser(user, PageRequest.of(page, size, sort));
 
-        List<BusResponse> busResponses = buses.getContent().stream()
-                .map(bus -> buildBusResponse(bus, user))
-                .toList();
+        List<BusResponse> busResponses = buildBusResponses(buses.getContent(), user);
 
         return PagedBusResponse.builder()
                 .buses(busResponses)
@@ -224,21 +234,53 @@ public class BusService {
     }
 
     /**
-     * Builds a complete BusResponse with user-specific data like upvote and install status.
+     * Builds BusResponses for a page of buses with a fixed number of queries: one for the
+     * stops of the routes without a snapshot yet and one each for the user's upvotes and installs.
+     * Authors, routes and basedOn buses are expected to be fetched with the buses.
      * 
-     * @param bus The bus entity to convert
+     * @param buses The bus entities to convert
      * @param user The user for personalized data
-     * @return BusResponse with complete bus information
+     * @return BusResponses in the same order as buses
      */
+    private List<BusResponse> buildBusResponses(List<Bus> buses, User user) {
+        if (buses.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> busIds = new HashSet<>();
+        Map<Long, Route> routes = new HashMap<>();
+        for (Bus bus : buses) {
+            busIds.add(bus.getId());
+            routes.putIfAbsent(bus.getRoute().getId(), bus.getRoute());
+            if (bus.getBasedOn() != null) {
+                busIds.add(bus.getBasedOn().getId());
+            }
+        }
+
+        Map<Long, RouteResponse> routeResponses =
+                routeSnapshotCache.getAll(routes.values(), routeStopRepository::findByRouteIdsWithStops);
+        Set<Long> upvoted = new HashSet<>(busUpvoteRepository.findUpvotedBusIds(user.getId(), busIds));
+        upvoteCounters.applyPending(UpvoteTable.BUS, user.getId(), busIds, upvoted);
+        Set<Long> installed = new HashSet<>(installRepository.findInstalledBusIds(user.getId(), busIds));
+
+        return buses.stream()
+                .map(bus -> buildBusResponse(bus, routeResponses, upvoted, installed))
+                .toList();
+    }
+
     /**
-     * Builds a BusResponse from entity data.
+     * Builds a complete BusResponse with user-specific data like upvote and install status.
      * 
-     * @param entity The entity to convert
-     * @return BusResponse with entity data
+     * @param bus The bus entity to convert
+     * @param routeResponses Snapshot of every route on the page
+     * @param upvoted Ids of the buses the user has upvoted
+     * @param installed Ids of the buses the user has installed
+     * @return BusResponse with complete bus information
      */
-    private BusResponse buildBusResponse(Bus bus, User user) {
-        RouteResponse routeResponse = buildRouteResponse(bus.getRoute());
-        
+    private BusResponse buildBusResponse(
+            Bus bus, Map<Long, RouteResponse> routeResponses, Set<Long> upvoted, Set<Long> installed) {
+        RouteResponse routeResponse = routeResponses.get(bus.getRoute().getId());
+
         BusResponse basedOnResponse = null;
         if (bus.getBasedOn() != null) {
             basedOnResponse = BusResponse.builder()
@@ -247,10 +289,10 @@ public class BusService {
                     .authorName(bus.getBasedOn().getAuthor().getName())
                     .capacity(bus.getBasedOn().getCapacity())
                     .numInstall(bus.getBasedOn().getNumInstall())
-                    .numUpvote(bus.getBasedOn().getNumUpvote())
+                    .numUpvote(bus.getBasedOn().getNumUpvote() + upvoteCounters.pending(UpvoteTable.BUS, bus.getBasedOn().getId()))
                     .status(bus.getBasedOn().getStatus())
-                    .upvoted(busUpvoteRepository.existsByUserIdAndBusId(user.getId(), bus.getBasedOn().getId()))
-                    .installed(installRepository.existsByUserAndBus(user, bus.getBasedOn()))
+                    .upvoted(upvoted.contains(bus.getBasedOn().getId()))
+                    .installed(installed.contains(bus.getBasedOn().getId()))
                     .rating(bus.getBasedOn().getRating())
                     .build();
         }
@@ -262,45 +304,12 @@ public class BusService {
                 .route(routeResponse)
                 .capacity(bus.getCapacity())
                 .numInstall(bus.getNumInstall())
-                .numUpvote(bus.getNumUpvote())
+                .numUpvote(bus.getNumUpvote() + upvoteCounters.pending(UpvoteTable.BUS, bus.getId()))
                 .status(bus.getStatus())
                 .basedOn(basedOnResponse)
-                .upvoted(busUpvoteRepository.existsByUserIdAndBusId(user.getId(), bus.getId()))
-                .installed(installRepository.existsByUserAndBus(user, bus))
+                .upvoted(upvoted.contains(bus.getId()))
+                .installed(installed.contains(bus.getId()))
                 .rating(bus.getRating())
                 .build();
     }
-
-    /**
-     * Builds a RouteResponse with all associated stops.
-     * 
-     * @param route The route entity to convert
-     * @return RouteResponse with route and stop information
-     */
-    /**
-     * Builds a RouteResponse from entity data.
-     * 
-     * @param entity The entity to convert
-     * @return RouteResponse with entity data
-     */
-    private RouteResponse buildRouteResponse(Route route) {
-        List<RouteStop> routeStops = routeStopRepository.findByRouteOrderByStopIndex(route);
-
-        List<StopResponse> stopResponses = routeStops.stream()
-                .map(routeStop -> StopResponse.builder()
-                        .id(routeStop.getStop().getId())
-                        .name(routeStop.getStop().getName())
-                        .latitude(routeStop.getStop().getLatitude())
-                        .longitude(routeStop.getStop().getLongitude())
-                        .authorName(routeStop.getStop().getAuthor().getName())
-                        .build())
-                .toList();
-
-        return RouteResponse.builder()
-                .id(route.getId())
-                .name(route.getName())
-                .authorName(route.getAuthor().getName())
-                .stops(stopResponses)
-                .build();
-    }
-}
\ No newline at end of file
+}
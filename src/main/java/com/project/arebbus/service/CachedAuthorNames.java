@@ -0,0 +1,45 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.UserName;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads author names through the second-level cached {@link UserName}, which a rename evicts.
+ * Names found in the cache cost no query and the missing ones are loaded in one batch.
+ */
+@Component
+public class CachedAuthorNames implements AuthorNames {
+
+    private final EntityManager entityManager;
+
+    public CachedAuthorNames(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, String> namesOf(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        List<UserName> users = entityManager.unwrap(Session.class)
+                .byMultipleIds(UserName.class)
+                .multiLoad(List.copyOf(new LinkedHashSet<>(userIds)));
+        Map<Long, String> names = new HashMap<>();
+        for (UserName user : users) {
+            if (user != null) {
+                names.put(user.getId(), user.getName());
+            }
+        }
+        return names;
+    }
+}
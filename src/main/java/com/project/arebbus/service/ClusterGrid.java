@@ -0,0 +1,132 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationCluster;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid over planar points for fixed-radius neighbour lookups. The cell size equals the
+ * radius, so the neighbours of a point are always in its own or one of the eight adjacent
+ * cells. Points of a cell are stored contiguously in one index array.
+ */
+final class ClusterGrid {
+
+    private final double[] x;
+    private final double[] y;
+    private final double radius;
+    private final double radiusSquared;
+
+    /** Point indices sorted by cell */
+    private final int[] order;
+    /** Cell key to the [start, end) range of its points in order */
+    private final Map<Long, int[]> cells = new HashMap<>();
+
+    ClusterGrid(double[] x, double[] y, double radius) {
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+        this.radiusSquared = radius * radius;
+
+        int n = x.length;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = cellKey(cell(x[i]), cell(y[i]));
+            cells.computeIfAbsent(keys[i], key -> new int[2])[1]++;
+        }
+
+        // Counting sort: turn per-cell counts into ranges, then place every point in its range
+        int offset = 0;
+        for (int[] range : cells.values()) {
+            int count = range[1];
+            range[0] = offset;
+            range[1] = offset;
+            offset += count;
+        }
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int[] range = cells.get(keys[i]);
+            order[range[1]++] = i;
+        }
+    }
+
+    int size() {
+        return x.length;
+    }
+
+    /**
+     * Calls action with every point within the radius of point i, including i itself.
+     */
+    void forEachNeighbour(int i, IntConsumer action) {
+        long cx = cell(x[i]);
+        long cy = cell(y[i]);
+        for (long dx = -1; dx <= 1; dx++) {
+            for (long dy = -1; dy <= 1; dy++) {
+                int[] range = cells.get(cellKey(cx + dx, cy + dy));
+                if (range == null) {
+                    continue;
+                }
+                for (int k = range[0]; k < range[1]; k++) {
+                    int j = order[k];
+                    double ddx = x[i] - x[j];
+                    double ddy = y[i] - y[j];
+                    if (ddx * ddx + ddy * ddy <= radiusSquared) {
+                        action.accept(j);
+                    }
+                }
+            }
+        }
+    }
+
+    private long cell(double coordinate) {
+        return (long) Math.floor(coordinate / radius);
+    }
+
+    private static long cellKey(long cx, long cy) {
+        return (cx << 32) ^ (cy & 0xffffffffL);
+    }
+
+    /**
+     * Builds the clusters described by a label per location. Averages are computed from the
+     * original BigDecimal coordinates, rounded half-up at their scale.
+     *
+     * @param locations The clustered locations
+     * @param labels Cluster label of each location
+     * @return Clusters in the order of their first location
+     */
+    static List<BusLocationCluster> toClusters(List<LiveLocationStore.Entry> locations, int[] labels) {
+        Map<Integer, Integer> slotOf = new HashMap<>();
+        List<BigDecimal[]> sums = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        for (int i = 0; i < labels.length; i++) {
+            LiveLocationStore.Entry location = locations.get(i);
+            Integer slot = slotOf.get(labels[i]);
+            if (slot == null) {
+                slot = sums.size();
+                slotOf.put(labels[i], slot);
+                sums.add(new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                counts.add(0);
+            }
+            BigDecimal[] sum = sums.get(slot);
+            sum[0] = sum[0].add(location.latitude());
+            sum[1] = sum[1].add(location.longitude());
+            counts.set(slot, counts.get(slot) + 1);
+        }
+
+        List<BusLocationCluster> clusters = new ArrayList<>(sums.size());
+        for (int slot = 0; slot < sums.size(); slot++) {
+            BigDecimal count = BigDecimal.valueOf(counts.get(slot));
+            clusters.add(BusLocationCluster.builder()
+                    .latitude(sums.get(slot)[0].divide(count, RoundingMode.HALF_UP))
+                    .longitude(sums.get(slot)[1].divide(count, RoundingMode.HALF_UP))
+                    .userCount(counts.get(slot))
+                    .build());
+        }
+        return clusters;
+    }
+}
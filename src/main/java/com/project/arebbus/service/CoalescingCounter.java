@@ -0,0 +1,111 @@
+package com.project.arebbus.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Per-key counter deltas that are accumulated in memory and written out in batches.
+ * Each key has a {@link LongAdder}, so concurrent increments of one hot key are striped across
+ * cells instead of contending on a single value or database row. Adders are never reset: a
+ * flush writes the difference between the current sum and what was written before, so an
+ * increment racing with a flush is simply picked up by the next one. Keys that stay idle are
+ * retired; a retired adder is still read by every flush for a grace period, which catches
+ * writers that fetched it just before it was removed.
+ */
+public class CoalescingCounter {
+
+    /** Flushes without any change before a key is retired */
+    private static final int IDLE_FLUSHES_BEFORE_RETIRE = 4;
+
+    /** How long a retired adder is still read, whatever the flush interval */
+    private static final long RETIRE_GRACE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Consumer<Map<Long, Long>> sink;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    /** Only touched by {@link #flush()} */
+    private final List<Map.Entry<Long, Slot>> retiring = new ArrayList<>();
+
+    private static final class Slot {
+        private final LongAdder adder = new LongAdder();
+        /** Sum already handed to the sink; only touched by {@link #flush()} */
+        private long flushed;
+        private int idleFlushes;
+        private long retiredAt;
+    }
+
+    /**
+     * @param sink Receives the non-zero deltas of a flush; throwing keeps them for the next flush
+     */
+    public CoalescingCounter(Consumer<Map<Long, Long>> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Adds a delta to a key.
+     *
+     * @param key The counted entity id
+     * @param delta The change, usually +1 or -1
+     */
+    public void add(Long key, long delta) {
+        slots.computeIfAbsent(key, id -> new Slot()).adder.add(delta);
+    }
+
+    /**
+     * @param key The counted entity id
+     * @return The change not yet handed to the sink
+     */
+    public long pending(Long key) {
+        Slot slot = slots.get(key);
+        return slot == null ? 0 : slot.adder.sum() - slot.flushed;
+    }
+
+    /**
+     * Hands every unwritten delta to the sink in one call.
+     */
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Slot, Long> sums = new HashMap<>();
+        long now = System.nanoTime();
+
+        for (Map.Entry<Long, Slot> entry : retiring) {
+            collect(entry.getKey(), entry.getValue(), deltas, sums);
+        }
+        for (Map.Entry<Long, Slot> entry : slots.entrySet()) {
+            Slot slot = entry.getValue();
+            if (!collect(entry.getKey(), slot, deltas, sums)
+                    && ++slot.idleFlushes >= IDLE_FLUSHES_BEFORE_RETIRE
+                    && slots.remove(entry.getKey(), slot)) {
+                slot.retiredAt = now;
+                retiring.add(Map.entry(entry.getKey(), slot));
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            // On failure nothing is marked as flushed, so the same deltas are retried next time
+            sink.accept(deltas);
+            sums.forEach((slot, sum) -> slot.flushed = sum);
+        }
+        retiring.removeIf(entry -> now - entry.getValue().retiredAt >= RETIRE_GRACE_NANOS
+                && entry.getValue().adder.sum() == entry.getValue().flushed);
+    }
+
+    /** Records the unwritten delta of a slot; returns false if it has none */
+    private static boolean collect(Long key, Slot slot, Map<Long, Long> deltas, Map<Slot, Long> sums) {
+        long sum = slot.adder.sum();
+        long delta = sum - slot.flushed;
+        if (delta == 0) {
+            return false;
+        }
+        slot.idleFlushes = 0;
+        deltas.merge(key, delta, Long::sum);
+        sums.put(slot, sum);
+        return true;
+    }
+}
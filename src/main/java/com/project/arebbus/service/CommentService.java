@@ -7,6 +7,7 @@ import com.project.arebbus.repositories.CommentRepository;
 import com.project.arebbus.repositories.PostRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service class for comment business logic operations.
@@ -19,6 +20,8 @@ public class CommentService {
     private final PostRepository postRepository;
     /** Repository for comment data access */
     private final CommentRepository commentRepository;
+    /** Full-text index the comments are searchable through */
+    private final PostSearchIndex postSearchIndex;
 
     /**
      * Creates a new comment on a post.
@@ -29,6 +32,7 @@ public class CommentService {
      * @return CommentResponse containing the created comment details
      * @throws IllegalArgumentException if the post doesn't exist
      */
+    @Transactional
     public CommentResponse createComment(User user, String content, Long postId) {
         var post = postRepository.findById(postId)
                 .orElseThrow(() -> new IllegalArgumentException("Post not found with id: " + postId));
@@ -41,6 +45,8 @@ public class CommentService {
                         .numUpvote(0L)
                         .build()
         );
+        TransactionCallbacks.afterCommit(
+                () -> postSearchIndex.addComment(comment.getId(), postId, comment.getContent()));
 
         return CommentResponse.builder()
                 .id(comment.getId())
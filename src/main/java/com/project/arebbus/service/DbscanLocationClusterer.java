@@ -0,0 +1,81 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationCluster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DBSCAN over positions in degrees. Only riders with at least
+ * {@code location.cluster.dbscan.min-points} neighbours within the threshold (themselves
+ * included) can grow a cluster, so a thin chain of riders does not merge two groups the way
+ * single linkage does. Riders that end up as noise are reported as clusters of one, so every
+ * rider is still counted.
+ */
+@Component
+@ConditionalOnProperty(name = "location.cluster.algorithm", havingValue = "dbscan")
+public class DbscanLocationClusterer implements LocationClusterer {
+
+    private static final int UNVISITED = -1;
+
+    private final double thresholdDegrees;
+    private final int minPoints;
+
+    public DbscanLocationClusterer(
+            @Value("${location.cluster.threshold-degrees:0.001}") double thresholdDegrees,
+            @Value("${location.cluster.dbscan.min-points:3}") int minPoints) {
+        this.thresholdDegrees = thresholdDegrees;
+        this.minPoints = minPoints;
+    }
+
+    @Override
+    public List<BusLocationCluster> cluster(List<LiveLocationStore.Entry> locations) {
+        int n = locations.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = locations.get(i).longitude().doubleValue();
+            y[i] = locations.get(i).latitude().doubleValue();
+        }
+        ClusterGrid grid = new ClusterGrid(x, y, thresholdDegrees);
+
+        boolean[] core = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int[] neighbours = new int[1];
+            grid.forEachNeighbour(i, j -> neighbours[0]++);
+            core[i] = neighbours[0] >= minPoints;
+        }
+
+        int[] labels = new int[n];
+        Arrays.fill(labels, UNVISITED);
+        ArrayDeque<Integer> frontier = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            if (labels[i] != UNVISITED) {
+                continue;
+            }
+            // The label of a cluster is its first point; noise keeps its own index
+            labels[i] = i;
+            if (!core[i]) {
+                continue;
+            }
+            int label = i;
+            frontier.add(i);
+            while (!frontier.isEmpty()) {
+                int point = frontier.poll();
+                grid.forEachNeighbour(point, j -> {
+                    if (labels[j] == UNVISITED || (labels[j] == j && !core[j])) {
+                        labels[j] = label;
+                        if (core[j]) {
+                            frontier.add(j);
+                        }
+                    }
+                });
+            }
+        }
+        return ClusterGrid.toClusters(locations, labels);
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationCluster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Single-linkage clustering in degrees: two riders belong to the same cluster when a chain of
+ * riders connects them with every step at most {@code location.cluster.threshold-degrees}
+ * apart. Neighbours are found through a {@link ClusterGrid}, so the cost is linear in the
+ * number of riders for any realistic density.
+ */
+@Component
+@ConditionalOnProperty(name = "location.cluster.algorithm", havingValue = "grid", matchIfMissing = true)
+public class GridLocationClusterer implements LocationClusterer {
+
+    private final double thresholdDegrees;
+
+    public GridLocationClusterer(@Value("${location.cluster.threshold-degrees:0.001}") double thresholdDegrees) {
+        this.thresholdDegrees = thresholdDegrees;
+    }
+
+    @Override
+    public List<BusLocationCluster> cluster(List<LiveLocationStore.Entry> locations) {
+        int n = locations.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = locations.get(i).longitude().doubleValue();
+            y[i] = locations.get(i).latitude().doubleValue();
+        }
+        return ClusterGrid.toClusters(locations, link(new ClusterGrid(x, y, thresholdDegrees)));
+    }
+
+    /**
+     * Labels the connected components of the "within radius" graph with a union-find.
+     *
+     * @param grid The points to link
+     * @return The component root of every point
+     */
+    static int[] link(ClusterGrid grid) {
+        int[] parent = new int[grid.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < parent.length; i++) {
+            int current = i;
+            grid.forEachNeighbour(current, j -> {
+                if (j > current) {
+                    union(parent, current, j);
+                }
+            });
+        }
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = find(parent, i);
+        }
+        return parent;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+}
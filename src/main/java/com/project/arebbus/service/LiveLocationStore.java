@@ -0,0 +1,194 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.LocationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Concurrent in-memory view of every user's latest location.
+ * Entries are keyed by user id and additionally sharded by bus id so that per-bus
+ * lookups only touch the riders of that bus. The store is loaded from the database once
+ * the application is ready and is the source of truth afterwards; persistence happens
+ * asynchronously through {@link LocationWriteBehind}.
+ * Each user's latest entry sits in an atomic reference, so a status transition is a
+ * compare-and-set against the entry it was validated on: of two racing requests of the
+ * same user only one succeeds and the other has to re-validate against the winner.
+ */
+@Component
+@RequiredArgsConstructor
+public class LiveLocationStore {
+
+    /** Repository used to load the initial state and to answer lookups before warm-up */
+    private final LocationRepository locationRepository;
+
+    private final Map<Long, AtomicReference<Entry>> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Entry>> byBus = new ConcurrentHashMap<>();
+
+    private volatile boolean warm;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LiveLocationStore.class);
+
+    /**
+     * Latest known location of a single user.
+     *
+     * @param busId The bus the location row is keyed on (a placeholder bus for NO_TRACK)
+     * @param busName The bus name, or null when the bus is unknown
+     */
+    public record Entry(
+            Long userId,
+            Long busId,
+            String busName,
+            BigDecimal latitude,
+            BigDecimal longitude,
+            LocalDateTime time,
+            LocationStatus status) {
+
+        static Entry of(Location location) {
+            return new Entry(
+                    location.getUserId(),
+                    location.getBusId(),
+                    location.getBus() != null ? location.getBus().getName() : null,
+                    location.getLatitude(),
+                    location.getLongitude(),
+                    location.getTime(),
+                    location.getStatus());
+        }
+
+        Location toLocation() {
+            return Location.builder()
+                    .busId(busId)
+                    .userId(userId)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .time(time)
+                    .status(status)
+                    .build();
+        }
+    }
+
+    /**
+     * Loads the latest location of every user from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        List<Location> latest = locationRepository.findLatestForEachUser();
+
+        latest.forEach(location -> putIfNewer(Entry.of(location)));
+        warm = true;
+        LOGGER.info("Live location store loaded {} users", latest.size());
+    }
+
+    /**
+     * Returns the latest location of a user. Before warm-up has finished the lookup falls
+     * back to the database and keeps the row it found.
+     *
+     * @param user The user to look up
+     * @return The latest entry, or empty if the user has never shared a location
+     */
+    public Optional<Entry> latest(User user) {
+        AtomicReference<Entry> state = byUser.get(user.getId());
+        Entry entry = state == null ? null : state.get();
+        if (entry != null || warm) {
+            return Optional.ofNullable(entry);
+        }
+        locationRepository.findFirstByUserIdOrderByTimeDesc(user.getId())
+                .ifPresent(location -> putIfNewer(Entry.of(location)));
+        return Optional.ofNullable(state(user.getId()).get());
+    }
+
+    /**
+     * Returns the entries of every user whose latest location is keyed on the given bus.
+     *
+     * @param busId The bus id
+     * @return Snapshot of the bus shard
+     */
+    public Collection<Entry> ridersOf(Long busId) {
+        Map<Long, Entry> shard = byBus.get(busId);
+        return shard == null ? List.of() : List.copyOf(shard.values());
+    }
+
+    /**
+     * Makes an entry the user's latest location if the latest location is still the one
+     * the caller based it on.
+     *
+     * @param expected The latest entry the caller saw, or null if the user had none
+     * @param next The new entry
+     * @return true if next was installed, false if another request replaced expected first
+     */
+    public boolean compareAndSet(Entry expected, Entry next) {
+        AtomicReference<Entry> state = state(next.userId());
+        if (!state.compareAndSet(expected, next)) {
+            return false;
+        }
+        move(state, expected, next);
+        return true;
+    }
+
+    /**
+     * Records a new latest location for a user regardless of the previous one, moving it
+     * between bus shards if needed.
+     *
+     * @param entry The new entry
+     * @return The entry it replaced, or null if the user had none
+     */
+    public Entry put(Entry entry) {
+        AtomicReference<Entry> state = state(entry.userId());
+        Entry previous = state.getAndSet(entry);
+        move(state, previous, entry);
+        return previous;
+    }
+
+    private void putIfNewer(Entry entry) {
+        AtomicReference<Entry> state = state(entry.userId());
+        while (true) {
+            Entry previous = state.get();
+            if (previous != null && !entry.time().isAfter(previous.time())) {
+                return;
+            }
+            if (state.compareAndSet(previous, entry)) {
+                move(state, previous, entry);
+                return;
+            }
+        }
+    }
+
+    private AtomicReference<Entry> state(Long userId) {
+        return byUser.computeIfAbsent(userId, id -> new AtomicReference<>());
+    }
+
+    private void move(AtomicReference<Entry> state, Entry previous, Entry next) {
+        if (previous != null && !previous.busId().equals(next.busId())) {
+            sync(state, next.userId(), previous.busId());
+        }
+        sync(state, next.userId(), next.busId());
+    }
+
+    /**
+     * Makes a bus shard agree with the user's entry as it is now rather than with the entry
+     * the caller installed, so that racing transitions cannot leave a stale entry behind.
+     */
+    private void sync(AtomicReference<Entry> state, Long userId, Long busId) {
+        byBus.computeIfAbsent(busId, id -> new ConcurrentHashMap<>()).compute(userId, (id, shardEntry) -> {
+            Entry current = state.get();
+            return current != null && current.busId().equals(busId) ? current : null;
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationCluster;
+
+import java.util.List;
+
+/**
+ * Groups rider positions of a bus into clusters. The implementation is chosen with
+ * {@code location.cluster.algorithm}: {@code grid} (default), {@code meters} or {@code dbscan}.
+ */
+public interface LocationClusterer {
+
+    /**
+     * Clusters rider positions.
+     *
+     * @param locations The positions to cluster
+     * @return One cluster per group with its average position and rider count, in the order
+     *     of each group's first position
+     */
+    List<BusLocationCluster> cluster(List<LiveLocationStore.Entry> locations);
+}
@@ -0,0 +1,136 @@
+package com.project.arebbus.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.arebbus.dto.LocationResponse;
+import com.project.arebbus.exception.BusNotFoundException;
+import com.project.arebbus.repositories.BusRepository;
+import com.project.arebbus.repositories.LocationHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Maintenance and queries of the location history.
+ * A daily job creates the partitions of the coming days, downsamples days older than
+ * {@code location.history.downsample-after-days} to one point per user per
+ * {@code location.history.downsample-seconds}, and drops days older than
+ * {@code location.history.retention-days}.
+ */
+@Service
+public class LocationHistoryService {
+
+    /** Days downsampled on each run, so a few missed runs are caught up */
+    private static final int DOWNSAMPLE_CATCH_UP_DAYS = 3;
+
+    /** Repository for history data access */
+    private final LocationHistoryRepository locationHistoryRepository;
+    /** Repository for bus data access */
+    private final BusRepository busRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final int partitionsAhead;
+    private final int downsampleAfterDays;
+    private final int downsampleSeconds;
+    private final int retentionDays;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationHistoryService.class);
+
+    public LocationHistoryService(
+            LocationHistoryRepository locationHistoryRepository,
+            BusRepository busRepository,
+            ObjectMapper objectMapper,
+            @Value("${location.history.partitions-ahead-days:3}") int partitionsAhead,
+            @Value("${location.history.downsample-after-days:7}") int downsampleAfterDays,
+            @Value("${location.history.downsample-seconds:30}") int downsampleSeconds,
+            @Value("${location.history.retention-days:90}") int retentionDays) {
+        this.locationHistoryRepository = locationHistoryRepository;
+        this.busRepository = busRepository;
+        this.objectMapper = objectMapper;
+        this.partitionsAhead = partitionsAhead;
+        this.downsampleAfterDays = downsampleAfterDays;
+        this.downsampleSeconds = downsampleSeconds;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Creates the table and the partitions of today and the coming days.
+     */
+    @PostConstruct
+    public void initialize() {
+        locationHistoryRepository.createSchema();
+        LocalDate today = LocalDate.now();
+        locationHistoryRepository.createPartitions(today.minusDays(1), today.plusDays(partitionsAhead));
+    }
+
+    /**
+     * Daily partition management, downsampling and retention.
+     */
+    @Scheduled(cron = "${location.history.maintenance-cron:0 15 0 * * *}")
+    public void maintain() {
+        LocalDate today = LocalDate.now();
+        locationHistoryRepository.createPartitions(today, today.plusDays(partitionsAhead));
+
+        LocalDate downsampleBefore = today.minusDays(downsampleAfterDays);
+        for (int i = DOWNSAMPLE_CATCH_UP_DAYS; i >= 1; i--) {
+            LocalDate day = downsampleBefore.minusDays(i);
+            int deleted = locationHistoryRepository.downsample(
+                    day.atStartOfDay(), day.plusDays(1).atStartOfDay(), downsampleSeconds);
+            LOGGER.info("Downsampled location history of {}: {} points removed", day, deleted);
+        }
+
+        locationHistoryRepository.dropBefore(today.minusDays(retentionDays));
+    }
+
+    /**
+     * Streams the history of a bus in [from, to) as a JSON array. Rows go from the database
+     * cursor straight to the response without being collected first.
+     *
+     * @param busId The bus id
+     * @param from Inclusive start
+     * @param to Exclusive end
+     * @return Body writing the JSON array of LocationResponses
+     * @throws BusNotFoundException if the bus doesn't exist
+     */
+    public StreamingResponseBody streamBusHistory(Long busId, LocalDateTime from, LocalDateTime to) {
+        String busName = busRepository.findById(busId)
+                .orElseThrow(() -> new BusNotFoundException(busId))
+                .getName();
+        ObjectWriter writer = objectMapper.writerFor(LocationResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                locationHistoryRepository.streamByBus(busId, from, to, location -> {
+                    try {
+                        writer.writeValue(generator, LocationResponse.builder()
+                                .userId(location.getUserId())
+                                .busId(location.getBusId())
+                                .busName(busName)
+                                .latitude(location.getLatitude())
+                                .longitude(location.getLongitude())
+                                .time(location.getTime())
+                                .status(location.getStatus())
+                                .build());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+}
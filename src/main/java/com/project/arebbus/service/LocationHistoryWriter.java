@@ -0,0 +1,151 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.Location;
+import com.project.arebbus.repositories.LocationHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers every recorded location and appends it to location_history in batches.
+ * Unlike {@link LocationWriteBehind} nothing is coalesced. The buffer is bounded: while the
+ * database is unavailable, updates beyond {@code location.history.max-buffered} are dropped and
+ * counted instead of exhausting memory. Points the database refuses outright are set aside and
+ * counted rather than retried, so they cannot hold up the points behind them.
+ */
+@Component
+public class LocationHistoryWriter {
+
+    /** Repository used for the batched inserts */
+    private final LocationHistoryRepository locationHistoryRepository;
+
+    private final int batchSize;
+    private final int maxBuffered;
+
+    private final Queue<Location> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationHistoryWriter.class);
+
+    public LocationHistoryWriter(
+            LocationHistoryRepository locationHistoryRepository,
+            @Value("${location.history.batch-size:1000}") int batchSize,
+            @Value("${location.history.max-buffered:100000}") int maxBuffered) {
+        this.locationHistoryRepository = locationHistoryRepository;
+        this.batchSize = batchSize;
+        this.maxBuffered = maxBuffered;
+    }
+
+    /**
+     * Queues a point for the history table.
+     *
+     * @param location The point to append
+     */
+    public void append(Location location) {
+        if (buffered.incrementAndGet() > maxBuffered) {
+            buffered.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        buffer.add(location);
+    }
+
+    /**
+     * Queues several points for the history table, dropping the ones that do not fit.
+     *
+     * @param locations The points to append, in order
+     */
+    public void appendAll(List<Location> locations) {
+        locations.forEach(this::append);
+    }
+
+    /**
+     * @return Number of points waiting to be written
+     */
+    public int bufferedCount() {
+        return buffered.get();
+    }
+
+    /**
+     * @return Number of points dropped because the buffer was full
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return Number of points set aside because the database refused them
+     */
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Writes the buffered points in batches. A batch the database refuses because of its data is
+     * written point by point and the refused points are set aside; a batch that fails otherwise
+     * (e.g. the database is down) is put back at the end of the buffer.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${location.history.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        while (true) {
+            List<Location> batch = new ArrayList<>(Math.min(batchSize, buffered.get()));
+            Location next;
+            while (batch.size() < batchSize && (next = buffer.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                locationHistoryRepository.insertAll(batch);
+                buffered.addAndGet(-batch.size());
+            } catch (DataIntegrityViolationException e) {
+                if (!insertEach(batch)) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to append {} location history points, retrying later", batch.size(), e);
+                buffer.addAll(batch);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the points of a refused batch one at a time, setting aside the ones refused again.
+     *
+     * @return false if a point failed for another reason; it and the rest are back in the buffer
+     */
+    private boolean insertEach(List<Location> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Location location = batch.get(i);
+            try {
+                locationHistoryRepository.insertAll(List.of(location));
+            } catch (DataIntegrityViolationException e) {
+                rejected.incrementAndGet();
+                LOGGER.warn("Location history point of user {} at {} was refused, skipping it",
+                        location.getUserId(), location.getTime(), e);
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to append {} location history points, retrying later", batch.size() - i, e);
+                buffer.addAll(batch.subList(i, batch.size()));
+                return false;
+            }
+            buffered.decrementAndGet();
+        }
+        return true;
+    }
+}
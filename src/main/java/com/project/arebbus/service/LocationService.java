@@ -1,12 +1,17 @@
 package com.project.arebbus.service;
 
+import com.project.arebbus.config.MetricsConfiguration;
 import com.project.arebbus.dto.BusLocationCluster;
 import com.project.arebbus.dto.BusLocationResponse;
+import com.project.arebbus.dto.LocationBatchRequest;
+import com.project.arebbus.dto.LocationBatchResponse;
+import com.project.arebbus.dto.LocationPoint;
 import com.project.arebbus.dto.LocationResponse;
 import com.project.arebbus.dto.LocationSetRequest;
 import com.project.arebbus.dto.LocationUpdateRequest;
 import com.project.arebbus.dto.WaitingUsersCountResponse;
 import com.project.arebbus.exception.BusNotFoundException;
+import com.project.arebbus.exception.InvalidLocationBatchException;
 import com.project.arebbus.exception.InvalidLocationStatusTransitionException;
 import com.project.arebbus.exception.LocationNotFoundException;
 import com.project.arebbus.model.Bus;
@@ -14,14 +19,18 @@ import com.project.arebbus.model.Location;
 import com.project.arebbus.model.LocationStatus;
 import com.project.arebbus.model.User;
 import com.project.arebbus.repositories.BusRepository;
-import com.project.arebbus.repositories.LocationRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.UnaryOperator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Service class for location business logic operations. Handles bus location tracking, user
@@ -29,323 +38,267 @@ import org.springframework.stereotype.Service;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class LocationService {
 
-  /** Repository for location data access */
-  /** Repository for data access */
-  private final LocationRepository locationRepository;
-
   /** Repository for bus data access */
   /** Repository for bus data access */
   /** Repository for data access */
   private final BusRepository busRepository;
 
-  /**
-   * Sets user location with a specific status for a bus.
-   *
-   * @param user The user setting their location
-   * @param request The location request with coordinates and bus ID
-   * @param status The location status (WAITING, ON_BUS, etc.)
-   * @return LocationResponse with the set location details
-   * @throws BusNotFoundException if the specified bus doesn't exist
-   */
-  /**
-   * Sets the user's location for tracking.
-   *
-   * @param user The user setting location
-   * @param request The location request
-   * @return LocationResponse containing location details
-   */
-  public LocationResponse setUserLocation(
-      User user, LocationSetRequest request, LocationStatus status) {
-    Bus bus =
-        busRepository
-            .findById(request.getBusId())
-            .orElseThrow(() -> new BusNotFoundException(request.getBusId()));
+  /** In-memory latest location per user */
+  private final LiveLocationStore liveLocationStore;
 
-    Location location =
-        Location.builder()
-            .busId(bus.getId())
-            .userId(user.getId())
-            .latitude(request.getLatitude())
-            .longitude(request.getLongitude())
-            .time(LocalDateTime.now())
-            .status(status)
-            .bus(bus)
-            .user(user)
-            .build();
+  /** Asynchronous writer for the Location table */
+  private final LocationWriteBehind locationWriteBehind;
 
-    Location savedLocation = locationRepository.save(location);
+  /** Server-Sent Event subscribers of bus positions */
+  private final BusLocationStream busLocationStream;
 
-    return LocationResponse.builder()
-        .userId(savedLocation.getUserId())
-        .busId(savedLocation.getBusId())
-        .busName(bus.getName())
-        .latitude(savedLocation.getLatitude())
-        .longitude(savedLocation.getLongitude())
-        .time(savedLocation.getTime())
-        .status(savedLocation.getStatus())
-        .build();
-  }
+  /** Clustering of rider positions, selected by location.cluster.algorithm */
+  private final LocationClusterer locationClusterer;
 
-  public LocationResponse setUserLocationWithStatus(
-      User user, LocationSetRequest request, LocationStatus status) {
-    Bus bus =
-        busRepository
-            .findById(request.getBusId())
-            .orElseThrow(() -> new BusNotFoundException(request.getBusId()));
+  /** WAITING and ON_BUS users per bus */
+  private final BusRiderCounters busRiderCounters;
 
-    Location location =
-        Location.builder()
-            .busId(bus.getId())
-            .userId(user.getId())
-            .latitude(request.getLatitude())
-            .longitude(request.getLongitude())
-            .time(LocalDateTime.now())
-            .status(status)
-            .bus(bus)
-            .user(user)
-            .build();
+  /** Append-only trail of every recorded location */
+  private final LocationHistoryWriter locationHistoryWriter;
 
-    Location savedLocation = locationRepository.save(location);
+  /** Arrival predictions fed by ON_BUS positions */
+  private final BusEtaEngine busEtaEngine;
 
-    return LocationResponse.builder()
-        .userId(savedLocation.getUserId())
-        .busId(savedLocation.getBusId())
-        .busName(bus.getName())
-        .latitude(savedLocation.getLatitude())
-        .longitude(savedLocation.getLongitude())
-        .time(savedLocation.getTime())
-        .status(savedLocation.getStatus())
-        .build();
-  }
+  /** Registry of the batch size summaries */
+  private final MeterRegistry meterRegistry;
 
-  public LocationResponse setUserWaiting(User user, LocationSetRequest request) {
-    LocationStatus currentStatus = getCurrentUserStatus(user);
+  /** Largest number of points accepted in one batch */
+  @Value("${location.batch.max-points:500}")
+  private int maxBatchPoints;
 
-    // Allow WAITING -> WAITING (same status) or NO_TRACK -> WAITING
-    if (currentStatus != LocationStatus.NO_TRACK && currentStatus != LocationStatus.WAITING) {
-      throw new InvalidLocationStatusTransitionException(
-          "Can only set WAITING status from NO_TRACK or WAITING status. Current status: "
-              + currentStatus);
-    }
+  /** How far ahead of the server clock a client timestamp may be */
+  @Value("${location.batch.max-clock-skew-seconds:60}")
+  private long maxClockSkewSeconds;
 
-    return setUserLocationWithStatus(user, request, LocationStatus.WAITING);
+  public LocationResponse setUserWaiting(User user, LocationSetRequest request) {
+    Bus bus =
+        busRepository
+            .findById(request.getBusId())
+            .orElseThrow(() -> new BusNotFoundException(request.getBusId()));
+
+    LiveLocationStore.Entry entry =
+        transition(
+            user,
+            current -> {
+              // Allow WAITING -> WAITING (same status) or NO_TRACK -> WAITING
+              requireTransition(
+                  current,
+                  LocationStatus.WAITING,
+                  "Can only set WAITING status from NO_TRACK or WAITING status");
+              return new LiveLocationStore.Entry(
+                  user.getId(),
+                  bus.getId(),
+                  bus.getName(),
+                  request.getLatitude(),
+                  request.getLongitude(),
+                  LocalDateTime.now(),
+                  LocationStatus.WAITING);
+            });
+
+    return toResponse(entry);
   }
 
   public LocationResponse setUserOnBus(User user, LocationUpdateRequest request) {
-    // Get user's current status to validate transition
-    LocationStatus currentStatus = getCurrentUserStatus(user);
-
-    // Allow ON_BUS -> ON_BUS (same status) or WAITING -> ON_BUS
-    if (currentStatus != LocationStatus.WAITING && currentStatus != LocationStatus.ON_BUS) {
-      throw new InvalidLocationStatusTransitionException(
-          "Can only set ON_BUS status from WAITING or ON_BUS status. Current status: "
-              + currentStatus);
-    }
-
-    // Get the most recent location to get the busId
-    Location lastLocation = getUserLastLocation(user);
-
-    Location location =
-        Location.builder()
-            .busId(lastLocation.getBusId())
-            .userId(user.getId())
-            .latitude(request.getLatitude())
-            .longitude(request.getLongitude())
-            .time(LocalDateTime.now())
-            .status(LocationStatus.ON_BUS)
-            .bus(lastLocation.getBus())
-            .user(user)
-            .build();
-
-    Location savedLocation = locationRepository.save(location);
-
-    return LocationResponse.builder()
-        .userId(savedLocation.getUserId())
-        .busId(savedLocation.getBusId())
-        .busName(lastLocation.getBus().getName())
-        .latitude(savedLocation.getLatitude())
-        .longitude(savedLocation.getLongitude())
-        .time(savedLocation.getTime())
-        .status(savedLocation.getStatus())
-        .build();
+    LiveLocationStore.Entry entry =
+        transition(
+            user,
+            current -> {
+              // Allow ON_BUS -> ON_BUS (same status) or WAITING -> ON_BUS
+              requireTransition(
+                  current,
+                  LocationStatus.ON_BUS,
+                  "Can only set ON_BUS status from WAITING or ON_BUS status");
+              // The bus is the one the user was waiting for
+              return new LiveLocationStore.Entry(
+                  user.getId(),
+                  current.busId(),
+                  current.busName(),
+                  request.getLatitude(),
+                  request.getLongitude(),
+                  LocalDateTime.now(),
+                  LocationStatus.ON_BUS);
+            });
+
+    return toResponse(entry);
   }
 
   public LocationResponse setUserNoTrack(User user, LocationUpdateRequest request) {
     // NO_TRACK can be set from any status, including NO_TRACK -> NO_TRACK
-    LocationStatus currentStatus = getCurrentUserStatus(user);
-
-    // For NO_TRACK, we still need busId for composite key, so use a dummy value or
-    // get from last
-    // location
-    Long busIdForKey = null;
-    try {
-      Location lastLocation = getUserLastLocation(user);
-      busIdForKey = lastLocation.getBusId();
-    } catch (LocationNotFoundException e) {
-      // If no previous location, we need some busId for the composite key - use 0 as
-      // dummy
-      busIdForKey = 1L;
-    }
-
-    Location location =
-        Location.builder()
-            .busId(busIdForKey)
-            .userId(user.getId())
-            .latitude(request.getLatitude())
-            .longitude(request.getLongitude())
-            .time(LocalDateTime.now())
-            .status(LocationStatus.NO_TRACK)
-            .bus(null) // Keep bus entity as null for NO_TRACK
-            .user(user)
-            .build();
-
-    Location savedLocation = locationRepository.save(location);
+    LiveLocationStore.Entry entry =
+        transition(
+            user,
+            current ->
+                new LiveLocationStore.Entry(
+                    user.getId(),
+                    // The row is keyed on a bus, so keep the last one or use a placeholder
+                    current != null ? current.busId() : 1L,
+                    null, // Keep bus name empty for NO_TRACK
+                    request.getLatitude(),
+                    request.getLongitude(),
+                    LocalDateTime.now(),
+                    LocationStatus.NO_TRACK));
 
     return LocationResponse.builder()
-        .userId(savedLocation.getUserId())
+        .userId(entry.userId())
         .busId(null) // Don't expose the dummy busId in response
         .busName(null)
-        .latitude(savedLocation.getLatitude())
-        .longitude(savedLocation.getLongitude())
-        .time(savedLocation.getTime())
-        .status(savedLocation.getStatus())
+        .latitude(entry.latitude())
+        .longitude(entry.longitude())
+        .time(entry.time())
+        .status(entry.status())
         .build();
   }
 
-  private LocationStatus getCurrentUserStatus(User user) {
-    try {
-      Location lastLocation = getUserLastLocation(user);
-      return lastLocation.getStatus();
-    } catch (LocationNotFoundException e) {
-      // If user has no previous location, assume NO_TRACK
-      return LocationStatus.NO_TRACK;
+  private static void requireTransition(
+      LiveLocationStore.Entry current, LocationStatus next, String message) {
+    // If user has no previous location, assume NO_TRACK
+    LocationStatus currentStatus = current != null ? current.status() : LocationStatus.NO_TRACK;
+    if (!currentStatus.canTransitionTo(next)) {
+      throw new InvalidLocationStatusTransitionException(
+          message + ". Current status: " + currentStatus);
     }
   }
 
-  private Location getUserLastLocation(User user) {
-    Optional<Location> latestLocationOpt =
-        locationRepository.findByUser(user).stream()
-            .reduce((loc1, loc2) -> loc1.getTime().isAfter(loc2.getTime()) ? loc1 : loc2);
+  private LiveLocationStore.Entry getUserLastLocation(User user) {
+    return liveLocationStore.latest(user).orElseThrow(LocationNotFoundException::new);
+  }
 
-    if (latestLocationOpt.isEmpty()) {
-      throw new LocationNotFoundException();
+  /**
+   * Replaces the user's latest location with one derived from it. The new entry is only
+   * installed if no other request of the user got in between; otherwise it is derived and
+   * validated again from the location that won, so racing requests cannot interleave into
+   * a transition the rules forbid.
+   *
+   * @param user The user
+   * @param next Derives the new entry from the latest one (null if none); may throw to refuse
+   * @return The installed entry
+   */
+  private LiveLocationStore.Entry transition(
+      User user, UnaryOperator<LiveLocationStore.Entry> next) {
+    while (true) {
+      LiveLocationStore.Entry current = liveLocationStore.latest(user).orElse(null);
+      LiveLocationStore.Entry entry = notBefore(next.apply(current), current);
+      if (liveLocationStore.compareAndSet(current, entry)) {
+        publish(current, entry);
+        return entry;
+      }
     }
+  }
 
-    return latestLocationOpt.get();
+  /**
+   * Keeps a user's entries in time order. Rows are persisted newest time wins (see
+   * LocationWriteBehind), so an entry stamped before the one it replaces would never reach the
+   * database; that happens when the wall clock steps back or the previous row was stored with a
+   * client time before those were capped.
+   *
+   * @param entry The new entry
+   * @param previous The entry it replaces, or null
+   * @return entry, restamped with the previous time if it was older
+   */
+  private static LiveLocationStore.Entry notBefore(
+      LiveLocationStore.Entry entry, LiveLocationStore.Entry previous) {
+    if (previous == null || !entry.time().isBefore(previous.time())) {
+      return entry;
+    }
+    return new LiveLocationStore.Entry(
+        entry.userId(),
+        entry.busId(),
+        entry.busName(),
+        entry.latitude(),
+        entry.longitude(),
+        previous.time(),
+        entry.status());
   }
 
-  public LocationResponse getUserCurrentLocation(User user) {
-    Location location = getUserLastLocation(user);
-    Bus bus = location.getBus();
+  /**
+   * Hands a new latest location to persistence and to the per-bus views.
+   *
+   * @param previous The entry it replaced, or null
+   * @param entry The new latest location
+   */
+  private void publish(LiveLocationStore.Entry previous, LiveLocationStore.Entry entry) {
+    Location location = entry.toLocation();
+    locationWriteBehind.enqueue(location);
+    locationHistoryWriter.append(location);
+    busRiderCounters.transition(previous, entry);
+    busEtaEngine.onLocation(previous, entry);
+    busLocationStream.markDirty(entry.busId());
+    if (previous != null && !previous.busId().equals(entry.busId())) {
+      busLocationStream.markDirty(previous.busId());
+    }
+  }
 
+  private LocationResponse toResponse(LiveLocationStore.Entry entry) {
     return LocationResponse.builder()
-        .userId(location.getUserId())
-        .busId(location.getBusId())
-        .busName(bus != null ? bus.getName() : null)
-        .latitude(location.getLatitude())
-        .longitude(location.getLongitude())
-        .time(location.getTime())
-        .status(location.getStatus())
+        .userId(entry.userId())
+        .busId(entry.busId())
+        .busName(entry.busName())
+        .latitude(entry.latitude())
+        .longitude(entry.longitude())
+        .time(entry.time())
+        .status(entry.status())
         .build();
   }
 
+  public LocationResponse getUserCurrentLocation(User user) {
+    return toResponse(getUserLastLocation(user));
+  }
+
   public BusLocationResponse getBusLocations(Long busId) {
     Bus bus = busRepository.findById(busId).orElseThrow(() -> new BusNotFoundException(busId));
+    return buildBusLocations(bus.getId(), bus.getName());
+  }
 
+  /**
+   * Opens a Server-Sent Event stream of the clustered positions of a bus. The current
+   * clusters are sent immediately and again whenever they change.
+   *
+   * @param busId The bus to follow
+   * @return SseEmitter delivering BusLocationResponse events
+   * @throws BusNotFoundException if the bus doesn't exist
+   */
+  public SseEmitter streamBusLocations(Long busId) {
+    Bus bus = busRepository.findById(busId).orElseThrow(() -> new BusNotFoundException(busId));
+    String busName = bus.getName();
+    return busLocationStream.subscribe(busId, () -> buildBusLocations(busId, busName));
+  }
+
+  private BusLocationResponse buildBusLocations(Long busId, String busName) {
     // Get all users currently on this bus (latest location with ON_BUS status)
-    List<Location> onBusLocations = getLatestOnBusLocationsForBus(busId);
+    List<LiveLocationStore.Entry> onBusLocations = getLatestOnBusLocationsForBus(busId);
 
     if (onBusLocations.isEmpty()) {
       return BusLocationResponse.builder()
           .busId(busId)
-          .busName(bus.getName())
+          .busName(busName)
           .locations(new ArrayList<>())
           .build();
     }
 
     // Cluster the locations
-    List<BusLocationCluster> clusters = clusterLocations(onBusLocations);
+    List<BusLocationCluster> clusters = locationClusterer.cluster(onBusLocations);
 
     return BusLocationResponse.builder()
         .busId(busId)
-        .busName(bus.getName())
+        .busName(busName)
         .locations(clusters)
         .build();
   }
 
-  private List<Location> getLatestOnBusLocationsForBus(Long busId) {
-    List<Location> allLocations = locationRepository.findByBusId(busId);
-
-    // Group by user and get the latest location for each user
-    return allLocations.stream()
-        .collect(java.util.stream.Collectors.groupingBy(Location::getUserId))
-        .values()
-        .stream()
-        .map(
-            userLocations ->
-                userLocations.stream()
-                    .reduce((loc1, loc2) -> loc1.getTime().isAfter(loc2.getTime()) ? loc1 : loc2)
-                    .orElse(null))
-        .filter(location -> location != null && location.getStatus() == LocationStatus.ON_BUS)
+  private List<LiveLocationStore.Entry> getLatestOnBusLocationsForBus(Long busId) {
+    return liveLocationStore.ridersOf(busId).stream()
+        .filter(location -> location.status() == LocationStatus.ON_BUS)
         .collect(java.util.stream.Collectors.toList());
   }
 
-  private List<BusLocationCluster> clusterLocations(List<Location> locations) {
-    List<BusLocationCluster> clusters = new ArrayList<>();
-    List<Location> unprocessed = new ArrayList<>(locations);
-
-    // Distance threshold in degrees (approximately 100 meters)
-    double distanceThreshold = 0.001;
-
-    while (!unprocessed.isEmpty()) {
-      Location seed = unprocessed.remove(0);
-      List<Location> cluster = new ArrayList<>();
-      cluster.add(seed);
-
-      // Find all locations within threshold distance of seed
-      List<Location> toRemove = new ArrayList<>();
-      for (Location loc : unprocessed) {
-        if (calculateDistance(seed, loc) <= distanceThreshold) {
-          cluster.add(loc);
-          toRemove.add(loc);
-        }
-      }
-      unprocessed.removeAll(toRemove);
-
-      // Calculate cluster center (average position)
-      BigDecimal avgLat =
-          cluster.stream()
-              .map(Location::getLatitude)
-              .reduce(BigDecimal.ZERO, BigDecimal::add)
-              .divide(BigDecimal.valueOf(cluster.size()), BigDecimal.ROUND_HALF_UP);
-
-      BigDecimal avgLon =
-          cluster.stream()
-              .map(Location::getLongitude)
-              .reduce(BigDecimal.ZERO, BigDecimal::add)
-              .divide(BigDecimal.valueOf(cluster.size()), BigDecimal.ROUND_HALF_UP);
-
-      clusters.add(
-          BusLocationCluster.builder()
-              .latitude(avgLat)
-              .longitude(avgLon)
-              .userCount(cluster.size())
-              .build());
-    }
-
-    return clusters;
-  }
-
-  private double calculateDistance(Location loc1, Location loc2) {
-    // Simple Euclidean distance in degrees (good enough for clustering nearby
-    // locations)
-    double latDiff = loc1.getLatitude().subtract(loc2.getLatitude()).doubleValue();
-    double lonDiff = loc1.getLongitude().subtract(loc2.getLongitude()).doubleValue();
-    return Math.sqrt(latDiff * latDiff + lonDiff * lonDiff);
-  }
-
   /**
    * Updates an existing .
    *
@@ -354,67 +307,148 @@ public class LocationService {
    * @return LocationResponse containing updated details
    */
   public LocationResponse updateUserLocation(User user, LocationUpdateRequest request) {
-    // Get user's current location to preserve status and bus info
-    Location lastLocation = getUserLastLocation(user);
-
-    Location location =
-        Location.builder()
-            .busId(lastLocation.getBusId())
-            .userId(user.getId())
-            .latitude(request.getLatitude())
-            .longitude(request.getLongitude())
-            .time(LocalDateTime.now())
-            .status(lastLocation.getStatus()) // Keep same status
-            .bus(lastLocation.getBus())
-            .user(user)
-            .build();
-
-    Location savedLocation = locationRepository.save(location);
+    LiveLocationStore.Entry entry =
+        transition(
+            user,
+            current -> {
+              // Preserve the status and bus of the user's current location
+              if (current == null) {
+                throw new LocationNotFoundException();
+              }
+              return new LiveLocationStore.Entry(
+                  user.getId(),
+                  current.busId(),
+                  current.busName(),
+                  request.getLatitude(),
+                  request.getLongitude(),
+                  LocalDateTime.now(),
+                  current.status()); // Keep same status
+            });
+
+    return toResponse(entry);
+  }
 
-    return LocationResponse.builder()
-        .userId(savedLocation.getUserId())
-        .busId(savedLocation.getBusId())
-        .busName(savedLocation.getBus() != null ? savedLocation.getBus().getName() : null)
-        .latitude(savedLocation.getLatitude())
-        .longitude(savedLocation.getLongitude())
-        .time(savedLocation.getTime())
-        .status(savedLocation.getStatus())
+  /**
+   * Applies the points a client buffered while offline, keeping the user's bus and status.
+   * Points are checked in order; a point is rejected if it lacks coordinates or a time, lies
+   * outside the valid coordinate range, is further in the future than the allowed clock skew,
+   * or is not newer than the previously accepted point. A point ahead of the server clock
+   * within the skew is stored at the server time, so no stored time is later than the
+   * transitions that follow it. Only the newest accepted point becomes the live location;
+   * every accepted point is appended to the history.
+   *
+   * @param user The user sending the points
+   * @param request The buffered points, oldest first
+   * @return LocationBatchResponse with the accepted count, rejected indexes and live location
+   * @throws InvalidLocationBatchException if the batch is empty or too large
+   * @throws LocationNotFoundException if the user has no location to continue from
+   */
+  public LocationBatchResponse updateUserLocations(User user, LocationBatchRequest request) {
+    List<LocationPoint> points = request.getPoints();
+    if (points == null || points.isEmpty()) {
+      throw new InvalidLocationBatchException("Location batch has no points");
+    }
+    if (points.size() > maxBatchPoints) {
+      throw new InvalidLocationBatchException(
+          "Location batch has " + points.size() + " points, at most " + maxBatchPoints + " allowed");
+    }
+
+    List<Location> accepted = new ArrayList<>(points.size());
+    List<Integer> rejected = new ArrayList<>();
+    LiveLocationStore.Entry current;
+    while (true) {
+      LiveLocationStore.Entry lastLocation = getUserLastLocation(user);
+      LocalDateTime now = LocalDateTime.now();
+      LocalDateTime latestAllowed = now.plus(Duration.ofSeconds(maxClockSkewSeconds));
+      accepted.clear();
+      rejected.clear();
+      LocalDateTime newest = lastLocation.time();
+      for (int i = 0; i < points.size(); i++) {
+        LocationPoint point = points.get(i);
+        if (!isValidPoint(point, latestAllowed) || !point.getTime().isAfter(newest)) {
+          rejected.add(i);
+          continue;
+        }
+        newest = point.getTime();
+        accepted.add(
+            Location.builder()
+                .busId(lastLocation.busId())
+                .userId(user.getId())
+                .latitude(point.getLatitude())
+                .longitude(point.getLongitude())
+                .time(point.getTime().isAfter(now) ? now : point.getTime())
+                .status(lastLocation.status())
+                .build());
+      }
+
+      if (accepted.isEmpty()) {
+        current = lastLocation;
+        break;
+      }
+      Location last = accepted.get(accepted.size() - 1);
+      current =
+          notBefore(
+              new LiveLocationStore.Entry(
+                  user.getId(),
+                  lastLocation.busId(),
+                  lastLocation.busName(),
+                  last.getLatitude(),
+                  last.getLongitude(),
+                  last.getTime(),
+                  lastLocation.status()),
+              lastLocation);
+      // Another request of the user moved the location meanwhile; check the points against it
+      if (liveLocationStore.compareAndSet(lastLocation, current)) {
+        // publish() appends the newest point itself
+        locationHistoryWriter.appendAll(accepted.subList(0, accepted.size() - 1));
+        publish(lastLocation, current);
+        break;
+      }
+    }
+
+    meterRegistry
+        .summary(MetricsConfiguration.LOCATION_BATCH_POINTS, "outcome", "accepted")
+        .record(accepted.size());
+    meterRegistry
+        .summary(MetricsConfiguration.LOCATION_BATCH_POINTS, "outcome", "rejected")
+        .record(rejected.size());
+
+    return LocationBatchResponse.builder()
+        .accepted(accepted.size())
+        .rejected(rejected)
+        .latest(toResponse(current))
         .build();
   }
 
+  private static boolean isValidPoint(LocationPoint point, LocalDateTime latestAllowed) {
+    return point != null
+        && point.getTime() != null
+        && !point.getTime().isAfter(latestAllowed)
+        && isInRange(point.getLatitude(), 90)
+        && isInRange(point.getLongitude(), 180);
+  }
+
+  private static boolean isInRange(BigDecimal value, int limit) {
+    return value != null && value.abs().compareTo(BigDecimal.valueOf(limit)) <= 0;
+  }
+
   public WaitingUsersCountResponse getWaitingUsersCount(User user) {
-    // Verify user is in WAITING status
-    LocationStatus currentStatus = getCurrentUserStatus(user);
+    // Verify user is in WAITING status, reading the bus from the same entry
+    LiveLocationStore.Entry userLocation = liveLocationStore.latest(user).orElse(null);
+    LocationStatus currentStatus =
+        userLocation != null ? userLocation.status() : LocationStatus.NO_TRACK;
     if (currentStatus != LocationStatus.WAITING) {
       throw new InvalidLocationStatusTransitionException(
           "User must be in WAITING status to get waiting count. Current status: " + currentStatus);
     }
 
-    // Get user's current bus
-    Location userLocation = getUserLastLocation(user);
-    Bus bus = userLocation.getBus();
-
     // Count all users waiting for the same bus
-    List<Location> allBusLocations = locationRepository.findByBusId(bus.getId());
-
-    long waitingCount =
-        allBusLocations.stream()
-            .collect(java.util.stream.Collectors.groupingBy(Location::getUserId))
-            .values()
-            .stream()
-            .map(
-                userLocations ->
-                    userLocations.stream()
-                        .reduce(
-                            (loc1, loc2) -> loc1.getTime().isAfter(loc2.getTime()) ? loc1 : loc2)
-                        .orElse(null))
-            .filter(location -> location != null && location.getStatus() == LocationStatus.WAITING)
-            .count();
+    int waitingCount = busRiderCounters.waiting(userLocation.busId());
 
     return WaitingUsersCountResponse.builder()
-        .busId(bus.getId())
-        .busName(bus.getName())
-        .waitingCount((int) waitingCount)
+        .busId(userLocation.busId())
+        .busName(userLocation.busName())
+        .waitingCount(waitingCount)
         .build();
   }
 }
@@ -0,0 +1,134 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationId;
+import com.project.arebbus.repositories.LocationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescing write-behind buffer for the Location table.
+ * Writes are keyed by the (bus_id, user_id) primary key so that repeated updates of the same
+ * row between two flushes collapse into a single statement. The buffer is flushed every
+ * {@code location.write-behind.flush-interval-ms} once it holds {@code batch-size} rows or its
+ * oldest write is older than {@code max-staleness-ms}.
+ */
+@Component
+public class LocationWriteBehind {
+
+    /** Repository used for the batched writes */
+    private final LocationRepository locationRepository;
+
+    private final int batchSize;
+    private final long maxStalenessNanos;
+
+    private final Map<LocationId, Location> pending = new ConcurrentHashMap<>();
+    /** System.nanoTime() of the oldest unflushed write, or 0 when the buffer is empty */
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+    /** True while a batch taken from the buffer is being written */
+    private volatile boolean flushing;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationWriteBehind.class);
+
+    public LocationWriteBehind(
+            LocationRepository locationRepository,
+            @Value("${location.write-behind.batch-size:500}") int batchSize,
+            @Value("${location.write-behind.max-staleness-ms:2000}") long maxStalenessMs) {
+        this.locationRepository = locationRepository;
+        this.batchSize = batchSize;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    /**
+     * Queues a row for writing, replacing any unflushed write of the same row that is not newer.
+     * Transitions of one user may be published out of order, so the time decides which wins;
+     * that is sound because LocationService stamps a user's entries with server times that
+     * never go back.
+     *
+     * @param location The row to write
+     */
+    public void enqueue(Location location) {
+        pending.merge(new LocationId(location.getBusId(), location.getUserId()), location, LocationWriteBehind::newer);
+        oldestPendingNanos.compareAndSet(0, System.nanoTime());
+    }
+
+    /**
+     * @return Number of rows waiting to be written
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return true when every enqueued row has been written or has failed to be written
+     */
+    public boolean isDrained() {
+        return !flushing && pending.isEmpty();
+    }
+
+    @Scheduled(fixedDelayString = "${location.write-behind.flush-interval-ms:500}")
+    public void flushIfDue() {
+        long oldest = oldestPendingNanos.get();
+        if (oldest == 0) {
+            return;
+        }
+        if (pending.size() >= batchSize || System.nanoTime() - oldest >= maxStalenessNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes every pending row. Rows that fail to be written are re-queued unless a newer
+     * write for the same key arrived in the meantime.
+     */
+    @PreDestroy
+    public synchronized void flush() {
+        flushing = true;
+        try {
+            drain();
+        } finally {
+            flushing = false;
+        }
+    }
+
+    private void drain() {
+        oldestPendingNanos.set(0);
+        List<Location> batch = new ArrayList<>(pending.size());
+        for (LocationId key : pending.keySet()) {
+            Location location = pending.remove(key);
+            if (location != null) {
+                batch.add(location);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (int from = 0; from < batch.size(); from += batchSize) {
+                locationRepository.upsertAll(batch.subList(from, Math.min(from + batchSize, batch.size())));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to flush {} location rows, re-queueing", batch.size(), e);
+            batch.forEach(location -> {
+                pending.merge(new LocationId(location.getBusId(), location.getUserId()), location, LocationWriteBehind::newer);
+                oldestPendingNanos.compareAndSet(0, System.nanoTime());
+            });
+        }
+    }
+
+    private static Location newer(Location queued, Location location) {
+        return location.getTime().isBefore(queued.getTime()) ? queued : location;
+    }
+}
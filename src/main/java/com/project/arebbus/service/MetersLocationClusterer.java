@@ -0,0 +1,50 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationCluster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Single-linkage clustering with the threshold in meters. Positions are projected onto a local
+ * equirectangular plane around their mean latitude, which is accurate to well under a meter at
+ * the scale of one bus, so a degree of longitude no longer counts the same as a degree of
+ * latitude.
+ */
+@Component
+@ConditionalOnProperty(name = "location.cluster.algorithm", havingValue = "meters")
+public class MetersLocationClusterer implements LocationClusterer {
+
+    private static final double METERS_PER_DEGREE_LAT = 110_574;
+    private static final double METERS_PER_DEGREE_LON_AT_EQUATOR = 111_320;
+
+    private final double thresholdMeters;
+
+    public MetersLocationClusterer(@Value("${location.cluster.threshold-meters:100}") double thresholdMeters) {
+        this.thresholdMeters = thresholdMeters;
+    }
+
+    @Override
+    public List<BusLocationCluster> cluster(List<LiveLocationStore.Entry> locations) {
+        int n = locations.size();
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        double meanLat = 0;
+        for (int i = 0; i < n; i++) {
+            lat[i] = locations.get(i).latitude().doubleValue();
+            lon[i] = locations.get(i).longitude().doubleValue();
+            meanLat += lat[i] / n;
+        }
+
+        double metersPerDegreeLon = METERS_PER_DEGREE_LON_AT_EQUATOR * Math.cos(Math.toRadians(meanLat));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = lon[i] * metersPerDegreeLon;
+            y[i] = lat[i] * METERS_PER_DEGREE_LAT;
+        }
+        return ClusterGrid.toClusters(locations, GridLocationClusterer.link(new ClusterGrid(x, y, thresholdMeters)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.PostSummaryResponse;
+import com.project.arebbus.model.Post;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.TagRepository;
+import com.project.arebbus.repositories.UpvoteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns a page of posts into PostSummaryResponses for the feed endpoints.
+ * Tags and the user's upvotes for the whole page are loaded with one query each, so a feed
+ * page costs the page query (with authors join-fetched), its count and these two lookups.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostFeedAssembler {
+
+    /** Repository for tag data access */
+    private final TagRepository tagRepository;
+    /** Repository for upvote data access */
+    private final UpvoteRepository upvoteRepository;
+    /** Upvote count changes not yet written to the posts */
+    private final PostUpvoteCounter postUpvoteCounter;
+
+    /**
+     * Builds the feed entries of a page of posts.
+     *
+     * @param posts The posts on the page, with authors loaded
+     * @param user The user requesting the feed
+     * @return PostSummaryResponses in the same order as posts
+     */
+    public List<PostSummaryResponse> assemble(List<Post> posts, User user) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> postIds = posts.stream().map(Post::getId).toList();
+
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        for (Object[] row : tagRepository.findTagNamesByPostIds(postIds)) {
+            tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        Set<Long> upvoted = new HashSet<>(upvoteRepository.findUpvotedPostIds(user.getId(), postIds));
+
+        return posts.stream()
+                .map(post -> PostSummaryResponse.builder()
+                        .postId(post.getId())
+                        .authorName(post.getAuthor().getName())
+                        .content(post.getContent())
+                        .numUpvote(post.getNumUpvote() + postUpvoteCounter.pending(post.getId()))
+                        .createdAt(post.getCreatedAt())
+                        .tags(tagsByPost.getOrDefault(post.getId(), List.of()))
+                        .upvoted(upvoted.contains(post.getId()))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,293 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.repositories.CommentRepository;
+import com.project.arebbus.repositories.PostRepository;
+import com.project.arebbus.repositories.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over posts for full-text search, ranked with BM25.
+ * A post's document holds the words of its content, its tag names (counted
+ * {@link #TAG_WEIGHT} times, since a tag names the topic) and its comments. Words are
+ * lowercased runs of letters and digits; there is no stemming.
+ * The index is filled at startup and kept current by the services that create and delete
+ * posts and comments once their transactions commit, so it only sees writes made through this
+ * instance. Adding the same post or comment twice is a no-op, and a removed post is never added
+ * back, which lets writes race the startup build.
+ */
+@Component
+public class PostSearchIndex {
+
+    /** Occurrences a tag name's words count for */
+    static final int TAG_WEIGHT = 2;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+
+    /** Repositories used to build the index at startup */
+    private final PostRepository postRepository;
+    private final TagRepository tagRepository;
+    private final CommentRepository commentRepository;
+
+    private final double k1;
+    private final double b;
+
+    /** Guards documents, postings, totalLength and removed */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    /** Ids of removed posts; ids are not reused, so a build still reading one must not add it */
+    private final Set<Long> removed = new HashSet<>();
+    /** Term frequency of every post containing a word, by word */
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private long totalLength;
+
+    private volatile boolean ready;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    public PostSearchIndex(
+            PostRepository postRepository,
+            TagRepository tagRepository,
+            CommentRepository commentRepository,
+            @Value("${post.search.k1:1.2}") double k1,
+            @Value("${post.search.b:0.75}") double b) {
+        this.postRepository = postRepository;
+        this.tagRepository = tagRepository;
+        this.commentRepository = commentRepository;
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /** Words of one post and what has been indexed into it */
+    private static final class Document {
+        private final Map<String, Integer> terms = new HashMap<>();
+        private final Set<Long> comments = new HashSet<>();
+        private boolean post;
+        private int length;
+    }
+
+    /**
+     * A page of matching post ids, best first.
+     *
+     * @param postIds Ids of the posts on the page
+     * @param total Number of posts matching the query
+     */
+    public record Hits(List<Long> postIds, long total) {
+    }
+
+    /**
+     * Indexes every post, tag and comment in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        for (Object[] row : tagRepository.findAllTagNamesByPost()) {
+            tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        List<Object[]> posts = postRepository.findAllContents();
+        for (Object[] row : posts) {
+            Long postId = (Long) row[0];
+            addPost(postId, (String) row[1], tagsByPost.getOrDefault(postId, List.of()));
+        }
+        List<Object[]> comments = commentRepository.findAllContents();
+        for (Object[] row : comments) {
+            addComment((Long) row[0], (Long) row[1], (String) row[2]);
+        }
+        ready = true;
+        LOGGER.info("Post search index built with {} posts, {} comments and {} terms",
+                posts.size(), comments.size(), termCount());
+    }
+
+    /**
+     * @return true once the index holds every post
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds a post's content and tag names to the index.
+     *
+     * @param postId Id of the post
+     * @param content The post content
+     * @param tagNames Names of the post's tags
+     */
+    public void addPost(Long postId, String content, Collection<String> tagNames) {
+        lock.writeLock().lock();
+        try {
+            if (removed.contains(postId)) {
+                return;
+            }
+            Document document = documents.computeIfAbsent(postId, id -> new Document());
+            if (document.post) {
+                return;
+            }
+            document.post = true;
+            addTerms(postId, document, content, 1);
+            for (String tagName : tagNames) {
+                addTerms(postId, document, tagName, TAG_WEIGHT);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a comment's content to the document of its post.
+     *
+     * @param commentId Id of the comment
+     * @param postId Id of the commented post
+     * @param content The comment content
+     */
+    public void addComment(Long commentId, Long postId, String content) {
+        lock.writeLock().lock();
+        try {
+            if (removed.contains(postId)) {
+                return;
+            }
+            Document document = documents.computeIfAbsent(postId, id -> new Document());
+            if (document.comments.add(commentId)) {
+                addTerms(postId, document, content, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a post together with its comments, for good.
+     *
+     * @param postId Id of the post
+     */
+    public void removePost(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removed.add(postId);
+            Document document = documents.remove(postId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms.keySet()) {
+                Map<Long, Integer> posts = postings.get(term);
+                posts.remove(postId);
+                if (posts.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= document.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the posts containing any word of the query, ranked by BM25 score and, for equal
+     * scores, newest post first.
+     *
+     * @param query The words to search for
+     * @param page The page number
+     * @param size The page size
+     * @return Ids of the posts on the page and the number of matching posts
+     */
+    public Hits search(String query, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        Map<Long, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+            for (String term : terms) {
+                Map<Long, Integer> posts = postings.get(term);
+                if (posts == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posts.size() + 0.5) / (posts.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : posts.entrySet()) {
+                    int frequency = posting.getValue();
+                    double norm = k1 * (1 - b + b * documents.get(posting.getKey()).length / averageLength);
+                    scores.merge(posting.getKey(), idf * frequency * (k1 + 1) / (frequency + norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long end = Math.min((long) page * size + size, scores.size());
+        long start = (long) page * size;
+        if (start >= end) {
+            return new Hits(List.of(), scores.size());
+        }
+
+        // Keep only the best end hits, worst on top of the heap
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(ranking);
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            best.add(score);
+            if (best.size() > end) {
+                best.poll();
+            }
+        }
+        Long[] ranked = new Long[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll().getKey();
+        }
+        return new Hits(List.of(ranked).subList((int) start, ranked.length), scores.size());
+    }
+
+    private void addTerms(Long postId, Document document, String text, int weight) {
+        for (String term : tokenize(text)) {
+            document.terms.merge(term, weight, Integer::sum);
+            postings.computeIfAbsent(term, t -> new HashMap<>()).merge(postId, weight, Integer::sum);
+            document.length += weight;
+            totalLength += weight;
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lowercase words.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
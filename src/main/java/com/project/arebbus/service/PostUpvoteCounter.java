@@ -0,0 +1,50 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.repositories.UpvoteCountRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces changes of Post.numUpvote and writes them every
+ * {@code post.upvote.flush-interval-ms} as one batch of relative updates.
+ */
+@Component
+public class PostUpvoteCounter {
+
+    private final CoalescingCounter counter;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostUpvoteCounter.class);
+
+    public PostUpvoteCounter(UpvoteCountRepository upvoteCountRepository) {
+        this.counter = new CoalescingCounter(upvoteCountRepository::addPostUpvotes);
+    }
+
+    /**
+     * @param postId The post id
+     * @param delta +1 for a new upvote, -1 for a removed one
+     */
+    public void add(Long postId, long delta) {
+        counter.add(postId, delta);
+    }
+
+    /**
+     * @param postId The post id
+     * @return The change of the count not yet written to the database
+     */
+    public long pending(Long postId) {
+        return counter.pending(postId);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${post.upvote.flush-interval-ms:500}")
+    public void flush() {
+        try {
+            counter.flush();
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to write post upvote counts, retrying later", e);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.project.arebbus.service;
 
 import com.project.arebbus.dto.*;
+import com.project.arebbus.exception.UserNotFound;
 import com.project.arebbus.model.User;
+import com.project.arebbus.model.UserName;
 import com.project.arebbus.repositories.*;
+import com.project.arebbus.security.JwtPrincipalCache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +22,15 @@ public class ProfileService {
   /** Repository for  data access */
     private final UserRepository userRepository;
 
+  /** Cached token principals, evicted when a profile changes */
+    private final JwtPrincipalCache jwtPrincipalCache;
+
+  /** Route snapshots embed author names */
+    private final RouteSnapshotCache routeSnapshotCache;
+
+  /** Owner of the second-level cache holding author names */
+    private final EntityManagerFactory entityManagerFactory;
+
   /**
    * Retrieves the profile information for a given user.
    * 
@@ -30,19 +43,29 @@ public class ProfileService {
 
   /**
    * Updates the name of a user and saves the changes to the database.
+   * The authenticated principal may be shared with other requests through the token cache, so
+   * the change is made on a copy loaded for this call and the principal is left untouched.
    * 
    * @param user The user whose name is to be changed
    * @param name The new name to set for the user
    * @return ProfileResponse containing the updated user profile information
+   * @throws UserNotFound if the user no longer exists
    */
   public ProfileResponse changeName(User user, String name) {
-    // Update the user's name
-    user.setName(name);
+    User stored =
+        userRepository.findById(user.getId()).orElseThrow(() -> new UserNotFound(user.getEmail()));
+    stored.setName(name);
     
     // Persist the changes to the database
-    userRepository.save(user);
+    userRepository.save(stored);
+
+    // Requests with a cached token must see the new profile; save has committed by now, so a
+    // request resolving the user again cannot cache the old name
+    jwtPrincipalCache.evictUser(stored.getUsername());
+    entityManagerFactory.getCache().evict(UserName.class, stored.getId());
+    routeSnapshotCache.invalidateAll();
     
     // Return the updated profile information
-    return getProfile(user);
+    return getProfile(stored);
   }
 }
@@ -1,5 +1,7 @@
 package com.project.arebbus.service;
 
+import com.project.arebbus.config.MetricsConfiguration;
+import com.project.arebbus.dto.JourneyPlanResponse;
 import com.project.arebbus.dto.PagedRouteResponse;
 import com.project.arebbus.dto.RouteCreateRequest;
 import com.project.arebbus.dto.RouteResponse;
@@ -13,7 +15,9 @@ import com.project.arebbus.model.User;
 import com.project.arebbus.repositories.RouteRepository;
 import com.project.arebbus.repositories.RouteStopRepository;
 import com.project.arebbus.repositories.StopRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -27,6 +31,7 @@ import java.util.List;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class RouteService {
 
     /** Repository for route data access */
@@ -35,6 +40,14 @@ public class RouteService {
     private final RouteStopRepository routeStopRepository;
     /** Repository for stop data access */
     private final StopRepository stopRepository;
+    /** In-memory route graph used for journey planning */
+    private final TransitNetwork transitNetwork;
+    /** Built RouteResponses shared between requests */
+    private final RouteSnapshotCache routeSnapshotCache;
+
+    /** Upper bound on the transfers a plan request may ask for */
+    @Value("${route.planner.max-transfers:4}")
+    private int maxTransfers;
 
     /**
      * Creates a new route with associated stops.
@@ -53,18 +66,27 @@ public class RouteService {
 
         Route savedRoute = routeRepository.save(route);
 
-        List<StopResponse> stopResponses = createRouteStops(savedRoute, request.getStopIds());
+        List<Stop> stops = createRouteStops(savedRoute, request.getStopIds());
+        TransactionCallbacks.afterCommit(() -> transitNetwork.addRoute(savedRoute.getId(), savedRoute.getName(), stops));
 
         return RouteResponse.builder()
                 .id(savedRoute.getId())
                 .name(savedRoute.getName())
                 .authorName(savedRoute.getAuthor().getName())
-                .stops(stopResponses)
+                .stops(stops.stream()
+                        .map(stop -> StopResponse.builder()
+                                .id(stop.getId())
+                                .name(stop.getName())
+                                .latitude(stop.getLatitude())
+                                .longitude(stop.getLongitude())
+                                .authorName(stop.getAuthorDisplayName())
+                                .build())
+                        .toList())
                 .build();
     }
 
-    private List<StopResponse> createRouteStops(Route route, List<Long> stopIds) {
-        List<StopResponse> stopResponses = new java.util.ArrayList<>();
+    private List<Stop> createRouteStops(Route route, List<Long> stopIds) {
+        List<Stop> stops = new java.util.ArrayList<>();
         
         for (int i = 0; i < stopIds.size(); i++) {
             Long stopId = stopIds.get(i);
@@ -81,16 +103,10 @@ public class RouteService {
 
             routeStopRepository.save(routeStop);
 
-            stopResponses.add(StopResponse.builder()
-                    .id(stop.getId())
-                    .name(stop.getName())
-                    .latitude(stop.getLatitude())
-                    .longitude(stop.getLongitude())
-                    .authorName(stop.getAuthor().getName())
-                    .build());
+            stops.add(stop);
         }
 
-        return stopResponses;
+        return stops;
     }
 
     /**
@@ -100,28 +116,12 @@ public class RouteService {
      * @param user The user requesting the 
      * @return RouteResponse containing  details
      */
+    @Transactional(readOnly = true)
     public RouteResponse getRouteById(Long routeId) {
         Route route = routeRepository.findById(routeId)
                 .orElseThrow(() -> new RouteNotFoundException(routeId));
 
-        List<RouteStop> routeStops = routeStopRepository.findByRouteOrderByStopIndex(route);
-
-        List<StopResponse> stopResponses = routeStops.stream()
-                .map(routeStop -> StopResponse.builder()
-                        .id(routeStop.getStop().getId())
-                        .name(routeStop.getStop().getName())
-                        .latitude(routeStop.getStop().getLatitude())
-                        .longitude(routeStop.getStop().getLongitude())
-                        .authorName(routeStop.getStop().getAuthor().getName())
-                        .build())
-                .toList();
-
-        return RouteResponse.builder()
-                .id(route.getId())
-                .name(route.getName())
-                .authorName(route.getAuthor().getName())
-                .stops(stopResponses)
-                .build();
+        return routeSnapshotCache.get(route, routeStopRepository::findByRouteIdsWithStops);
     }
 
     /**
@@ -132,30 +132,13 @@ public class RouteService {
      * @param size The page size
      * @return PagedRouteResponse containing  and pagination info
      */
+    @Transactional(readOnly = true)
     public PagedRouteResponse getAllRoutes(int page, int size) {
         Page<Route> routes = routeRepository.findAll(PageRequest.of(page, size));
 
-        List<RouteResponse> routeResponses = routes.getContent().stream()
-                .map(route -> {
-                    List<RouteStop> routeStops = routeStopRepository.findByRouteOrderByStopIndex(route);
-                    List<StopResponse> stopResponses = routeStops.stream()
-                            .map(routeStop -> StopResponse.builder()
-                                    .id(routeStop.getStop().getId())
-                                    .name(routeStop.getStop().getName())
-                                    .latitude(routeStop.getStop().getLatitude())
-                                    .longitude(routeStop.getStop().getLongitude())
-                                    .authorName(routeStop.getStop().getAuthor().getName())
-                                    .build())
-                            .toList();
-
-                    return RouteResponse.builder()
-                            .id(route.getId())
-                            .name(route.getName())
-                            .authorName(route.getAuthor().getName())
-                            .stops(stopResponses)
-                            .build();
-                })
-                .toList();
+        List<RouteResponse> routeResponses = List.copyOf(routeSnapshotCache
+                .getAll(routes.getContent(), routeStopRepository::findByRouteIdsWithStops)
+                .values());
 
         return PagedRouteResponse.builder()
                 .routes(routeResponses)
@@ -165,4 +148,30 @@ public class RouteService {
                 .totalElements(routes.getTotalElements())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Plans journeys between two stops over all routes.
+     * Every returned journey is either shorter or needs fewer transfers than the others.
+     *
+     * @param fromStopId The origin stop id
+     * @param toStopId The destination stop id
+     * @param transfers Maximum number of transfers, capped by route.planner.max-transfers
+     * @return JourneyPlanResponse with the journeys, fewest transfers first
+     * @throws StopNotFoundException if either stop does not exist
+     */
+    @Transactional(readOnly = true)
+    public JourneyPlanResponse planJourney(Long fromStopId, Long toStopId, int transfers) {
+        if (!stopRepository.existsById(fromStopId)) {
+            throw new StopNotFoundException(fromStopId);
+        }
+        if (!stopRepository.existsById(toStopId)) {
+            throw new StopNotFoundException(toStopId);
+        }
+
+        return JourneyPlanResponse.builder()
+                .fromStopId(fromStopId)
+                .toStopId(toStopId)
+                .journeys(transitNetwork.plan(fromStopId, toStopId, Math.max(0, Math.min(transfers, maxTransfers))))
+                .build();
+    }
+}
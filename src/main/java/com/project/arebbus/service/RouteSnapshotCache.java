@@ -0,0 +1,166 @@
+package com.project.arebbus.service;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.project.arebbus.dto.RouteResponse;
+import com.project.arebbus.dto.StopResponse;
+import com.project.arebbus.model.Route;
+import com.project.arebbus.model.RouteStop;
+import com.project.arebbus.model.Stop;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Built RouteResponses, one immutable snapshot per route, shared by every response that
+ * embeds the route. A snapshot also keeps its JSON once it has been serialized, so later
+ * responses write the encoded bytes instead of walking the stops again (see
+ * RouteJsonConfiguration).
+ * Routes and stops are never modified once created, so a snapshot stays valid until an author
+ * is renamed, which drops every snapshot through {@link #invalidateAll}. Each snapshot records
+ * the version it was built at, and a build that raced with an invalidation is returned but
+ * not kept.
+ */
+@Component
+public class RouteSnapshotCache {
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /** Incremented by every invalidateAll */
+    private final AtomicLong version = new AtomicLong();
+
+    private static final class Snapshot {
+        private final long version;
+        private final RouteResponse response;
+        private volatile SerializableString json;
+
+        private Snapshot(long version, RouteResponse response) {
+            this.version = version;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Returns the snapshots of the given routes, building the missing ones from their stops.
+     *
+     * @param routes The routes
+     * @param stopLoader Loads the RouteStops of the given route ids with their stops, ordered
+     *                   by stop index within each route
+     * @return Snapshot per route id, in the order of routes
+     */
+    public Map<Long, RouteResponse> getAll(
+            Collection<Route> routes, Function<Collection<Long>, List<RouteStop>> stopLoader) {
+        Map<Long, RouteResponse> result = new LinkedHashMap<>();
+        Map<Long, Route> missing = new LinkedHashMap<>();
+        for (Route route : routes) {
+            Snapshot snapshot = snapshots.get(route.getId());
+            if (snapshot != null) {
+                result.put(route.getId(), snapshot.response);
+            } else {
+                result.put(route.getId(), null);
+                missing.put(route.getId(), route);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long builtAt = version.get();
+        Map<Long, List<StopResponse>> stopsByRoute = new HashMap<>();
+        for (RouteStop routeStop : stopLoader.apply(missing.keySet())) {
+            stopsByRoute.computeIfAbsent(routeStop.getRouteId(), id -> new ArrayList<>())
+                    .add(toStopResponse(routeStop.getStop()));
+        }
+        missing.forEach((routeId, route) -> {
+            RouteResponse response = RouteResponse.builder()
+                    .id(route.getId())
+                    .name(route.getName())
+                    .authorName(route.getAuthorDisplayName())
+                    .stops(List.copyOf(stopsByRoute.getOrDefault(routeId, List.of())))
+                    .build();
+            result.put(routeId, install(routeId, new Snapshot(builtAt, response)).response);
+        });
+        return result;
+    }
+
+    /**
+     * @param route The route
+     * @param stopLoader Loads the RouteStops of the given route ids, see {@link #getAll}
+     * @return The snapshot of the route
+     */
+    public RouteResponse get(Route route, Function<Collection<Long>, List<RouteStop>> stopLoader) {
+        return getAll(List.of(route), stopLoader).get(route.getId());
+    }
+
+    /**
+     * Drops every snapshot, e.g. after an author was renamed.
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        snapshots.clear();
+    }
+
+    /**
+     * @param response A RouteResponse
+     * @return The JSON of the response if it is a current snapshot that has been encoded
+     */
+    public SerializableString encoded(RouteResponse response) {
+        Snapshot snapshot = snapshotOf(response);
+        return snapshot == null ? null : snapshot.json;
+    }
+
+    /**
+     * Keeps the JSON of a snapshot; ignored if the response is not a current snapshot.
+     *
+     * @param response A RouteResponse
+     * @param json Its JSON
+     */
+    public void storeEncoded(RouteResponse response, SerializableString json) {
+        Snapshot snapshot = snapshotOf(response);
+        if (snapshot != null) {
+            snapshot.json = json;
+        }
+    }
+
+    /**
+     * @param response A RouteResponse
+     * @return true if the response is a current snapshot, which is never modified
+     */
+    public boolean isSnapshot(RouteResponse response) {
+        return snapshotOf(response) != null;
+    }
+
+    private Snapshot install(Long routeId, Snapshot built) {
+        Snapshot current = snapshots.computeIfAbsent(routeId, id -> built);
+        if (current == built && version.get() != built.version) {
+            // Invalidated while the stops were loaded; the snapshot may already be stale
+            snapshots.remove(routeId, built);
+        }
+        return current;
+    }
+
+    private Snapshot snapshotOf(RouteResponse response) {
+        if (response.getId() == null) {
+            return null;
+        }
+        Snapshot snapshot = snapshots.get(response.getId());
+        return snapshot != null && snapshot.response == response ? snapshot : null;
+    }
+
+    private static StopResponse toStopResponse(Stop stop) {
+        return StopResponse.builder()
+                .id(stop.getId())
+                .name(stop.getName())
+                .latitude(stop.getLatitude())
+                .longitude(stop.getLongitude())
+                .authorName(stop.getAuthorDisplayName())
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.StopResponse;
+import com.project.arebbus.model.Stop;
+
+import java.math.BigDecimal;
+
+/**
+ * A stop as {@link StopSpatialIndex} and {@link TransitGraph} keep it. The author is held by
+ * id and named through {@link AuthorNames} whenever a response is built, so a rename shows up
+ * without rebuilding either.
+ */
+record StopPoint(Long id, String name, BigDecimal latitude, BigDecimal longitude, Long authorId) {
+
+    static StopPoint of(Stop stop) {
+        // The projection is loaded with the stop, the author itself is usually a lazy proxy
+        Long authorId = stop.getAuthorName() != null ? stop.getAuthorName().getId() : stop.getAuthor().getId();
+        return new StopPoint(stop.getId(), stop.getName(), stop.getLatitude(), stop.getLongitude(), authorId);
+    }
+
+    /**
+     * @param authorName The author's current name
+     * @return A new response for the stop
+     */
+    StopResponse toResponse(String authorName) {
+        return StopResponse.builder()
+                .id(id)
+                .name(name)
+                .latitude(latitude)
+                .longitude(longitude)
+                .authorName(authorName)
+                .build();
+    }
+}
@@ -1,25 +1,39 @@
 package com.project.arebbus.service;
 
+import com.project.arebbus.config.MetricsConfiguration;
 import com.project.arebbus.dto.PagedStopResponse;
+import com.project.arebbus.dto.StopArrivalResponse;
+import com.project.arebbus.dto.StopArrivalsResponse;
 import com.project.arebbus.dto.StopCreateRequest;
 import com.project.arebbus.dto.StopResponse;
 import com.project.arebbus.exception.StopNotFoundException;
 import com.project.arebbus.model.Stop;
 import com.project.arebbus.model.User;
 import com.project.arebbus.repositories.StopRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class StopService {
 
     /** Repository for  data access */
     private final StopRepository stopRepository;
+    /** Grid index answering radius queries */
+    private final StopSpatialIndex stopSpatialIndex;
+    /** Arrival predictions kept up to date from rider locations */
+    private final BusEtaEngine busEtaEngine;
 
     /**
      * Creates a new .
@@ -38,13 +52,16 @@ public class StopService {
 
         Stop savedStop = stopRepository.save(stop);
 
-        return StopResponse.builder()
+        StopResponse response = StopResponse.builder()
                 .id(savedStop.getId())
                 .name(savedStop.getName())
                 .latitude(savedStop.getLatitude())
                 .longitude(savedStop.getLongitude())
                 .authorName(savedStop.getAuthor().getName())
                 .build();
+        stopSpatialIndex.add(savedStop);
+
+        return response;
     }
 
     /**
@@ -54,6 +71,7 @@ public class StopService {
      * @param user The user requesting the 
      * @return StopResponse containing  details
      */
+    @Transactional(readOnly = true)
     public StopResponse getStopById(Long stopId) {
         Stop stop = stopRepository.findById(stopId)
                 .orElseThrow(() -> new StopNotFoundException(stopId));
@@ -63,7 +81,7 @@ public class StopService {
                 .name(stop.getName())
                 .latitude(stop.getLatitude())
                 .longitude(stop.getLongitude())
-                .authorName(stop.getAuthor().getName())
+                .authorName(stop.getAuthorDisplayName())
                 .build();
     }
 
@@ -75,6 +93,7 @@ public class StopService {
      * @param size The page size
      * @return PagedStopResponse containing  and pagination info
      */
+    @Transactional(readOnly = true)
     public PagedStopResponse getAllStops(int page, int size) {
         Page<Stop> stops = stopRepository.findAll(PageRequest.of(page, size));
 
@@ -84,7 +103,7 @@ public class StopService {
                         .name(stop.getName())
                         .latitude(stop.getLatitude())
                         .longitude(stop.getLongitude())
-                        .authorName(stop.getAuthor().getName())
+                        .authorName(stop.getAuthorDisplayName())
                         .build())
                 .toList();
 
@@ -97,21 +116,67 @@ public class StopService {
                 .build();
     }
 
+    /**
+     * Retrieves all stops within a radius, nearest first.
+     *
+     * @param latitude Latitude of the centre
+     * @param longitude Longitude of the centre
+     * @param radiusKm The radius in kilometers
+     * @return List of StopResponse sorted by distance
+     */
+    @Transactional(readOnly = true)
     public List<StopResponse> getNearbyStops(double latitude, double longitude, double radiusKm) {
-        List<Stop> allStops = stopRepository.findAll();
+        if (stopSpatialIndex.isReady()) {
+            return stopSpatialIndex.findWithin(latitude, longitude, radiusKm);
+        }
+
+        // Index is still being built during startup; fall back to a full scan
+        List<Stop> allStops = stopRepository.findAllWithAuthor();
         
         return allStops.stream()
                 .filter(stop -> calculateDistance(latitude, longitude, stop.getLatitude().doubleValue(), stop.getLongitude().doubleValue()) <= radiusKm)
+                .sorted(java.util.Comparator.comparingDouble(stop -> calculateDistance(latitude, longitude, stop.getLatitude().doubleValue(), stop.getLongitude().doubleValue())))
                 .map(stop -> StopResponse.builder()
                         .id(stop.getId())
                         .name(stop.getName())
                         .latitude(stop.getLatitude())
                         .longitude(stop.getLongitude())
-                        .authorName(stop.getAuthor().getName())
+                        .authorName(stop.getAuthorDisplayName())
                         .build())
                 .toList();
     }
 
+    /**
+     * Retrieves the predicted arrivals of buses at a stop, soonest first.
+     * 
+     * @param stopId The ID of the stop
+     * @return StopArrivalsResponse containing the predictions
+     * @throws StopNotFoundException if the stop doesn't exist
+     */
+    @Transactional(readOnly = true)
+    public StopArrivalsResponse getArrivals(Long stopId) {
+        Stop stop = stopRepository.findById(stopId)
+                .orElseThrow(() -> new StopNotFoundException(stopId));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StopArrivalResponse> arrivals = busEtaEngine.arrivals(stopId, now).stream()
+                .map(arrival -> StopArrivalResponse.builder()
+                        .busId(arrival.busId())
+                        .busName(arrival.busName())
+                        .expectedAt(arrival.expectedAt())
+                        .etaSeconds(Duration.between(now, arrival.expectedAt()).toSeconds())
+                        .distanceKm(BigDecimal.valueOf(arrival.distanceKm()).setScale(2, RoundingMode.HALF_UP))
+                        .speedKmh(BigDecimal.valueOf(arrival.speedKmh()).setScale(1, RoundingMode.HALF_UP))
+                        .build())
+                .toList();
+
+        return StopArrivalsResponse.builder()
+                .stopId(stop.getId())
+                .stopName(stop.getName())
+                .arrivals(arrivals)
+                .build();
+    }
+
     private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
         final int R = 6371; // Radius of the earth in kilometers
         
@@ -0,0 +1,178 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.StopResponse;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.repositories.StopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process uniform grid over all stops for radius queries.
+ * The globe is split into square cells of {@code stop.index.cell-size-degrees}; a radius query
+ * only visits the cells overlapping the bounding box of the search circle. Cells are
+ * copy-on-write, so readers never lock and the rare stop creation pays for the copy.
+ * Authors are kept by id and named when a query is answered, so renames show up at once.
+ * Adding a stop that is already indexed is a no-op, which lets creations race the startup build.
+ */
+@Component
+public class StopSpatialIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    /** Repository used to build the index at startup */
+    private final StopRepository stopRepository;
+    /** Names the authors of the stops found */
+    private final AuthorNames authorNames;
+
+    private final double cellSizeDegrees;
+    private final int lonCells;
+
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final Set<Long> indexed = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StopSpatialIndex.class);
+
+    public StopSpatialIndex(
+            StopRepository stopRepository,
+            AuthorNames authorNames,
+            @Value("${stop.index.cell-size-degrees:0.01}") double cellSizeDegrees) {
+        this.stopRepository = stopRepository;
+        this.authorNames = authorNames;
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.lonCells = (int) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    /** Immutable contents of one grid cell; the arrays are never mutated after publication */
+    private record Cell(double[] latitudes, double[] longitudes, StopPoint[] stops) {
+        Cell with(double latitude, double longitude, StopPoint stop) {
+            int n = stops.length;
+            double[] lats = Arrays.copyOf(latitudes, n + 1);
+            double[] lons = Arrays.copyOf(longitudes, n + 1);
+            StopPoint[] next = Arrays.copyOf(stops, n + 1);
+            lats[n] = latitude;
+            lons[n] = longitude;
+            next[n] = stop;
+            return new Cell(lats, lons, next);
+        }
+    }
+
+    private record Hit(StopPoint stop, double distanceKm) {
+    }
+
+    /**
+     * Builds the index from every stop in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        List<Stop> stops = stopRepository.findAllWithAuthor();
+        stops.forEach(this::add);
+        ready = true;
+        LOGGER.info("Stop spatial index built with {} stops in {} cells", stops.size(), cells.size());
+    }
+
+    /**
+     * @return true once the index holds every stop
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds a stop to the index unless it is already there.
+     *
+     * @param stop The stop to add, with its author or author name
+     */
+    public void add(Stop stop) {
+        if (!indexed.add(stop.getId())) {
+            return;
+        }
+        StopPoint point = StopPoint.of(stop);
+        double latitude = point.latitude().doubleValue();
+        double longitude = point.longitude().doubleValue();
+        cells.compute(cellKey(latIndex(latitude), lonIndex(longitude)), (key, cell) ->
+                cell == null
+                        ? new Cell(new double[]{latitude}, new double[]{longitude}, new StopPoint[]{point})
+                        : cell.with(latitude, longitude, point));
+    }
+
+    /**
+     * Finds all stops within a radius, nearest first.
+     *
+     * @param latitude Latitude of the centre in degrees
+     * @param longitude Longitude of the centre in degrees
+     * @param radiusKm The search radius in kilometers
+     * @return Stops within the radius sorted by distance
+     */
+    public List<StopResponse> findWithin(double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(latitude) + latDelta)));
+        double lonDelta = Math.min(180, radiusKm / (KM_PER_DEGREE_LAT * cosLat));
+
+        int minLat = latIndex(Math.max(-90, latitude - latDelta));
+        int maxLat = latIndex(Math.min(90, latitude + latDelta));
+        int minLon = (int) Math.floor((longitude - lonDelta + 180) / cellSizeDegrees);
+        int maxLon = (int) Math.floor((longitude + lonDelta + 180) / cellSizeDegrees);
+        if (maxLon - minLon >= lonCells) {
+            minLon = 0;
+            maxLon = lonCells - 1;
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+            for (int lonIdx = minLon; lonIdx <= maxLon; lonIdx++) {
+                Cell cell = cells.get(cellKey(latIdx, Math.floorMod(lonIdx, lonCells)));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.stops().length; i++) {
+                    double distance = haversineKm(latitude, longitude, cell.latitudes()[i], cell.longitudes()[i]);
+                    if (distance <= radiusKm) {
+                        hits.add(new Hit(cell.stops()[i], distance));
+                    }
+                }
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        Map<Long, String> names = authorNames.namesOf(hits.stream().map(hit -> hit.stop().authorId()).toList());
+        return hits.stream().map(hit -> hit.stop().toResponse(names.get(hit.stop().authorId()))).toList();
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellSizeDegrees);
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellSizeDegrees), lonCells);
+    }
+
+    private static long cellKey(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.config.MetricsConfiguration;
+import com.project.arebbus.dto.ToggleUpvoteResponse;
+import com.project.arebbus.exception.BusNotFoundException;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.BusRepository;
+import com.project.arebbus.repositories.UpvoteTable;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Date;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
+public class ToggleBusUpvoteService {
+  /** Repository for data access */
+  private final BusRepository busRepository;
+
+  /** Pending comment and bus upvotes */
+  private final UpvoteCounters upvoteCounters;
+
+  /** Registry of the toggle counters */
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Toggles a user's upvote of a bus.
+   *
+   * @param user The user performing the action
+   * @param busId The id of the bus to toggle
+   * @return ToggleUpvoteResponse containing toggle status
+   * @throws BusNotFoundException if no bus exists with the given ID
+   */
+  public ToggleUpvoteResponse toggleUpvote(User user, Long busId) {
+    if (!busRepository.existsById(busId)) {
+      throw new BusNotFoundException(busId);
+    }
+
+    boolean upvoted = upvoteCounters.toggle(UpvoteTable.BUS, user.getId(), busId);
+    countToggle(upvoted);
+    return ToggleUpvoteResponse.builder().upvoteStatus(upvoted).toggledAt(new Date()).build();
+  }
+
+  private void countToggle(boolean upvoted) {
+    meterRegistry
+        .counter(MetricsConfiguration.UPVOTE_TOGGLES, "target", "bus", "result", upvoted ? "upvoted" : "removed")
+        .increment();
+  }
+}
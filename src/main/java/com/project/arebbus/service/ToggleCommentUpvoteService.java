@@ -1,54 +1,49 @@
 package com.project.arebbus.service;
 
+import com.project.arebbus.config.MetricsConfiguration;
 import com.project.arebbus.dto.ToggleUpvoteResponse;
-import com.project.arebbus.model.CommentUpvote;
 import com.project.arebbus.model.User;
 import com.project.arebbus.repositories.CommentRepository;
-import com.project.arebbus.repositories.CommentUpvoteRepository;
-import jakarta.transaction.Transactional;
+import com.project.arebbus.repositories.UpvoteTable;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Date;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class ToggleCommentUpvoteService {
   /** Repository for data access */
   private final CommentRepository commentRepository;
 
-  /** Repository for data access */
-  private final CommentUpvoteRepository commentUpvoteRepository;
+  /** Pending comment and bus upvotes */
+  private final UpvoteCounters upvoteCounters;
+
+  /** Registry of the toggle counters */
+  private final MeterRegistry meterRegistry;
 
   /**
    * Toggles user interaction (upvote/downvote).
    *
    * @param user The user performing the action
-   * @param request The toggle request
+   * @param commentId The id of the comment to toggle
    * @return ToggleUpvoteResponse containing toggle status
    */
   public ToggleUpvoteResponse toggleUpvote(User user, Long commentId) {
-    var comment =
-        commentRepository
-            .findById(commentId)
-            .orElseThrow(
-                () -> new IllegalArgumentException("Comment not found with id: " + commentId));
-
-    if (commentUpvoteRepository.existsByUserIdAndCommentId(user.getId(), commentId)) {
-      commentUpvoteRepository.deleteByUserIdAndCommentId(user.getId(), commentId);
-      comment.setNumUpvote(commentUpvoteRepository.countByCommentId(commentId));
-      return ToggleUpvoteResponse.builder().upvoteStatus(false).toggledAt(new Date()).build();
+    if (!commentRepository.existsById(commentId)) {
+      throw new IllegalArgumentException("Comment not found with id: " + commentId);
     }
 
-    commentUpvoteRepository.save(
-        CommentUpvote.builder()
-            .userId(user.getId())
-            .commentId(comment.getId())
-            .user(user)
-            .comment(comment)
-            .build());
-    comment.setNumUpvote(commentUpvoteRepository.countByCommentId(commentId));
+    boolean upvoted = upvoteCounters.toggle(UpvoteTable.COMMENT, user.getId(), commentId);
+    countToggle(upvoted);
+    return ToggleUpvoteResponse.builder().upvoteStatus(upvoted).toggledAt(new Date()).build();
+  }
 
-    return ToggleUpvoteResponse.builder().upvoteStatus(true).toggledAt(new Date()).build();
+  private void countToggle(boolean upvoted) {
+    meterRegistry
+        .counter(MetricsConfiguration.UPVOTE_TOGGLES, "target", "comment", "result", upvoted ? "upvoted" : "removed")
+        .increment();
   }
 }
@@ -1,18 +1,25 @@
 package com.project.arebbus.service;
 
+import com.project.arebbus.config.MetricsConfiguration;
 import com.project.arebbus.dto.ToggleUpvoteResponse;
-import com.project.arebbus.model.Upvote;
 import com.project.arebbus.model.User;
 import com.project.arebbus.repositories.PostRepository;
 import com.project.arebbus.repositories.UpvoteRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Date;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+/**
+ * Toggles post upvotes without touching the post row. The upvote row is removed or inserted
+ * with a single idempotent statement and the change of Post.numUpvote is handed to
+ * {@link PostUpvoteCounter}, which writes it together with other changes of the post.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class ToggleUpvoteService {
   /** Repository for data access */
   private final PostRepository postRepository;
@@ -20,32 +27,48 @@ public class ToggleUpvoteService {
   /** Repository for data access */
   private final UpvoteRepository upvoteRepository;
 
+  /** Pending changes of the post upvote counts */
+  private final PostUpvoteCounter postUpvoteCounter;
+
+  /** Registry of the toggle counters */
+  private final MeterRegistry meterRegistry;
+
   /**
    * Toggles user interaction (upvote/downvote).
    *
    * @param user The user performing the action
-   * @param request The toggle request
+   * @param postId The id of the post to toggle
    * @return ToggleUpvoteResponse containing toggle status
    */
   public ToggleUpvoteResponse toggleUpvote(User user, Long postId) {
-    var post =
-        postRepository
-            .findById(postId)
-            .orElseThrow(() -> new IllegalArgumentException("Post not found with id: " + postId));
-
-    if (upvoteRepository.existsByUserIdAndPostId(user.getId(), postId)) {
-      upvoteRepository.deleteByUserIdAndPostId(user.getId(), postId);
-      post.setNumUpvote(upvoteRepository.countByPostId(postId));
+    if (!postRepository.existsById(postId)) {
+      throw new IllegalArgumentException("Post not found with id: " + postId);
+    }
+
+    if (upvoteRepository.removeUpvote(user.getId(), postId) > 0) {
+      postUpvoteCounter.add(postId, -1);
+      countToggle(false);
       return ToggleUpvoteResponse.builder().upvoteStatus(false).toggledAt(new Date()).build();
     }
 
-    upvoteRepository.save(
-        Upvote.builder().userId(user.getId()).postId(post.getId()).user(user).post(post).build());
-    post.setNumUpvote(upvoteRepository.countByPostId(postId));
+    try {
+      if (upvoteRepository.addUpvote(user.getId(), postId) > 0) {
+        postUpvoteCounter.add(postId, 1);
+      }
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent toggle of the same user inserted the row first; it counted the upvote
+    }
+    countToggle(true);
 
     return ToggleUpvoteResponse.builder()
         .upvoteStatus(true)
         .toggledAt(new Date()) // Set the current date and time
         .build();
   }
+
+  private void countToggle(boolean upvoted) {
+    meterRegistry
+        .counter(MetricsConfiguration.UPVOTE_TOGGLES, "target", "post", "result", upvoted ? "upvoted" : "removed")
+        .increment();
+  }
 }
@@ -0,0 +1,354 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.JourneyLegResponse;
+import com.project.arebbus.dto.JourneyResponse;
+import com.project.arebbus.dto.StopResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the route network in flat primitive arrays.
+ * Stops and route patterns are numbered densely. The stops of pattern {@code r} are
+ * {@code patternStops[patternOffsets[r] .. patternOffsets[r + 1])} with the cumulative distance
+ * from the first stop in {@code patternKm}; the patterns serving stop {@code s} and the
+ * position of {@code s} in each of them are {@code stopPatterns / stopPositions[stopOffsets[s]
+ * .. stopOffsets[s + 1])}. A route travelled in both directions contributes two patterns.
+ */
+final class TransitGraph {
+
+    static final TransitGraph EMPTY = new Builder().build();
+
+    private final long[] stopIds;
+    private final StopPoint[] stops;
+    private final Map<Long, Integer> stopIndex;
+
+    private final long[] patternRouteIds;
+    private final String[] patternRouteNames;
+    private final int[] patternOffsets;
+    private final int[] patternStops;
+    private final double[] patternKm;
+
+    private final int[] stopOffsets;
+    private final int[] stopPatterns;
+    private final int[] stopPositions;
+
+    private TransitGraph(Builder builder) {
+        int stopCount = builder.stopCount;
+        int patternCount = builder.patternCount;
+        int entryCount = builder.entryCount;
+
+        stopIds = Arrays.copyOf(builder.stopIds, stopCount);
+        stops = Arrays.copyOf(builder.stops, stopCount);
+        stopIndex = new HashMap<>(builder.stopIndex);
+        patternRouteIds = Arrays.copyOf(builder.patternRouteIds, patternCount);
+        patternRouteNames = Arrays.copyOf(builder.patternRouteNames, patternCount);
+        patternOffsets = Arrays.copyOf(builder.patternOffsets, patternCount + 1);
+        patternStops = Arrays.copyOf(builder.patternStops, entryCount);
+        patternKm = Arrays.copyOf(builder.patternKm, entryCount);
+
+        // Counting sort of the pattern entries by stop
+        stopOffsets = new int[stopCount + 1];
+        for (int i = 0; i < entryCount; i++) {
+            stopOffsets[patternStops[i] + 1]++;
+        }
+        for (int s = 0; s < stopCount; s++) {
+            stopOffsets[s + 1] += stopOffsets[s];
+        }
+        stopPatterns = new int[entryCount];
+        stopPositions = new int[entryCount];
+        int[] fill = Arrays.copyOf(stopOffsets, stopCount);
+        for (int r = 0; r < patternCount; r++) {
+            for (int i = patternOffsets[r]; i < patternOffsets[r + 1]; i++) {
+                int slot = fill[patternStops[i]]++;
+                stopPatterns[slot] = r;
+                stopPositions[slot] = i - patternOffsets[r];
+            }
+        }
+    }
+
+    int stopCount() {
+        return stopIds.length;
+    }
+
+    int patternCount() {
+        return patternRouteIds.length;
+    }
+
+    /**
+     * @param stopId A stop id
+     * @return Id of the stop's author, or null if the stop is not in the graph
+     */
+    Long authorId(long stopId) {
+        Integer index = stopIndex.get(stopId);
+        return index == null ? null : stops[index].authorId();
+    }
+
+    boolean containsRoute(long routeId) {
+        for (long id : patternRouteIds) {
+            if (id == routeId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of this graph with one more route.
+     *
+     * @param routeId The route id
+     * @param routeName The route name
+     * @param routeStops The stops of the route in order
+     * @param bidirectional Whether the route is also travelled in reverse
+     * @return The extended graph
+     */
+    TransitGraph withRoute(long routeId, String routeName, List<StopPoint> routeStops, boolean bidirectional) {
+        return new Builder(this).addRoute(routeId, routeName, routeStops, bidirectional).build();
+    }
+
+    /**
+     * Finds the journeys between two stops that are not dominated on both the number of
+     * transfers and the distance travelled, fewest transfers first.
+     * This is RAPTOR with distance in place of arrival time: round k relaxes every pattern
+     * serving a stop improved in round k - 1, so after round k the labels hold the shortest
+     * distance using exactly k rides. A label is only kept when it beats the best distance of
+     * any earlier round, which prunes journeys that are both longer and need more rides.
+     *
+     * @param fromStopId The origin stop id
+     * @param toStopId The destination stop id
+     * @param maxRides Maximum number of rides (transfers + 1)
+     * @return Pareto-optimal journeys, empty if the stops are not connected; the stops of the
+     *     legs are new responses without author names
+     */
+    List<JourneyResponse> plan(long fromStopId, long toStopId, int maxRides) {
+        Integer from = stopIndex.get(fromStopId);
+        Integer to = stopIndex.get(toStopId);
+        if (from == null || to == null || from.equals(to)) {
+            return List.of();
+        }
+
+        int stopCount = stopCount();
+        double[] best = new double[stopCount];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        double[][] labels = new double[maxRides + 1][];
+        int[][] viaPattern = new int[maxRides + 1][];
+        int[][] boardedAt = new int[maxRides + 1][];
+
+        labels[0] = new double[stopCount];
+        Arrays.fill(labels[0], Double.POSITIVE_INFINITY);
+        labels[0][from] = 0;
+        best[from] = 0;
+
+        boolean[] marked = new boolean[stopCount];
+        int[] markedStops = new int[stopCount];
+        int markedCount = 1;
+        markedStops[0] = from;
+
+        int[] firstPosition = new int[patternCount()];
+        Arrays.fill(firstPosition, Integer.MAX_VALUE);
+        int[] queue = new int[patternCount()];
+
+        List<JourneyResponse> journeys = new ArrayList<>();
+        for (int k = 1; k <= maxRides && markedCount > 0; k++) {
+            // Collect the patterns to scan and the earliest marked position on each
+            int queued = 0;
+            for (int m = 0; m < markedCount; m++) {
+                int s = markedStops[m];
+                marked[s] = false;
+                for (int i = stopOffsets[s]; i < stopOffsets[s + 1]; i++) {
+                    int r = stopPatterns[i];
+                    if (firstPosition[r] == Integer.MAX_VALUE) {
+                        queue[queued++] = r;
+                    }
+                    firstPosition[r] = Math.min(firstPosition[r], stopPositions[i]);
+                }
+            }
+            markedCount = 0;
+
+            double[] previous = labels[k - 1];
+            double[] current = new double[stopCount];
+            Arrays.fill(current, Double.POSITIVE_INFINITY);
+            int[] via = new int[stopCount];
+            int[] boarded = new int[stopCount];
+            labels[k] = current;
+            viaPattern[k] = via;
+            boardedAt[k] = boarded;
+
+            for (int q = 0; q < queued; q++) {
+                int r = queue[q];
+                int start = patternOffsets[r] + firstPosition[r];
+                firstPosition[r] = Integer.MAX_VALUE;
+                // Distance of the cheapest boarding so far, relative to the pattern origin
+                double onBoard = Double.POSITIVE_INFINITY;
+                int boardIndex = -1;
+                for (int i = start; i < patternOffsets[r + 1]; i++) {
+                    int s = patternStops[i];
+                    if (boardIndex >= 0) {
+                        double distance = onBoard + patternKm[i];
+                        if (distance < best[s] && distance < best[to]) {
+                            current[s] = distance;
+                            best[s] = distance;
+                            via[s] = r;
+                            boarded[s] = boardIndex;
+                            if (!marked[s]) {
+                                marked[s] = true;
+                                markedStops[markedCount++] = s;
+                            }
+                        }
+                    }
+                    double boardHere = previous[s] - patternKm[i];
+                    if (boardHere < onBoard) {
+                        onBoard = boardHere;
+                        boardIndex = i;
+                    }
+                }
+            }
+
+            if (current[to] < Double.POSITIVE_INFINITY) {
+                journeys.add(journey(k, to, viaPattern, boardedAt, current[to]));
+            }
+        }
+        return journeys;
+    }
+
+    private JourneyResponse journey(int rides, int to, int[][] viaPattern, int[][] boardedAt, double distanceKm) {
+        JourneyLegResponse[] legs = new JourneyLegResponse[rides];
+        int stop = to;
+        for (int k = rides; k >= 1; k--) {
+            int r = viaPattern[k][stop];
+            int board = boardedAt[k][stop];
+            int alight = board + 1;
+            while (patternStops[alight] != stop) {
+                alight++;
+            }
+            List<StopResponse> legStops = new ArrayList<>(alight - board + 1);
+            for (int i = board; i <= alight; i++) {
+                legStops.add(stops[patternStops[i]].toResponse(null));
+            }
+            legs[k - 1] = JourneyLegResponse.builder()
+                    .routeId(patternRouteIds[r])
+                    .routeName(patternRouteNames[r])
+                    .stops(legStops)
+                    .distanceKm(km(patternKm[alight] - patternKm[board]))
+                    .build();
+            stop = patternStops[board];
+        }
+        return JourneyResponse.builder()
+                .transfers(rides - 1)
+                .distanceKm(km(distanceKm))
+                .legs(List.of(legs))
+                .build();
+    }
+
+    private static BigDecimal km(double value) {
+        return BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP);
+    }
+
+    /** Growable arrays the immutable graph is copied from */
+    static final class Builder {
+        private long[] stopIds = new long[16];
+        private StopPoint[] stops = new StopPoint[16];
+        private final Map<Long, Integer> stopIndex = new HashMap<>();
+        private int stopCount;
+
+        private long[] patternRouteIds = new long[16];
+        private String[] patternRouteNames = new String[16];
+        private int[] patternOffsets = new int[17];
+        private int patternCount;
+
+        private int[] patternStops = new int[64];
+        private double[] patternKm = new double[64];
+        private int entryCount;
+
+        Builder() {
+        }
+
+        Builder(TransitGraph graph) {
+            stopCount = graph.stopIds.length;
+            stopIds = Arrays.copyOf(graph.stopIds, stopCount + 16);
+            stops = Arrays.copyOf(graph.stops, stopCount + 16);
+            stopIndex.putAll(graph.stopIndex);
+            patternCount = graph.patternRouteIds.length;
+            patternRouteIds = Arrays.copyOf(graph.patternRouteIds, patternCount + 16);
+            patternRouteNames = Arrays.copyOf(graph.patternRouteNames, patternCount + 16);
+            patternOffsets = Arrays.copyOf(graph.patternOffsets, patternCount + 17);
+            entryCount = graph.patternStops.length;
+            patternStops = Arrays.copyOf(graph.patternStops, entryCount + 64);
+            patternKm = Arrays.copyOf(graph.patternKm, entryCount + 64);
+        }
+
+        /**
+         * Adds a route as one pattern, or two when it is also travelled in reverse.
+         * Routes with fewer than two stops cannot be ridden and are skipped.
+         */
+        Builder addRoute(long routeId, String routeName, List<StopPoint> routeStops, boolean bidirectional) {
+            if (routeStops.size() < 2) {
+                return this;
+            }
+            int[] indices = new int[routeStops.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = stop(routeStops.get(i));
+            }
+            addPattern(routeId, routeName, indices, false);
+            if (bidirectional) {
+                addPattern(routeId, routeName, indices, true);
+            }
+            return this;
+        }
+
+        TransitGraph build() {
+            return new TransitGraph(this);
+        }
+
+        private int stop(StopPoint stop) {
+            Integer index = stopIndex.get(stop.id());
+            if (index != null) {
+                return index;
+            }
+            if (stopCount == stopIds.length) {
+                stopIds = Arrays.copyOf(stopIds, stopCount * 2);
+                stops = Arrays.copyOf(stops, stopCount * 2);
+            }
+            stopIds[stopCount] = stop.id();
+            stops[stopCount] = stop;
+            stopIndex.put(stop.id(), stopCount);
+            return stopCount++;
+        }
+
+        private void addPattern(long routeId, String routeName, int[] indices, boolean reversed) {
+            if (patternCount == patternRouteIds.length) {
+                patternRouteIds = Arrays.copyOf(patternRouteIds, patternCount * 2 + 2);
+                patternRouteNames = Arrays.copyOf(patternRouteNames, patternCount * 2 + 2);
+                patternOffsets = Arrays.copyOf(patternOffsets, patternCount * 2 + 3);
+            }
+            if (entryCount + indices.length > patternStops.length) {
+                int capacity = Math.max(patternStops.length * 2, entryCount + indices.length);
+                patternStops = Arrays.copyOf(patternStops, capacity);
+                patternKm = Arrays.copyOf(patternKm, capacity);
+            }
+            double km = 0;
+            for (int i = 0; i < indices.length; i++) {
+                int s = indices[reversed ? indices.length - 1 - i : i];
+                if (i > 0) {
+                    StopPoint a = stops[patternStops[entryCount - 1]];
+                    StopPoint b = stops[s];
+                    km += StopSpatialIndex.haversineKm(
+                            a.latitude().doubleValue(), a.longitude().doubleValue(),
+                            b.latitude().doubleValue(), b.longitude().doubleValue());
+                }
+                patternStops[entryCount] = s;
+                patternKm[entryCount] = km;
+                entryCount++;
+            }
+            patternRouteIds[patternCount] = routeId;
+            patternRouteNames[patternCount] = routeName;
+            patternCount++;
+            patternOffsets[patternCount] = entryCount;
+        }
+    }
+}
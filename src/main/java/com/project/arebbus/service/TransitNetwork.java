@@ -0,0 +1,111 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.JourneyResponse;
+import com.project.arebbus.dto.StopResponse;
+import com.project.arebbus.model.RouteStop;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.repositories.RouteStopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory transit graph over all routes for journey planning.
+ * Queries run against an immutable {@link TransitGraph} snapshot without locking; a new
+ * route is appended to a copy of the snapshot instead of reloading the network, and the copy
+ * is published atomically. Stop authors are kept by id and named when a journey is returned.
+ */
+@Component
+public class TransitNetwork {
+
+    /** Repository used to build the graph at startup */
+    private final RouteStopRepository routeStopRepository;
+    /** Names the authors of the stops on a journey */
+    private final AuthorNames authorNames;
+
+    /** Whether buses run each route in both directions */
+    private final boolean bidirectional;
+
+    private volatile TransitGraph graph = TransitGraph.EMPTY;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransitNetwork.class);
+
+    public TransitNetwork(
+            RouteStopRepository routeStopRepository,
+            AuthorNames authorNames,
+            @Value("${route.planner.bidirectional:true}") boolean bidirectional) {
+        this.routeStopRepository = routeStopRepository;
+        this.authorNames = authorNames;
+        this.bidirectional = bidirectional;
+    }
+
+    /**
+     * Builds the graph from every route in the database. Routes added while the database was
+     * being read are kept.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void build() {
+        List<RouteStop> routeStops = routeStopRepository.findAllWithStops();
+        TransitGraph current = graph;
+        TransitGraph.Builder builder = new TransitGraph.Builder(current);
+        int routes = 0;
+        for (int from = 0; from < routeStops.size(); ) {
+            Long routeId = routeStops.get(from).getRouteId();
+            int to = from;
+            List<StopPoint> stops = new ArrayList<>();
+            while (to < routeStops.size() && routeStops.get(to).getRouteId().equals(routeId)) {
+                stops.add(StopPoint.of(routeStops.get(to++).getStop()));
+            }
+            if (!current.containsRoute(routeId)) {
+                builder.addRoute(routeId, routeStops.get(from).getRoute().getName(), stops, bidirectional);
+                routes++;
+            }
+            from = to;
+        }
+        graph = builder.build();
+        LOGGER.info("Transit graph built with {} routes, {} stops and {} patterns",
+                routes, graph.stopCount(), graph.patternCount());
+    }
+
+    /**
+     * Adds a newly created route.
+     *
+     * @param routeId The route id
+     * @param routeName The route name
+     * @param stops The stops of the route in order, with their authors or author names
+     */
+    public synchronized void addRoute(Long routeId, String routeName, List<Stop> stops) {
+        if (!graph.containsRoute(routeId)) {
+            graph = graph.withRoute(routeId, routeName, stops.stream().map(StopPoint::of).toList(), bidirectional);
+        }
+    }
+
+    /**
+     * Plans journeys between two stops.
+     *
+     * @param fromStopId The origin stop id
+     * @param toStopId The destination stop id
+     * @param maxTransfers Maximum number of changes between routes
+     * @return Journeys trading transfers against distance, fewest transfers first
+     */
+    public List<JourneyResponse> plan(Long fromStopId, Long toStopId, int maxTransfers) {
+        TransitGraph current = graph;
+        List<JourneyResponse> journeys = current.plan(fromStopId, toStopId, maxTransfers + 1);
+        List<StopResponse> stops = journeys.stream()
+                .flatMap(journey -> journey.getLegs().stream())
+                .flatMap(leg -> leg.getStops().stream())
+                .toList();
+        Map<Long, String> names = authorNames.namesOf(stops.stream().map(stop -> current.authorId(stop.getId())).toList());
+        stops.forEach(stop -> stop.setAuthorName(names.get(current.authorId(stop.getId()))));
+        return journeys;
+    }
+}
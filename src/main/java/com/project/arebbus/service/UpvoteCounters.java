@@ -0,0 +1,120 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.repositories.UpvoteCountRepository;
+import com.project.arebbus.repositories.UpvoteTable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Comment and bus upvote toggles. Each kind has a {@link VoteCounter} whose net changes are
+ * written every {@code upvote.flush-interval-ms}; reads overlay what is not written yet.
+ */
+@Component
+public class UpvoteCounters {
+
+    private final Map<UpvoteTable, VoteCounter> counters = new EnumMap<>(UpvoteTable.class);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UpvoteCounters.class);
+
+    public UpvoteCounters(UpvoteCountRepository upvoteCountRepository) {
+        for (UpvoteTable table : List.of(UpvoteTable.COMMENT, UpvoteTable.BUS)) {
+            counters.put(table, new VoteCounter(new VoteCounter.Store() {
+                @Override
+                public boolean exists(Long userId, Long entityId) {
+                    return upvoteCountRepository.hasUpvote(table, userId, entityId);
+                }
+
+                @Override
+                public void apply(List<VoteCounter.Vote> added, List<VoteCounter.Vote> removed) {
+                    upvoteCountRepository.applyVotes(table, pairs(added), pairs(removed));
+                }
+            }));
+        }
+    }
+
+    /**
+     * Toggles a user's upvote.
+     *
+     * @param table COMMENT or BUS
+     * @param userId The user id
+     * @param entityId The comment or bus id
+     * @return true if the entity is upvoted afterwards
+     */
+    public boolean toggle(UpvoteTable table, Long userId, Long entityId) {
+        return counter(table).toggle(userId, entityId);
+    }
+
+    /**
+     * @param table COMMENT or BUS
+     * @param entityId The comment or bus id
+     * @return The change of the entity's num_upvote not yet written
+     */
+    public long pending(UpvoteTable table, Long entityId) {
+        return counter(table).pending(entityId);
+    }
+
+    /**
+     * @param table COMMENT or BUS
+     * @param userId The user id
+     * @param entityId The comment or bus id
+     * @param persisted Whether the database has the upvote
+     * @return Whether the user has upvoted the entity, including unwritten toggles
+     */
+    public boolean isUpvoted(UpvoteTable table, Long userId, Long entityId, boolean persisted) {
+        Boolean state = counter(table).pendingState(userId, entityId);
+        return state == null ? persisted : state;
+    }
+
+    /**
+     * Brings a set of upvoted ids loaded from the database up to date with unwritten toggles.
+     *
+     * @param table COMMENT or BUS
+     * @param userId The user id
+     * @param entityIds The ids that were looked up
+     * @param upvoted The upvoted ids among them; changed in place
+     */
+    public void applyPending(UpvoteTable table, Long userId, Collection<Long> entityIds, Set<Long> upvoted) {
+        VoteCounter counter = counter(table);
+        for (Long entityId : entityIds) {
+            Boolean state = counter.pendingState(userId, entityId);
+            if (Boolean.TRUE.equals(state)) {
+                upvoted.add(entityId);
+            } else if (Boolean.FALSE.equals(state)) {
+                upvoted.remove(entityId);
+            }
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${upvote.flush-interval-ms:500}")
+    public void flush() {
+        counters.forEach((table, counter) -> {
+            try {
+                counter.flush();
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to write {} upvotes, retrying later", table, e);
+            }
+        });
+    }
+
+    private VoteCounter counter(UpvoteTable table) {
+        VoteCounter counter = counters.get(table);
+        if (counter == null) {
+            throw new IllegalArgumentException("Upvotes of " + table + " are not counted here");
+        }
+        return counter;
+    }
+
+    private static List<Map.Entry<Long, Long>> pairs(List<VoteCounter.Vote> votes) {
+        return votes.stream().map(vote -> Map.entry(vote.userId(), vote.entityId())).toList();
+    }
+}
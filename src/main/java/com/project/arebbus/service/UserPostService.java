@@ -1,6 +1,8 @@
 package com.project.arebbus.service;
 
+import com.project.arebbus.config.MetricsConfiguration;
 import com.project.arebbus.dto.*;
+import com.project.arebbus.exception.InvalidPageException;
 import com.project.arebbus.exception.PostNotFoundException;
 import com.project.arebbus.exception.UnauthorizedPostAccessException;
 import com.project.arebbus.model.Post;
@@ -8,22 +10,33 @@ import com.project.arebbus.model.PostTag;
 import com.project.arebbus.model.Tag;
 import com.project.arebbus.model.User;
 import com.project.arebbus.repositories.*;
+import com.project.arebbus.utils.PostCursor;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.simple.SimpleLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class UserPostService {
 
     /** Repository for  data access */
@@ -38,9 +51,33 @@ public class UserPostService {
     private final UpvoteRepository upvoteRepository;
     /** Repository for  data access */
     private final CommentUpvoteRepository commentUpvoteRepository;
+    /** Builds feed entries for a page of posts */
+    private final PostFeedAssembler postFeedAssembler;
+    /** Upvote count changes not yet written to the posts */
+    private final PostUpvoteCounter postUpvoteCounter;
+    /** Comment upvotes not yet written */
+    private final UpvoteCounters upvoteCounters;
+    /** Full-text index of posts, their tags and comments */
+    private final PostSearchIndex postSearchIndex;
+
+    /** Largest page of posts a request may ask for */
+    @Value("${post.page.max-size:100}")
+    private int maxPageSize;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserPostService.class);
 
+    /**
+     * Backfills posts created before created_at existed and makes the column NOT NULL; the
+     * cursor feeds seek on created_at and never match a NULL.
+     */
+    @PostConstruct
+    public void requirePostCreationTimes() {
+        int backfilled = postRepository.backfillCreatedAt();
+        if (backfilled > 0) {
+            LOGGER.info("Backfilled the creation time of {} posts", backfilled);
+        }
+        postRepository.requireCreatedAt();
+    }
 
     /**
      * Creates a new .
@@ -49,6 +86,7 @@ public class UserPostService {
      * @param request The creation request
      * @return UserPostCreateResponse containing the created 
      */
+    @Transactional
     public UserPostCreateResponse createPost(User user, UserPostCreateRequest request) {
         String content = request.getContent();
         List<String> tagNames = request.getTags();
@@ -81,6 +119,8 @@ public class UserPostService {
             postTagRepository.save(postTag);
             savedTagNames.add(tagName);
         }
+        TransactionCallbacks.afterCommit(
+                () -> postSearchIndex.addPost(savedPost.getId(), savedPost.getContent(), savedTagNames));
 
         return UserPostCreateResponse.builder()
                 .postId(savedPost.getId())
@@ -99,6 +139,7 @@ public class UserPostService {
      * @param request The deletion request
      * @return UserPostDeleteResponse containing deletion status
      */
+    @Transactional
     public UserPostDeleteResponse deletePost(User user, UserPostDeleteRequest request) {
         Long postId = request.getPostId();
         Post post = postRepository.findById(postId)
@@ -110,6 +151,7 @@ public class UserPostService {
 
         postTagRepository.deleteAll(postTagRepository.findByPost(post));
         postRepository.delete(post);
+        TransactionCallbacks.afterCommit(() -> postSearchIndex.removePost(postId));
 
         return UserPostDeleteResponse.builder()
                 .postId(postId)
@@ -126,26 +168,16 @@ public class UserPostService {
      * @param size The page size
      * @return PagedPostResponse containing  and pagination info
      */
+    @Transactional(readOnly = true)
     public PagedPostResponse getAllPostsPage(User user, int page, int size) {
+        requirePage(page, size);
         Sort sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
         Page<Post> posts = postRepository.findAll(PageRequest.of(page, size, sort));
 
         LOGGER.debug("Total posts found: {}", posts.getTotalElements());
 
 
-        List<PostSummaryResponse> postSummaries = posts.getContent().stream().map(
-                post -> PostSummaryResponse.builder()
-                        .postId(post.getId())
-                        .authorName(post.getAuthor().getName())
-                        .content(post.getContent())
-                        .numUpvote(post.getNumUpvote())
-                        .createdAt(post.getCreatedAt())
-                        .tags(tagRepository.findTagsByPostId(post.getId()).stream()
-                                .map(Tag::getName)
-                                .toList())
-                        .upvoted(upvoteRepository.existsByUserIdAndPostId(user.getId(), post.getId()))
-                        .build()
-        ).toList();
+        List<PostSummaryResponse> postSummaries = postFeedAssembler.assemble(posts.getContent(), user);
 
 
         return PagedPostResponse.builder()
@@ -164,6 +196,7 @@ public class UserPostService {
      * @param user The user requesting the 
      * @return PostResponse containing  details
      */
+    @Transactional(readOnly = true)
     public PostResponse getPostById(User user, Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new PostNotFoundException(postId));
@@ -172,7 +205,7 @@ public class UserPostService {
                 .postId(post.getId())
                 .authorName(post.getAuthor().getName())
                 .content(post.getContent())
-                .numUpvote(post.getNumUpvote())
+                .numUpvote(post.getNumUpvote() + postUpvoteCounter.pending(post.getId()))
                 .createdAt(post.getCreatedAt())
                 .tags(tagRepository.findTagsByPostId(postId).stream()
                         .map(Tag::getName)
@@ -184,8 +217,9 @@ public class UserPostService {
                                 .authorName(comment.getAuthor().getName())
                                 .postId(postId)
                                 .createdAt(comment.getCreatedAt())
-                                .numUpvote(comment.getNumUpvote())
-                                .upvoted(commentUpvoteRepository.existsByUserIdAndCommentId(user.getId(), comment.getId()))
+                                .numUpvote(comment.getNumUpvote() + upvoteCounters.pending(UpvoteTable.COMMENT, comment.getId()))
+                                .upvoted(upvoteCounters.isUpvoted(UpvoteTable.COMMENT, user.getId(), comment.getId(),
+                                        commentUpvoteRepository.existsByUserIdAndCommentId(user.getId(), comment.getId())))
                                 .build()
                 ).toList())
                 .upvoted(upvoteRepository.existsByUserIdAndPostId(user.getId(), postId))
@@ -193,25 +227,15 @@ public class UserPostService {
     }
 
 
+    @Transactional(readOnly = true)
     public PagedPostResponse getMyPostsPage(User user, int page, int size) {
+        requirePage(page, size);
         Sort sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
         Page<Post> posts = postRepository.findByAuthor(user, PageRequest.of(page, size, sort));
 
         LOGGER.debug("Total posts found for user {}: {}", user.getId(), posts.getTotalElements());
 
-        List<PostSummaryResponse> postSummaries = posts.getContent().stream().map(
-                post -> PostSummaryResponse.builder()
-                        .postId(post.getId())
-                        .authorName(post.getAuthor().getName())
-                        .content(post.getContent())
-                        .numUpvote(post.getNumUpvote())
-                        .createdAt(post.getCreatedAt())
-                        .tags(tagRepository.findTagsByPostId(post.getId()).stream()
-                                .map(Tag::getName)
-                                .toList())
-                        .upvoted(upvoteRepository.existsByUserIdAndPostId(user.getId(), post.getId()))
-                        .build()
-        ).toList();
+        List<PostSummaryResponse> postSummaries = postFeedAssembler.assemble(posts.getContent(), user);
 
         return PagedPostResponse.builder()
                 .posts(postSummaries)
@@ -222,23 +246,13 @@ public class UserPostService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public PagedPostResponse getPostsByTags(User user, List<String> tagNames, int page, int size) {
+        requirePage(page, size);
         Sort sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
         Page<Post> posts = postRepository.findByTagNames(tagNames, PageRequest.of(page, size, sort));
 
-        List<PostSummaryResponse> postSummaries = posts.getContent().stream().map(
-                post -> PostSummaryResponse.builder()
-                        .postId(post.getId())
-                        .authorName(post.getAuthor().getName())
-                        .content(post.getContent())
-                        .numUpvote(post.getNumUpvote())
-                        .createdAt(post.getCreatedAt())
-                        .tags(tagRepository.findTagsByPostId(post.getId()).stream()
-                                .map(Tag::getName)
-                                .toList())
-                        .upvoted(upvoteRepository.existsByUserIdAndPostId(user.getId(), post.getId()))
-                        .build()
-        ).toList();
+        List<PostSummaryResponse> postSummaries = postFeedAssembler.assemble(posts.getContent(), user);
 
         return PagedPostResponse.builder()
                 .posts(postSummaries)
@@ -249,6 +263,121 @@ public class UserPostService {
                 .build();
     }
 
+    /**
+     * Retrieves the page of the feed after a cursor, newest first, without counting all posts.
+     * 
+     * @param user The user requesting posts
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param size The page size
+     * @return CursorPostResponse containing posts and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPostResponse getAllPostsFeed(User user, String cursor, int size) {
+        requirePage(0, size);
+        PostCursor after = PostCursor.decode(cursor);
+        return buildCursorResponse(
+                postRepository.findFeedAfter(after.createdAt(), after.id(), Limit.of(size + 1)), user, size);
+    }
+
+    /**
+     * Retrieves the page of the user's own posts after a cursor, newest first.
+     * 
+     * @param user The user requesting posts
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param size The page size
+     * @return CursorPostResponse containing posts and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPostResponse getMyPostsFeed(User user, String cursor, int size) {
+        requirePage(0, size);
+        PostCursor after = PostCursor.decode(cursor);
+        return buildCursorResponse(
+                postRepository.findFeedByAuthorAfter(user, after.createdAt(), after.id(), Limit.of(size + 1)),
+                user, size);
+    }
+
+    /**
+     * Retrieves the page of posts tagged with any of tagNames after a cursor, newest first.
+     * 
+     * @param user The user requesting posts
+     * @param tagNames The tag names to match
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param size The page size
+     * @return CursorPostResponse containing posts and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPostResponse getPostsByTagsFeed(User user, List<String> tagNames, String cursor, int size) {
+        requirePage(0, size);
+        PostCursor after = PostCursor.decode(cursor);
+        return buildCursorResponse(
+                postRepository.findFeedByTagNamesAfter(tagNames, after.createdAt(), after.id(), Limit.of(size + 1)),
+                user, size);
+    }
+
+    /**
+     * Searches posts by the words of their content, tags and comments, best match first.
+     * 
+     * @param user The user requesting posts
+     * @param query The words to search for
+     * @param page The page number
+     * @param size The page size
+     * @return PagedPostResponse containing the matching posts and pagination info
+     */
+    @Transactional(readOnly = true)
+    public PagedPostResponse searchPosts(User user, String query, int page, int size) {
+        requirePage(page, size);
+        PageRequest pageRequest = PageRequest.of(page, size);
+        PostSearchIndex.Hits hits = postSearchIndex.search(query, page, size);
+
+        // Posts deleted through another instance are still in this one's index; skip them and
+        // leave them out of the total
+        Map<Long, Post> postsById = new HashMap<>();
+        postRepository.findByIdIn(hits.postIds()).forEach(post -> postsById.put(post.getId(), post));
+        List<Post> posts = hits.postIds().stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        long total = hits.total() - (hits.postIds().size() - posts.size());
+        Page<Post> result = new PageImpl<>(posts, pageRequest, total);
+
+        return PagedPostResponse.builder()
+                .posts(postFeedAssembler.assemble(posts, user))
+                .page(result.getNumber())
+                .size(result.getSize())
+                .totalPages(result.getTotalPages())
+                .totalElements(result.getTotalElements())
+                .build();
+    }
+
+    /**
+     * Rejects pages that cannot be built or would load an unbounded number of posts.
+     */
+    private void requirePage(int page, int size) {
+        if (page < 0) {
+            throw new InvalidPageException("Page must not be negative, got " + page);
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidPageException("Page size must be between 1 and " + maxPageSize + ", got " + size);
+        }
+    }
+
+    /**
+     * Builds a CursorPostResponse from up to size + 1 posts; the extra post only signals that
+     * another page exists.
+     */
+    private CursorPostResponse buildCursorResponse(List<Post> posts, User user, int size) {
+        boolean hasNext = posts.size() > size;
+        List<Post> page = posts.size() > size ? posts.subList(0, size) : posts;
+
+        return CursorPostResponse.builder()
+                .posts(postFeedAssembler.assemble(page, user))
+                .size(page.size())
+                .nextCursor(hasNext ? PostCursor.after(page.get(page.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public List<String> getAllTags() {
         return tagRepository.findAll().stream()
                 .map(Tag::getName)
@@ -0,0 +1,192 @@
+package com.project.arebbus.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Upvote toggles of one kind of entity, deduplicated per (user, entity) and written in batches.
+ * Only the state a user ends up in within a flush window is kept, so a user toggling the same
+ * entity repeatedly costs at most one row change and count update per flush. The store is
+ * asked for the persisted state of a vote when it is first toggled in a window, before the
+ * vote's map entry is locked; a vote being written by a flush counts as persisted in the state
+ * it is being written as.
+ */
+public class VoteCounter {
+
+    /**
+     * Persistent side of a counter.
+     */
+    public interface Store {
+        /**
+         * @return true if the vote is persisted
+         */
+        boolean exists(Long userId, Long entityId);
+
+        /**
+         * Persists the votes and adjusts the entity counts accordingly in one transaction.
+         *
+         * @param added Votes to insert
+         * @param removed Votes to delete
+         */
+        void apply(List<Vote> added, List<Vote> removed);
+    }
+
+    /**
+     * A user's upvote of an entity.
+     */
+    public record Vote(Long userId, Long entityId) {
+    }
+
+    private static final class Pending {
+        private final boolean persisted;
+        /** Only changed inside a compute of {@link #pending} */
+        private boolean upvoted;
+
+        private Pending(boolean persisted, boolean upvoted) {
+            this.persisted = persisted;
+            this.upvoted = upvoted;
+        }
+
+        private long delta() {
+            return (upvoted ? 1 : 0) - (persisted ? 1 : 0);
+        }
+    }
+
+    private final Store store;
+
+    private final Map<Vote, Pending> pending = new ConcurrentHashMap<>();
+    /** Votes of the running flush, until they are committed */
+    private final Map<Vote, Pending> inflight = new ConcurrentHashMap<>();
+    /** Count change per entity of all pending and inflight votes; zero entries are removed */
+    private final Map<Long, Long> deltas = new ConcurrentHashMap<>();
+    /** Flushes committed so far; a persisted state read before one may be stale */
+    private final AtomicLong completedFlushes = new AtomicLong();
+
+    /**
+     * @param store Persists the votes
+     */
+    public VoteCounter(Store store) {
+        this.store = store;
+    }
+
+    /**
+     * Toggles a user's upvote of an entity.
+     *
+     * @param userId The user id
+     * @param entityId The entity id
+     * @return true if the entity is upvoted afterwards
+     */
+    public boolean toggle(Long userId, Long entityId) {
+        Vote key = new Vote(userId, entityId);
+        boolean[] upvoted = new boolean[1];
+        while (true) {
+            // The store is asked outside compute, which must not block the map's bin on I/O
+            long flushes = completedFlushes.get();
+            Boolean persisted = pending.containsKey(key) || inflight.containsKey(key)
+                    ? null
+                    : store.exists(userId, entityId);
+            Pending state = pending.compute(key, (vote, current) -> {
+                if (current == null) {
+                    Pending writing = inflight.get(vote);
+                    if (writing != null) {
+                        current = new Pending(writing.upvoted, writing.upvoted);
+                    } else if (persisted != null && completedFlushes.get() == flushes) {
+                        current = new Pending(persisted, persisted);
+                    } else {
+                        // The vote was written since the store was asked; ask again
+                        return null;
+                    }
+                }
+                current.upvoted = !current.upvoted;
+                upvoted[0] = current.upvoted;
+                addDelta(entityId, current.upvoted ? 1 : -1);
+                return current;
+            });
+            if (state != null) {
+                return upvoted[0];
+            }
+        }
+    }
+
+    /**
+     * @param userId The user id
+     * @param entityId The entity id
+     * @return The upvote state not yet committed, or null if there is none
+     */
+    public Boolean pendingState(Long userId, Long entityId) {
+        Vote vote = new Vote(userId, entityId);
+        Pending state = pending.get(vote);
+        if (state == null) {
+            state = inflight.get(vote);
+        }
+        return state == null ? null : state.upvoted;
+    }
+
+    /**
+     * @param entityId The entity id
+     * @return The change of the entity's count not yet committed
+     */
+    public long pending(Long entityId) {
+        return deltas.getOrDefault(entityId, 0L);
+    }
+
+    /**
+     * Writes the net result of every pending vote. On failure the votes stay pending and the
+     * exception is rethrown.
+     */
+    public synchronized void flush() {
+        List<Map.Entry<Vote, Pending>> batch = new ArrayList<>();
+        for (Vote vote : pending.keySet()) {
+            Pending state = pending.get(vote);
+            // Publish before removing so a concurrent toggle never sees neither
+            inflight.put(vote, state);
+            pending.remove(vote, state);
+            batch.add(Map.entry(vote, state));
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Vote> added = new ArrayList<>();
+        List<Vote> removed = new ArrayList<>();
+        for (Map.Entry<Vote, Pending> entry : batch) {
+            Pending state = entry.getValue();
+            if (state.upvoted && !state.persisted) {
+                added.add(entry.getKey());
+            } else if (!state.upvoted && state.persisted) {
+                removed.add(entry.getKey());
+            }
+        }
+
+        try {
+            if (!added.isEmpty() || !removed.isEmpty()) {
+                store.apply(added, removed);
+            }
+        } catch (RuntimeException e) {
+            for (Map.Entry<Vote, Pending> entry : batch) {
+                Pending failed = entry.getValue();
+                // A toggle since then started from the state that was not written
+                pending.compute(entry.getKey(), (vote, current) ->
+                        current == null ? failed : new Pending(failed.persisted, current.upvoted));
+                inflight.remove(entry.getKey(), failed);
+            }
+            throw e;
+        }
+        // Counted before the votes leave inflight, so a toggle that finds neither the vote nor a
+        // new flush count cannot keep a persisted state read before the commit
+        completedFlushes.incrementAndGet();
+        for (Map.Entry<Vote, Pending> entry : batch) {
+            inflight.remove(entry.getKey(), entry.getValue());
+            addDelta(entry.getKey().entityId(), -entry.getValue().delta());
+        }
+    }
+
+    private void addDelta(Long entityId, long delta) {
+        if (delta != 0) {
+            deltas.merge(entityId, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
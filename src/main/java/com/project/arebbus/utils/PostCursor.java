@@ -0,0 +1,59 @@
+package com.project.arebbus.utils;
+
+import com.project.arebbus.exception.InvalidCursorException;
+import com.project.arebbus.model.Post;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in a post feed ordered by (createdAt DESC, id DESC).
+ * Clients receive it as an opaque URL-safe string and send it back unchanged to get the next page.
+ * The timestamp keeps its full precision so the seek predicate never skips posts created in the
+ * same millisecond.
+ */
+public record PostCursor(Timestamp createdAt, Long id) {
+
+    /** Cursor placed before the newest possible post, used for the first page */
+    public static final PostCursor FIRST = new PostCursor(Timestamp.from(Instant.parse("9999-12-31T23:59:59Z")), Long.MAX_VALUE);
+
+    public static PostCursor after(Post post) {
+        Date createdAt = post.getCreatedAt();
+        Timestamp timestamp = createdAt instanceof Timestamp ts ? ts : new Timestamp(createdAt.getTime());
+        return new PostCursor(timestamp, post.getId());
+    }
+
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from a client.
+     *
+     * @param cursor The encoded cursor, or null/blank for the first page
+     * @return The decoded cursor
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encode()}
+     */
+    public static PostCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new InvalidCursorException(cursor);
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new PostCursor(Timestamp.from(instant), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -176,9 +176,12 @@ CREATE TABLE public.post (
 	"content" varchar(255) NOT NULL,
 	num_upvote int8 NOT NULL,
 	author_id int8 NOT NULL,
+	created_at timestamp(6) NOT NULL,
 	CONSTRAINT post_pkey PRIMARY KEY (id),
 	CONSTRAINT fk1mpebp1ayl0twrwm7ruiof778 FOREIGN KEY (author_id) REFERENCES public.users(id)
 );
+CREATE INDEX idx_post_created_at_id ON public.post USING btree (created_at DESC, id DESC);
+CREATE INDEX idx_post_author_created_at_id ON public.post USING btree (author_id, created_at DESC, id DESC);
 
 
 -- public.post_tag definition
@@ -331,6 +334,8 @@ CREATE TABLE public."location" (
 	CONSTRAINT fk55by463ivfy1u1qfylnjswyje FOREIGN KEY (user_id) REFERENCES public.users(id),
 	CONSTRAINT fkg69gi3ppfewy568qfaxg5vn42 FOREIGN KEY (bus_id) REFERENCES public.bus(id)
 );
+CREATE INDEX idx_location_user_time ON public."location" USING btree (user_id, "time" DESC);
+CREATE INDEX idx_location_bus_status_time ON public."location" USING btree (bus_id, status, "time" DESC);
 
 
 -- public.route_stop definition
@@ -363,3 +368,23 @@ CREATE TABLE public.waiting_for (
 	CONSTRAINT fk4qd9xrhqhjxwslrxbfqfefqab FOREIGN KEY (user_id) REFERENCES public.users(id),
 	CONSTRAINT fkk0bh73kk3ah53je814oak4b0u FOREIGN KEY (bus_id) REFERENCES public.bus(id)
 );
+
+
+-- public.location_history definition
+-- Created by LocationHistoryRepository at startup; daily partitions (location_history_pYYYYMMDD)
+-- are created ahead of time and dropped after the retention window.
+
+-- Drop table
+
+-- DROP TABLE public.location_history;
+
+CREATE TABLE public.location_history (
+	bus_id int8 NOT NULL,
+	user_id int8 NOT NULL,
+	latitude numeric(9, 6) NOT NULL,
+	longitude numeric(9, 6) NOT NULL,
+	"time" timestamp NOT NULL,
+	status varchar(16) NOT NULL
+) PARTITION BY RANGE ("time");
+CREATE INDEX idx_location_history_bus_time ON public.location_history USING btree (bus_id, "time");
+CREATE INDEX idx_location_history_user_time ON public.location_history USING btree (user_id, "time");
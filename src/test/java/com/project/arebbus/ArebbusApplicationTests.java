@@ -1,20 +1,66 @@
 package com.project.arebbus;
 
+import com.project.arebbus.service.RouteService;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 
-@SpringBootTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
 @TestPropertySource(properties = {
+    "management.server.port=0",
     "spring.datasource.url=jdbc:h2:mem:testdb",
     "spring.datasource.driver-class-name=org.h2.Driver",
     "spring.jpa.hibernate.ddl-auto=create-drop",
     "FRONTEND_URL=http://localhost:3000",
-    "SECRET_KEY=test-secret-key-for-testing-only"
+    "SECRET_KEY=dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW9ubHktMDEyMzQ1Njc4OQ=="
 })
 class ArebbusApplicationTests {
 
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private RouteService routeService;
+
     @Test
     void contextLoads() {}
 
+    @Test
+    void testPrometheusEndpointExposesServiceTimersAndPoolGauges() throws Exception {
+        routeService.getAllRoutes(0, 10);
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        Assertions.assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(scrape.getBody())
+                .contains("arebbus_service_seconds_bucket{application=\"arebbus\","
+                        + "class=\"com.project.arebbus.service.RouteService\"")
+                .contains("spring_data_repository_invocations_seconds_bucket")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_query_executions_total");
+    }
+
+    @Test
+    void testPrometheusEndpointIsNotServedAnonymouslyOnApiPort() {
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + port + "/actuator/prometheus", String.class);
+
+        Assertions.assertThat(scrape.getStatusCode()).isIn(HttpStatus.UNAUTHORIZED, HttpStatus.FORBIDDEN);
+    }
 }
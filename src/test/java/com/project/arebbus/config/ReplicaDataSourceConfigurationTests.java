@@ -0,0 +1,215 @@
+package com.project.arebbus.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.arebbus.dto.CommentRequest;
+import com.project.arebbus.dto.PostSummaryResponse;
+import com.project.arebbus.dto.UserPostCreateRequest;
+import com.project.arebbus.model.Comment;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.CommentRepository;
+import com.project.arebbus.repositories.PostRepository;
+import com.project.arebbus.repositories.UpvoteCountRepository;
+import com.project.arebbus.repositories.UpvoteTable;
+import com.project.arebbus.repositories.UserRepository;
+import com.project.arebbus.service.UserPostService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "datasource.replica.urls=" + ReplicaDataSourceConfigurationTests.REPLICA_URL,
+    "FRONTEND_URL=http://localhost:3000",
+    "SECRET_KEY=dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW9ubHktMDEyMzQ1Njc4OQ=="
+})
+class ReplicaDataSourceConfigurationTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-copy;DB_CLOSE_DELAY=-1";
+
+    /** The databases outlive a test, so every test writes rows of its own */
+    private static final AtomicInteger RUN = new AtomicInteger();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPostService userPostService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UpvoteCountRepository upvoteCountRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    private Path snapshotDirectory;
+
+    private User writer;
+    private User reader;
+    private String content;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        int run = RUN.incrementAndGet();
+        writer = userRepository.save(user("writer" + run + "@example.com"));
+        reader = userRepository.save(user("reader" + run + "@example.com"));
+        content = "Bus " + run + " is running late";
+
+        // The replica is a snapshot of the primary taken before the post below, i.e. it lags
+        copyPrimaryToReplica();
+
+        signIn(writer);
+        UserPostCreateRequest request = new UserPostCreateRequest();
+        request.setContent(content);
+        request.setTags(List.of());
+        postId = userPostService.createPost(writer, request).getPostId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDataSourceRoutesThroughLazyProxy() {
+        Assertions.assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+    }
+
+    @Test
+    void testRequestReadsComeFromReplicaExceptForRecentWriter() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        signIn(reader);
+        Assertions.assertThat(contents(reader)).doesNotContain(content);
+
+        signIn(writer);
+        Assertions.assertThat(contents(writer)).contains(content);
+    }
+
+    @Test
+    void testReadsOutsideRequestsComeFromPrimary() {
+        // Drop the mock request the test context binds to every test method
+        RequestContextHolder.resetRequestAttributes();
+
+        signIn(reader);
+        Assertions.assertThat(contents(reader)).contains(content);
+    }
+
+    @Test
+    void testWritesAfterReadInOneRequestGoToPrimary() throws Exception {
+        copyPrimaryToReplica();
+        CommentRequest request = new CommentRequest();
+        request.setPostId(postId);
+        request.setContent("Still waiting " + content);
+
+        // The post is looked up read-only first, which the reader may do on the replica
+        mockMvc.perform(post("/comment")
+                        .with(csrf())
+                        .with(SecurityMockMvcRequestPostProcessors.user(reader))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        Assertions.assertThat(new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT COUNT(*) FROM Comment WHERE content = ?", Integer.class, request.getContent()))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testUpvoteStateIsReadFromPrimary() {
+        Comment comment = commentRepository.save(Comment.builder()
+                .content("Comment on " + content)
+                .author(writer)
+                .post(postRepository.findById(postId).orElseThrow())
+                .numUpvote(0L)
+                .build());
+        new JdbcTemplate(primaryDataSource).update(
+                "INSERT INTO comment_upvotes (user_id, comment_id, created_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                reader.getId(), comment.getId());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        signIn(reader);
+
+        Assertions.assertThat(upvoteCountRepository.hasUpvote(UpvoteTable.COMMENT, reader.getId(), comment.getId()))
+                .isTrue();
+    }
+
+    private void copyPrimaryToReplica() {
+        String snapshot = snapshotDirectory.resolve("snapshot.sql").toString();
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + snapshot + "'");
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL));
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + snapshot + "'");
+    }
+
+    private List<String> contents(User user) {
+        return userPostService.getAllPostsPage(user, 0, 10).getPosts().stream()
+                .map(PostSummaryResponse::getContent)
+                .toList();
+    }
+
+    private static void signIn(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .email(email)
+                .name(email.substring(0, email.indexOf('@')))
+                .password("testpass")
+                .reputation(0)
+                .image("https://picsum.photos/seed/example/300/200")
+                .valid(true)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.arebbus.config;
+
+import com.project.arebbus.model.User;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTests {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+            mock(DataSource.class), List.of(mock(DataSource.class), mock(DataSource.class)), 5_000, 2, now::get);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReadOnlyRequestTransactionsAlternateBetweenReplicas() {
+        inRequest();
+        transaction(true);
+
+        Assertions.assertThat(List.of(
+                dataSource.determineCurrentLookupKey(),
+                dataSource.determineCurrentLookupKey(),
+                dataSource.determineCurrentLookupKey()))
+                .containsExactly("replica-0", "replica-1", "replica-0");
+    }
+
+    @Test
+    void testWritesAndWorkOutsideRequestsUsePrimary() {
+        transaction(true);
+        Assertions.assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        inRequest();
+        transaction(false);
+        Assertions.assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void testWriterReadsFromPrimaryUntilWindowEnds() {
+        inRequest();
+        signIn(7L);
+        transaction(false);
+        dataSource.determineCurrentLookupKey();
+
+        transaction(true);
+        now.addAndGet(4_999);
+        Assertions.assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        now.addAndGet(1);
+        Assertions.assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+
+        signIn(8L);
+        Assertions.assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+    }
+
+    @Test
+    void testAutoCommitStatementsDoNotPinWriter() {
+        inRequest();
+        signIn(7L);
+        dataSource.determineCurrentLookupKey();
+
+        transaction(true);
+        Assertions.assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    private void transaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void inRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private static void signIn(Long userId) {
+        User user = User.builder().id(userId).email("user" + userId + "@example.com").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.arebbus.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SemaphoreDataSourceTests {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final SemaphoreDataSource dataSource = new SemaphoreDataSource(pool, 2, 50);
+
+    @Test
+    void testCallersBeyondLimitTimeOutUntilConnectionIsClosed() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        Assertions.assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        verify(pooled, times(2)).close();
+        Assertions.assertThat(dataSource.availablePermits()).isEqualTo(1);
+        Assertions.assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void testFailedBorrowGivesPermitBack() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        Assertions.assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        Assertions.assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void testCallsOtherThanCloseReachPooledConnection() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        when(pooled.getAutoCommit()).thenReturn(false);
+
+        Connection connection = dataSource.getConnection();
+
+        Assertions.assertThat(connection.getAutoCommit()).isFalse();
+        Assertions.assertThat(connection).isEqualTo(connection);
+        Assertions.assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.arebbus.config;
+
+import com.project.arebbus.service.RouteService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.threads.virtual.enabled=true",
+    "spring.datasource.url=jdbc:h2:mem:virtual-threads",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "FRONTEND_URL=http://localhost:3000",
+    "SECRET_KEY=dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW9ubHktMDEyMzQ1Njc4OQ=="
+})
+class VirtualThreadConfigurationTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Test
+    void testJdbcIsGatedBySemaphoreSizedToPool() {
+        Assertions.assertThat(dataSource).isInstanceOf(SemaphoreDataSource.class);
+        Assertions.assertThat(((SemaphoreDataSource) dataSource).availablePermits()).isEqualTo(5);
+
+        Assertions.assertThat(routeService.getAllRoutes(0, 10).getRoutes()).isEmpty();
+        Assertions.assertThat(((SemaphoreDataSource) dataSource).availablePermits()).isEqualTo(5);
+    }
+}
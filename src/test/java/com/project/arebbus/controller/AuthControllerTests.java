@@ -3,8 +3,10 @@ package com.project.arebbus.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.arebbus.dto.AuthResponse;
 import com.project.arebbus.dto.UserRegistrationRequest;
+import com.project.arebbus.security.JwtPrincipalCache;
 import com.project.arebbus.service.AuthService;
 import com.project.arebbus.service.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -32,6 +34,12 @@ class AuthControllerTests {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private JwtPrincipalCache jwtPrincipalCache;
+
+    @MockBean
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private ObjectMapper objectMapper;
 
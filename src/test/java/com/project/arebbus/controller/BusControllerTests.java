@@ -9,7 +9,9 @@ import com.project.arebbus.dto.PagedBusResponse;
 import com.project.arebbus.exception.BusNotFoundException;
 import com.project.arebbus.model.User;
 import com.project.arebbus.service.BusService;
+import com.project.arebbus.security.JwtPrincipalCache;
 import com.project.arebbus.service.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -43,6 +45,12 @@ class BusControllerTests {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private JwtPrincipalCache jwtPrincipalCache;
+
+    @MockBean
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private UserDetailsService userDetailsService;
 
@@ -1,14 +1,18 @@
 package com.project.arebbus.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.arebbus.dto.JourneyPlanResponse;
+import com.project.arebbus.dto.JourneyResponse;
 import com.project.arebbus.dto.PagedRouteResponse;
 import com.project.arebbus.dto.RouteCreateRequest;
 import com.project.arebbus.dto.RouteResponse;
 import com.project.arebbus.dto.StopResponse;
 import com.project.arebbus.exception.RouteNotFoundException;
 import com.project.arebbus.model.User;
+import com.project.arebbus.security.JwtPrincipalCache;
 import com.project.arebbus.service.JwtService;
 import com.project.arebbus.service.RouteService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -42,6 +46,12 @@ class RouteControllerTests {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private JwtPrincipalCache jwtPrincipalCache;
+
+    @MockBean
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private UserDetailsService userDetailsService;
 
@@ -287,4 +297,27 @@ class RouteControllerTests {
                 .andExpect(jsonPath("$.stops").isArray())
                 .andExpect(jsonPath("$.stops").value(org.hamcrest.Matchers.hasSize(0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void testPlanJourney() throws Exception {
+        JourneyPlanResponse response = JourneyPlanResponse.builder()
+                .fromStopId(1L)
+                .toStopId(2L)
+                .journeys(List.of(JourneyResponse.builder()
+                        .transfers(0)
+                        .distanceKm(new BigDecimal("1.250"))
+                        .legs(List.of())
+                        .build()))
+                .build();
+
+        when(routeService.planJourney(1L, 2L, 2)).thenReturn(response);
+
+        mockMvc.perform(get("/route/plan")
+                        .param("fromStopId", "1")
+                        .param("toStopId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.journeys[0].transfers").value(0))
+                .andExpect(jsonPath("$.journeys[0].distanceKm").value(1.25));
+    }
+}
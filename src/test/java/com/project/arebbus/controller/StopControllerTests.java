@@ -2,12 +2,16 @@ package com.project.arebbus.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.arebbus.dto.PagedStopResponse;
+import com.project.arebbus.dto.StopArrivalResponse;
+import com.project.arebbus.dto.StopArrivalsResponse;
 import com.project.arebbus.dto.StopCreateRequest;
 import com.project.arebbus.dto.StopResponse;
 import com.project.arebbus.exception.StopNotFoundException;
 import com.project.arebbus.model.User;
+import com.project.arebbus.security.JwtPrincipalCache;
 import com.project.arebbus.service.JwtService;
 import com.project.arebbus.service.StopService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -41,6 +45,12 @@ class StopControllerTests {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private JwtPrincipalCache jwtPrincipalCache;
+
+    @MockBean
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private UserDetailsService userDetailsService;
 
@@ -108,6 +118,27 @@ class StopControllerTests {
                 .andExpect(jsonPath("$.authorName").value("testUser"));
     }
 
+    @Test
+    @WithMockUser
+    void testGetArrivals() throws Exception {
+        StopArrivalsResponse response = StopArrivalsResponse.builder()
+                .stopId(1L)
+                .stopName("Test Stop")
+                .arrivals(List.of(StopArrivalResponse.builder()
+                        .busId(2L)
+                        .busName("Test Bus")
+                        .etaSeconds(120L)
+                        .build()))
+                .build();
+
+        when(stopService.getArrivals(1L)).thenReturn(response);
+
+        mockMvc.perform(get("/stop/1/arrivals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.arrivals[0].busName").value("Test Bus"))
+                .andExpect(jsonPath("$.arrivals[0].etaSeconds").value(120));
+    }
+
     @Test
     @WithMockUser
     void testGetStopByIdNotFound() throws Exception {
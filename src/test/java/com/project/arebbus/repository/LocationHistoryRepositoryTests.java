@@ -0,0 +1,91 @@
+package com.project.arebbus.repository;
+
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.repositories.LocationHistoryRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(LocationHistoryRepository.class)
+class LocationHistoryRepositoryTests {
+    @Autowired
+    private LocationHistoryRepository locationHistoryRepository;
+
+    private final LocalDateTime start = LocalDate.of(2025, 1, 10).atStartOfDay();
+
+    @BeforeEach
+    void setUp() {
+        locationHistoryRepository.createSchema();
+    }
+
+    @Test
+    void testStreamByBusReturnsRangeInTimeOrder() {
+        locationHistoryRepository.insertAll(List.of(
+                point(1L, 1L, start.plusMinutes(2)),
+                point(1L, 2L, start.plusMinutes(1)),
+                point(2L, 3L, start.plusMinutes(1)),
+                point(1L, 1L, start.plusHours(2))));
+
+        List<Location> points = new ArrayList<>();
+        locationHistoryRepository.streamByBus(1L, start, start.plusHours(1), points::add);
+
+        Assertions.assertThat(points).extracting(Location::getUserId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testDownsampleKeepsFirstPointPerUserAndBucket() {
+        List<Location> points = new ArrayList<>();
+        for (int second = 0; second < 90; second += 5) {
+            points.add(point(1L, 1L, start.plusSeconds(second)));
+            points.add(point(1L, 2L, start.plusSeconds(second)));
+        }
+        locationHistoryRepository.insertAll(points);
+
+        int deleted = locationHistoryRepository.downsample(start, start.plusDays(1), 30);
+
+        List<Location> kept = new ArrayList<>();
+        locationHistoryRepository.streamByBus(1L, start, start.plusDays(1), kept::add);
+        Assertions.assertThat(deleted).isEqualTo(30);
+        Assertions.assertThat(kept).hasSize(6);
+        Assertions.assertThat(kept).extracting(Location::getTime)
+                .containsOnly(start, start.plusSeconds(30), start.plusSeconds(60));
+    }
+
+    @Test
+    void testDropBeforeRemovesOldDays() {
+        locationHistoryRepository.insertAll(List.of(
+                point(1L, 1L, start.minusDays(1)),
+                point(1L, 1L, start)));
+
+        locationHistoryRepository.dropBefore(start.toLocalDate());
+
+        List<Location> kept = new ArrayList<>();
+        locationHistoryRepository.streamByBus(1L, start.minusDays(2), start.plusDays(1), kept::add);
+        Assertions.assertThat(kept).extracting(Location::getTime).containsExactly(start);
+    }
+
+    private Location point(Long busId, Long userId, LocalDateTime time) {
+        return Location.builder()
+                .busId(busId)
+                .userId(userId)
+                .latitude(new BigDecimal("23.750000"))
+                .longitude(new BigDecimal("90.390000"))
+                .time(time)
+                .status(LocationStatus.ON_BUS)
+                .build();
+    }
+}
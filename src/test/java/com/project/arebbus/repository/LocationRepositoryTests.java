@@ -0,0 +1,181 @@
+package com.project.arebbus.repository;
+
+import com.project.arebbus.model.Bus;
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.model.Route;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.BusRepository;
+import com.project.arebbus.repositories.LocationRepository;
+import com.project.arebbus.repositories.RouteRepository;
+import com.project.arebbus.repositories.UserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+class LocationRepositoryTests {
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private BusRepository busRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User testUser;
+    private Bus testBus;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(User.builder()
+                .email("test@gmail.com")
+                .name("testUser")
+                .password("testpass")
+                .reputation(0)
+                .image("https://picsum.photos/seed/example/300/200")
+                .valid(true)
+                .build());
+
+        Route route = routeRepository.save(Route.builder()
+                .name("Test Route")
+                .author(testUser)
+                .build());
+
+        testBus = busRepository.save(Bus.builder()
+                .name("Test Bus")
+                .author(testUser)
+                .route(route)
+                .capacity((short) 40)
+                .numInstall(0)
+                .numUpvote(0L)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void testUpsertAllInsertsThenUpdates() {
+        locationRepository.upsertAll(List.of(location("23.70", LocationStatus.WAITING)));
+        locationRepository.upsertAll(List.of(location("23.75", LocationStatus.ON_BUS)));
+        entityManager.clear();
+
+        List<Location> locations = locationRepository.findByBusId(testBus.getId());
+
+        Assertions.assertThat(locations).hasSize(1);
+        Assertions.assertThat(locations.get(0).getLatitude()).isEqualByComparingTo("23.75");
+        Assertions.assertThat(locations.get(0).getStatus()).isEqualTo(LocationStatus.ON_BUS);
+    }
+
+    @Test
+    void testUpsertAllKeepsNewerRow() {
+        Location newer = location("23.75", LocationStatus.ON_BUS);
+        Location older = location("23.70", LocationStatus.WAITING);
+        older.setTime(newer.getTime().minusSeconds(5));
+
+        locationRepository.upsertAll(List.of(newer));
+        locationRepository.upsertAll(List.of(older));
+        entityManager.clear();
+
+        List<Location> locations = locationRepository.findByBusId(testBus.getId());
+
+        Assertions.assertThat(locations).hasSize(1);
+        Assertions.assertThat(locations.get(0).getStatus()).isEqualTo(LocationStatus.ON_BUS);
+    }
+
+    @Test
+    void testCountLatestByBusAndStatusUsesLatestRowPerUser() {
+        Bus otherBus = busRepository.save(Bus.builder()
+                .name("Other Bus")
+                .author(testUser)
+                .route(testBus.getRoute())
+                .capacity((short) 40)
+                .numInstall(0)
+                .numUpvote(0L)
+                .build());
+        Location older = location("23.70", LocationStatus.ON_BUS);
+        older.setTime(LocalDateTime.now().minusMinutes(5));
+        Location newer = location("23.71", LocationStatus.WAITING);
+        newer.setBusId(otherBus.getId());
+        locationRepository.upsertAll(List.of(older, newer));
+
+        List<Object[]> counts = locationRepository.countLatestByBusAndStatus();
+
+        Assertions.assertThat(counts).hasSize(1);
+        Assertions.assertThat(counts.get(0)[0]).isEqualTo(otherBus.getId());
+        Assertions.assertThat(counts.get(0)[1]).isEqualTo(LocationStatus.WAITING);
+        Assertions.assertThat(((Number) counts.get(0)[2]).longValue()).isEqualTo(1L);
+    }
+
+    @Test
+    void testLatestLookupsPickNewestRowPerUser() {
+        Bus otherBus = busRepository.save(Bus.builder()
+                .name("Other Bus")
+                .author(testUser)
+                .route(testBus.getRoute())
+                .capacity((short) 40)
+                .numInstall(0)
+                .numUpvote(0L)
+                .build());
+        User rider = userRepository.save(User.builder()
+                .email("rider@gmail.com")
+                .name("rider")
+                .password("testpass")
+                .reputation(0)
+                .image("https://picsum.photos/seed/example/300/200")
+                .valid(true)
+                .build());
+        Location older = location("23.70", LocationStatus.WAITING);
+        older.setTime(LocalDateTime.now().minusMinutes(5));
+        Location newer = location("23.71", LocationStatus.ON_BUS);
+        newer.setBusId(otherBus.getId());
+        Location riderLocation = location("23.72", LocationStatus.ON_BUS);
+        riderLocation.setUserId(rider.getId());
+        riderLocation.setTime(LocalDateTime.now().minusMinutes(1));
+        locationRepository.upsertAll(List.of(older, newer, riderLocation));
+        entityManager.clear();
+
+        Assertions.assertThat(locationRepository.findFirstByUserIdOrderByTimeDesc(testUser.getId()))
+                .hasValueSatisfying(location -> Assertions.assertThat(location.getBusId()).isEqualTo(otherBus.getId()));
+        Assertions.assertThat(locationRepository.findLatestForEachUser())
+                .extracting(Location::getUserId, Location::getBusId)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(testUser.getId(), otherBus.getId()),
+                        Assertions.tuple(rider.getId(), testBus.getId()));
+        Assertions.assertThat(locationRepository.findLatestLocationForEachBus())
+                .extracting(Location::getBusId, Location::getUserId)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(testBus.getId(), rider.getId()),
+                        Assertions.tuple(otherBus.getId(), testUser.getId()));
+        Assertions.assertThat(locationRepository.findUsersCurrentlyOnBus(testBus))
+                .extracting(User::getId)
+                .containsExactly(rider.getId());
+    }
+
+    private Location location(String latitude, LocationStatus status) {
+        return Location.builder()
+                .busId(testBus.getId())
+                .userId(testUser.getId())
+                .latitude(new BigDecimal(latitude))
+                .longitude(new BigDecimal("90.39"))
+                .time(LocalDateTime.now())
+                .status(status)
+                .build();
+    }
+}
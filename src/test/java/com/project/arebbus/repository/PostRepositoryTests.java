@@ -0,0 +1,60 @@
+package com.project.arebbus.repository;
+
+import com.project.arebbus.model.Post;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.PostRepository;
+import com.project.arebbus.utils.PostCursor;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.annotation.DirtiesContext;
+
+// The DDL below commits on H2, so the database is not reused by other tests
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@DirtiesContext
+class PostRepositoryTests {
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testPostsWithoutCreationTimeAreBackfilledIntoTheFeed() {
+        User author = entityManager.persist(User.builder()
+                .email("author@gmail.com")
+                .name("author")
+                .password("testpass")
+                .reputation(0)
+                .image("https://picsum.photos/seed/example/300/200")
+                .valid(true)
+                .build());
+        entityManager.getEntityManager()
+                .createNativeQuery("ALTER TABLE post ALTER COLUMN created_at DROP NOT NULL")
+                .executeUpdate();
+        entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO post (content, num_upvote, author_id) VALUES ('Legacy', 0, ?)")
+                .setParameter(1, author.getId())
+                .executeUpdate();
+        Post dated = entityManager.persist(Post.builder().author(author).content("Dated").numUpvote(0L).build());
+        entityManager.flush();
+
+        Assertions.assertThat(postRepository.backfillCreatedAt()).isEqualTo(1);
+        postRepository.requireCreatedAt();
+        entityManager.clear();
+
+        PostCursor first = PostCursor.FIRST;
+        Assertions.assertThat(postRepository.findFeedAfter(first.createdAt(), first.id(), Limit.of(10)))
+                .extracting(Post::getContent)
+                .containsExactly("Dated", "Legacy");
+        Assertions.assertThat(postRepository.findFeedAfter(dated.getCreatedAt(), dated.getId(), Limit.of(10)))
+                .extracting(Post::getContent)
+                .containsExactly("Legacy");
+    }
+}
@@ -0,0 +1,115 @@
+package com.project.arebbus.repository;
+
+import com.project.arebbus.config.SecondLevelCacheConfiguration;
+import com.project.arebbus.config.SecondLevelCacheMetrics;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.Tag;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.StopRepository;
+import com.project.arebbus.repositories.TagRepository;
+import com.project.arebbus.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Every repository call runs in its own transaction, as in the application, so that the
+// second-level cache sees committed data
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({SecondLevelCacheConfiguration.class, SecondLevelCacheMetrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StopRepository stopRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private SecondLevelCacheMetrics secondLevelCacheMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        secondLevelCacheMetrics.bindTo(meterRegistry);
+    }
+
+    @Test
+    void testStopAndAuthorNameAreServedFromCache() {
+        User author = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@gmail.com")
+                .name("author")
+                .password("testpass")
+                .reputation(0)
+                .image("https://picsum.photos/seed/example/300/200")
+                .valid(true)
+                .build());
+        Long stopId = stopRepository.save(Stop.builder()
+                .name("Shahbag")
+                .latitude(new BigDecimal("23.74"))
+                .longitude(new BigDecimal("90.39"))
+                .author(author)
+                .build()).getId();
+        entityManagerFactory.getCache().evictAll();
+
+        Assertions.assertThat(stopRepository.findById(stopId).orElseThrow().getAuthorDisplayName()).isEqualTo("author");
+        long statements = statistics.getPrepareStatementCount();
+
+        Assertions.assertThat(stopRepository.findById(stopId).orElseThrow().getAuthorDisplayName()).isEqualTo("author");
+
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        Assertions.assertThat(hits("stop")).isEqualTo(1);
+        Assertions.assertThat(hits("user-name")).isEqualTo(1);
+    }
+
+    @Test
+    void testCachedQueryIsInvalidatedByWrites() {
+        String name = "tag-" + UUID.randomUUID();
+        tagRepository.save(Tag.builder().name(name).build());
+
+        Assertions.assertThat(tagRepository.findByName(name)).isPresent();
+        long statements = statistics.getPrepareStatementCount();
+        Assertions.assertThat(tagRepository.findByName(name)).isPresent();
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        Assertions.assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        tagRepository.save(Tag.builder().name(name + "-other").build());
+        statements = statistics.getPrepareStatementCount();
+        Assertions.assertThat(tagRepository.findByName(name)).isPresent();
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isGreaterThan(statements);
+    }
+
+    private double hits(String region) {
+        return meterRegistry.get(SecondLevelCacheMetrics.GETS)
+                .tags("region", region, "result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
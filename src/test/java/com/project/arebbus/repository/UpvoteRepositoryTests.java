@@ -0,0 +1,94 @@
+package com.project.arebbus.repository;
+
+import com.project.arebbus.model.Comment;
+import com.project.arebbus.model.Post;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.UpvoteCountRepository;
+import com.project.arebbus.repositories.UpvoteRepository;
+import com.project.arebbus.repositories.UpvoteTable;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(UpvoteCountRepository.class)
+class UpvoteRepositoryTests {
+    @Autowired
+    private UpvoteRepository upvoteRepository;
+
+    @Autowired
+    private UpvoteCountRepository upvoteCountRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+    private Post post;
+    private Post other;
+    private Comment comment;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .email("voter@gmail.com")
+                .name("voter")
+                .password("testpass")
+                .reputation(0)
+                .image("https://picsum.photos/seed/example/300/200")
+                .valid(true)
+                .build());
+        post = entityManager.persist(Post.builder().author(user).content("Bus is late").numUpvote(5L).build());
+        other = entityManager.persist(Post.builder().author(user).content("Road closed").numUpvote(2L).build());
+        comment = entityManager.persist(Comment.builder().author(user).post(post).content("Same here").numUpvote(0L).build());
+        entityManager.flush();
+    }
+
+    @Test
+    void testAddAndRemoveUpvoteAreIdempotent() {
+        Assertions.assertThat(upvoteRepository.addUpvote(user.getId(), post.getId())).isEqualTo(1);
+        Assertions.assertThat(upvoteRepository.addUpvote(user.getId(), post.getId())).isZero();
+        Assertions.assertThat(upvoteRepository.existsByUserIdAndPostId(user.getId(), post.getId())).isTrue();
+
+        Assertions.assertThat(upvoteRepository.removeUpvote(user.getId(), post.getId())).isEqualTo(1);
+        Assertions.assertThat(upvoteRepository.removeUpvote(user.getId(), post.getId())).isZero();
+        Assertions.assertThat(upvoteRepository.existsByUserIdAndPostId(user.getId(), post.getId())).isFalse();
+    }
+
+    @Test
+    void testAddPostUpvotesAppliesRelativeDeltas() {
+        upvoteCountRepository.addPostUpvotes(Map.of(post.getId(), 3L, other.getId(), -1L));
+        entityManager.clear();
+
+        Assertions.assertThat(entityManager.find(Post.class, post.getId()).getNumUpvote()).isEqualTo(8);
+        Assertions.assertThat(entityManager.find(Post.class, other.getId()).getNumUpvote()).isEqualTo(1);
+    }
+
+    @Test
+    void testApplyVotesCountsOnlyRowsThatChanged() {
+        Long userId = user.getId();
+        Long commentId = comment.getId();
+
+        upvoteCountRepository.applyVotes(UpvoteTable.COMMENT, List.of(Map.entry(userId, commentId)), List.of());
+        Assertions.assertThat(upvoteCountRepository.hasUpvote(UpvoteTable.COMMENT, userId, commentId)).isTrue();
+        // Already there, so neither the row nor the count change
+        upvoteCountRepository.applyVotes(UpvoteTable.COMMENT, List.of(Map.entry(userId, commentId)), List.of());
+        entityManager.clear();
+        Assertions.assertThat(entityManager.find(Comment.class, commentId).getNumUpvote()).isEqualTo(1);
+
+        upvoteCountRepository.applyVotes(UpvoteTable.COMMENT, List.of(), List.of(Map.entry(userId, commentId)));
+        upvoteCountRepository.applyVotes(UpvoteTable.COMMENT, List.of(), List.of(Map.entry(userId, commentId)));
+        entityManager.clear();
+        Assertions.assertThat(upvoteCountRepository.hasUpvote(UpvoteTable.COMMENT, userId, commentId)).isFalse();
+        Assertions.assertThat(entityManager.find(Comment.class, commentId).getNumUpvote()).isZero();
+    }
+}
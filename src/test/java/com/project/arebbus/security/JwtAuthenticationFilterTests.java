@@ -0,0 +1,137 @@
+package com.project.arebbus.security;
+
+import com.project.arebbus.model.User;
+import com.project.arebbus.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTests {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW9ubHktMDEyMzQ1Njc4OQ==";
+
+    @Mock
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private final JwtService jwtService = new JwtService(SECRET, 3_600_000);
+    private final JwtPrincipalCache cache = new JwtPrincipalCache(60_000, 100, now::get);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final User user = User.builder().id(1L).email("test@gmail.com").name("test").valid(true).build();
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(
+                handlerExceptionResolver, jwtService, userDetailsService, cache, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRepeatedTokenIsResolvedFromCache() throws Exception {
+        when(userDetailsService.loadUserByUsername("test@gmail.com")).thenReturn(user);
+        String token = jwtService.generateToken(user);
+
+        authenticate(token);
+        authenticate(token);
+
+        verify(userDetailsService, times(1)).loadUserByUsername("test@gmail.com");
+        Assertions.assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(user);
+    }
+
+    @Test
+    void testCacheEntriesExpireAndAreEvictedPerUser() throws Exception {
+        when(userDetailsService.loadUserByUsername("test@gmail.com")).thenReturn(user);
+        String token = jwtService.generateToken(user);
+
+        authenticate(token);
+        cache.evictUser("test@gmail.com");
+        authenticate(token);
+        now.addAndGet(60_000);
+        authenticate(token);
+
+        verify(userDetailsService, times(3)).loadUserByUsername("test@gmail.com");
+    }
+
+    @Test
+    void testCacheNeverOutlivesTokenAndStaysBounded() {
+        JwtPrincipalCache small = new JwtPrincipalCache(60_000, 2, now::get);
+
+        small.put("a", user, new Date(now.get() + 1_000));
+        small.put("b", user, new Date(now.get() + 120_000));
+        small.put("c", user, new Date(now.get() + 120_000));
+        Assertions.assertThat(small.size()).isEqualTo(2);
+
+        now.addAndGet(1_000);
+        Assertions.assertThat(small.get("a")).isNull();
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() throws Exception {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        MockHttpServletRequest request = request(tampered);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Assertions.assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        Assertions.assertThat(cache.size()).isZero();
+        Assertions.assertThat(outcomes("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void testResolutionIsTimedByOutcome() throws Exception {
+        when(userDetailsService.loadUserByUsername("test@gmail.com")).thenReturn(user);
+        String token = jwtService.generateToken(user);
+
+        authenticate(token);
+        authenticate(token);
+        authenticate(token);
+
+        Assertions.assertThat(outcomes("verified")).isEqualTo(1);
+        Assertions.assertThat(outcomes("cached")).isEqualTo(2);
+    }
+
+    private void authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+        Assertions.assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+    }
+
+    private long outcomes(String outcome) {
+        return meterRegistry.timer("arebbus.auth.jwt", "outcome", outcome).count();
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bus/all");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
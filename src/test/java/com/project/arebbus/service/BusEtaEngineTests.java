@@ -0,0 +1,133 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.Bus;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.model.Route;
+import com.project.arebbus.model.RouteStop;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.repositories.BusRepository;
+import com.project.arebbus.repositories.RouteStopRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BusEtaEngineTests {
+
+    @Mock
+    private BusRepository busRepository;
+
+    @Mock
+    private RouteStopRepository routeStopRepository;
+
+    private final LiveLocationStore liveLocationStore = new LiveLocationStore(null);
+    private final LocalDateTime start = LocalDateTime.of(2025, 1, 10, 8, 0);
+
+    private BusEtaEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new BusEtaEngine(busRepository, routeStopRepository, liveLocationStore,
+                new GridLocationClusterer(0.001), 0.3, 15, 3, 80, 180, 60);
+
+        // Stops along the equator, 0.01 degrees (about 1.11 km) apart
+        Route route = Route.builder().id(7L).name("Line 7").build();
+        Bus bus = Bus.builder().id(1L).name("Bus 1").route(route).build();
+        List<RouteStop> routeStops = List.of(
+                routeStop(route, 1L, "0.00", 0),
+                routeStop(route, 2L, "0.01", 1),
+                routeStop(route, 3L, "0.02", 2),
+                routeStop(route, 4L, "0.03", 3));
+        when(busRepository.findById(1L)).thenReturn(Optional.of(bus));
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(routeStops);
+    }
+
+    @Test
+    void testMovingVehiclePredictsDownstreamStopsOnly() {
+        ride(10L, "0.002", start);
+        engine.update(start);
+        Assertions.assertThat(engine.arrivals(2L, start)).isEmpty();
+
+        // 0.003 degrees (about 334 m) in a minute is about 20 km/h
+        LocalDateTime later = start.plusMinutes(1);
+        ride(10L, "0.005", later);
+        engine.update(later);
+
+        List<BusEtaEngine.Arrival> arrivals = engine.arrivals(2L, later);
+        Assertions.assertThat(arrivals).hasSize(1);
+        Assertions.assertThat(arrivals.get(0).speedKmh()).isBetween(19.9, 20.1);
+        Assertions.assertThat(Duration.between(later, arrivals.get(0).expectedAt()).toSeconds()).isBetween(99L, 101L);
+        Assertions.assertThat(engine.arrivals(4L, later)).extracting(BusEtaEngine.Arrival::busName).containsExactly("Bus 1");
+        Assertions.assertThat(engine.arrivals(1L, later)).isEmpty();
+        verify(busRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testVehiclesGoingBothWaysAreTrackedSeparatelyAndExpire() {
+        ride(10L, "0.002", start);
+        ride(20L, "0.028", start);
+        engine.update(start);
+
+        LocalDateTime later = start.plusMinutes(1);
+        ride(10L, "0.005", later);
+        ride(20L, "0.025", later);
+        engine.update(later);
+
+        Assertions.assertThat(engine.arrivals(2L, later)).hasSize(2);
+        Assertions.assertThat(engine.arrivals(4L, later)).hasSize(1);
+        Assertions.assertThat(engine.arrivals(1L, later)).hasSize(1);
+
+        engine.update(later.plusMinutes(4));
+        Assertions.assertThat(engine.arrivals(2L, later)).isEmpty();
+    }
+
+    @Test
+    void testRidersFarFromTheRouteAreIgnored() {
+        ride(10L, "0.002", start);
+        LocalDateTime later = start.plusMinutes(1);
+        liveLocationStore.put(new LiveLocationStore.Entry(
+                30L, 1L, "Bus 1", new BigDecimal("0.0100"), new BigDecimal("0.0200"), later, LocationStatus.ON_BUS));
+        engine.onLocation(null, liveLocationStore.ridersOf(1L).iterator().next());
+        engine.update(start);
+        ride(10L, "0.005", later);
+        engine.update(later);
+
+        Assertions.assertThat(engine.arrivals(3L, later)).hasSize(1);
+    }
+
+    private void ride(Long userId, String longitude, LocalDateTime time) {
+        LiveLocationStore.Entry entry = new LiveLocationStore.Entry(
+                userId, 1L, "Bus 1", BigDecimal.ZERO, new BigDecimal(longitude), time, LocationStatus.ON_BUS);
+        engine.onLocation(liveLocationStore.put(entry), entry);
+    }
+
+    private RouteStop routeStop(Route route, Long stopId, String longitude, long index) {
+        Stop stop = Stop.builder()
+                .id(stopId)
+                .name("Stop " + stopId)
+                .latitude(BigDecimal.ZERO)
+                .longitude(new BigDecimal(longitude))
+                .build();
+        return RouteStop.builder()
+                .routeId(route.getId())
+                .stopId(stopId)
+                .stopIndex(index)
+                .route(route)
+                .stop(stop)
+                .build();
+    }
+}
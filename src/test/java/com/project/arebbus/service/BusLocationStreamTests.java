@@ -0,0 +1,59 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class BusLocationStreamTests {
+
+    private final BusLocationStream stream = new BusLocationStream(60_000);
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void testDirtyBusIsClusteredOncePerTickForAllSubscribers() {
+        AtomicInteger computations = new AtomicInteger();
+        Supplier<BusLocationResponse> snapshot = () -> response(computations.incrementAndGet());
+
+        stream.subscribe(1L, snapshot);
+        stream.subscribe(1L, snapshot);
+        Assertions.assertThat(stream.subscriberCount(1L)).isEqualTo(2);
+        Assertions.assertThat(computations.get()).isEqualTo(1);
+
+        stream.markDirty(1L);
+        stream.markDirty(1L);
+        stream.markDirty(1L);
+        stream.tick();
+
+        Assertions.assertThat(computations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testCleanBusesAreNotRecomputed() {
+        AtomicInteger computations = new AtomicInteger();
+        stream.subscribe(1L, () -> response(computations.incrementAndGet()));
+
+        stream.tick();
+        stream.markDirty(2L);
+        stream.tick();
+
+        Assertions.assertThat(computations.get()).isEqualTo(1);
+        Assertions.assertThat(stream.subscriberCount(2L)).isZero();
+    }
+
+    private BusLocationResponse response(int version) {
+        return BusLocationResponse.builder()
+                .busId(1L)
+                .busName("Bus " + version)
+                .locations(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.repositories.LocationRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BusRiderCountersTests {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private LocationWriteBehind locationWriteBehind;
+
+    @InjectMocks
+    private BusRiderCounters busRiderCounters;
+
+    @Test
+    void testTransitionsMoveUsersBetweenBusesAndStatuses() {
+        LiveLocationStore.Entry waiting = entry(1L, 1L, LocationStatus.WAITING);
+        LiveLocationStore.Entry onBus = entry(1L, 1L, LocationStatus.ON_BUS);
+        LiveLocationStore.Entry noTrack = entry(1L, 1L, LocationStatus.NO_TRACK);
+        LiveLocationStore.Entry otherBus = entry(1L, 2L, LocationStatus.WAITING);
+
+        busRiderCounters.transition(null, waiting);
+        busRiderCounters.transition(null, entry(2L, 1L, LocationStatus.WAITING));
+        busRiderCounters.transition(waiting, waiting);
+        Assertions.assertThat(busRiderCounters.waiting(1L)).isEqualTo(2);
+
+        busRiderCounters.transition(waiting, onBus);
+        Assertions.assertThat(busRiderCounters.waiting(1L)).isEqualTo(1);
+        Assertions.assertThat(busRiderCounters.onBus(1L)).isEqualTo(1);
+
+        busRiderCounters.transition(onBus, noTrack);
+        busRiderCounters.transition(noTrack, otherBus);
+        Assertions.assertThat(busRiderCounters.onBus(1L)).isZero();
+        Assertions.assertThat(busRiderCounters.waiting(2L)).isEqualTo(1);
+    }
+
+    @Test
+    void testReconcileReplacesCountersWithDatabaseCounts() {
+        busRiderCounters.transition(null, entry(1L, 1L, LocationStatus.WAITING));
+        busRiderCounters.transition(null, entry(2L, 3L, LocationStatus.ON_BUS));
+        when(locationWriteBehind.isDrained()).thenReturn(true);
+        when(locationRepository.countLatestByBusAndStatus()).thenReturn(List.of(
+                new Object[]{1L, LocationStatus.WAITING, 4L},
+                new Object[]{1L, LocationStatus.ON_BUS, 2L},
+                new Object[]{2L, LocationStatus.NO_TRACK, 7L}));
+
+        busRiderCounters.reconcileIfQuiet();
+
+        Assertions.assertThat(busRiderCounters.waiting(1L)).isEqualTo(4);
+        Assertions.assertThat(busRiderCounters.onBus(1L)).isEqualTo(2);
+        Assertions.assertThat(busRiderCounters.waiting(2L)).isZero();
+        Assertions.assertThat(busRiderCounters.onBus(3L)).isZero();
+    }
+
+    @Test
+    void testReconcileWaitsForPendingWrites() {
+        when(locationWriteBehind.isDrained()).thenReturn(false);
+
+        busRiderCounters.reconcileIfQuiet();
+
+        verify(locationRepository, never()).countLatestByBusAndStatus();
+    }
+
+    @Test
+    void testTransitionAfterDrainCheckKeepsLiveCounters() {
+        // The transition is published right after the write-behind reported it was drained
+        when(locationWriteBehind.isDrained()).thenAnswer(invocation -> {
+            busRiderCounters.transition(null, entry(1L, 1L, LocationStatus.WAITING));
+            return true;
+        });
+        when(locationRepository.countLatestByBusAndStatus()).thenReturn(List.of());
+
+        busRiderCounters.reconcileIfQuiet();
+
+        Assertions.assertThat(busRiderCounters.waiting(1L)).isEqualTo(1);
+    }
+
+    private LiveLocationStore.Entry entry(Long userId, Long busId, LocationStatus status) {
+        return new LiveLocationStore.Entry(
+                userId, busId, "Bus " + busId, new BigDecimal("23.75"), new BigDecimal("90.39"),
+                LocalDateTime.now(), status);
+    }
+}
@@ -0,0 +1,132 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusResponse;
+import com.project.arebbus.dto.PagedBusResponse;
+import com.project.arebbus.model.Bus;
+import com.project.arebbus.model.BusUpvote;
+import com.project.arebbus.model.Install;
+import com.project.arebbus.model.Route;
+import com.project.arebbus.model.RouteStop;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.UpvoteCountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({BusService.class, UpvoteCounters.class, RouteSnapshotCache.class, UpvoteCountRepository.class})
+class BusServiceQueryCountTests {
+    @Autowired
+    private BusService busService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = entityManager.persist(User.builder()
+                .email("test@gmail.com")
+                .name("testUser")
+                .password("testpass")
+                .reputation(0)
+                .image("https://picsum.photos/seed/example/300/200")
+                .valid(true)
+                .build());
+
+        Bus previous = null;
+        for (int i = 0; i < 25; i++) {
+            Route route = entityManager.persist(Route.builder()
+                    .name("Route " + i)
+                    .author(testUser)
+                    .build());
+            for (long index = 0; index < 3; index++) {
+                Stop stop = entityManager.persist(Stop.builder()
+                        .name("Stop " + i + "-" + index)
+                        .latitude(new BigDecimal("23.7500"))
+                        .longitude(new BigDecimal("90.3900"))
+                        .author(testUser)
+                        .build());
+                entityManager.persist(RouteStop.builder()
+                        .routeId(route.getId())
+                        .stopId(stop.getId())
+                        .stopIndex(index)
+                        .build());
+            }
+
+            Bus bus = entityManager.persist(Bus.builder()
+                    .name("Bus " + i)
+                    .author(testUser)
+                    .route(route)
+                    .capacity((short) 40)
+                    .numInstall(0)
+                    .numUpvote(0L)
+                    .basedOn(i % 2 == 1 ? previous : null)
+                    .build());
+            if (i % 3 == 0) {
+                entityManager.persist(BusUpvote.builder().userId(testUser.getId()).busId(bus.getId()).build());
+                entityManager.persist(Install.builder().userId(testUser.getId()).busId(bus.getId()).build());
+            }
+            previous = bus;
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void testGetAllBusesQueryCountIsIndependentOfPageSize() {
+        long smallPage = countStatements(5);
+        long largePage = countStatements(20);
+
+        Assertions.assertThat(largePage).isEqualTo(smallPage);
+        // page, count, route stops, upvotes and installs
+        Assertions.assertThat(largePage).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void testGetAllBusesAssemblesStopsAndUserFlags() {
+        entityManager.clear();
+
+        PagedBusResponse response = busService.getAllBuses(testUser, 0, 25);
+
+        Assertions.assertThat(response.getBuses()).hasSize(25);
+        for (BusResponse bus : response.getBuses()) {
+            int index = Integer.parseInt(bus.getName().substring("Bus ".length()));
+            Assertions.assertThat(bus.getRoute().getStops())
+                    .extracting(stop -> stop.getName())
+                    .containsExactly("Stop " + index + "-0", "Stop " + index + "-1", "Stop " + index + "-2");
+            Assertions.assertThat(bus.isUpvoted()).isEqualTo(index % 3 == 0);
+            Assertions.assertThat(bus.isInstalled()).isEqualTo(index % 3 == 0);
+            if (index % 2 == 1) {
+                Assertions.assertThat(bus.getBasedOn().isUpvoted()).isEqualTo((index - 1) % 3 == 0);
+            }
+        }
+    }
+
+    private long countStatements(int pageSize) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PagedBusResponse response = busService.getAllBuses(testUser, 0, pageSize);
+
+        Assertions.assertThat(response.getBuses()).hasSize(pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+}
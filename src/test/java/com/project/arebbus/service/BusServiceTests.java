@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -37,6 +38,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -59,6 +61,12 @@ class BusServiceTests {
     @Mock
     private InstallRepository installRepository;
 
+    @Mock
+    private UpvoteCounters upvoteCounters;
+
+    @Spy
+    private RouteSnapshotCache routeSnapshotCache = new RouteSnapshotCache();
+
     @InjectMocks
     private BusService busService;
 
@@ -93,8 +101,8 @@ class BusServiceTests {
 
         when(routeRepository.findById(1L)).thenReturn(Optional.of(route));
         when(busRepository.save(any(Bus.class))).thenReturn(savedBus);
-        when(routeStopRepository.findByRouteOrderByStopIndex(route)).thenReturn(Arrays.asList());
-        when(busUpvoteRepository.existsByUserIdAndBusId(1L, 1L)).thenReturn(false);
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(Arrays.asList());
+        when(busUpvoteRepository.findUpvotedBusIds(eq(1L), anyCollection())).thenReturn(List.of());
 
         BusResponse response = busService.createBus(user, request);
 
@@ -153,8 +161,8 @@ class BusServiceTests {
                 .build();
 
         when(busRepository.findById(1L)).thenReturn(Optional.of(bus));
-        when(routeStopRepository.findByRouteOrderByStopIndex(route)).thenReturn(Arrays.asList());
-        when(busUpvoteRepository.existsByUserIdAndBusId(1L, 1L)).thenReturn(true);
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(Arrays.asList());
+        when(busUpvoteRepository.findUpvotedBusIds(eq(1L), anyCollection())).thenReturn(List.of(1L));
 
         BusResponse response = busService.getBusById(1L, user);
 
@@ -218,9 +226,8 @@ class BusServiceTests {
         Page<Bus> busPage = new PageImpl<>(buses, PageRequest.of(0, 10), 2);
 
         when(busRepository.findAll(any(PageRequest.class))).thenReturn(busPage);
-        when(routeStopRepository.findByRouteOrderByStopIndex(route)).thenReturn(Arrays.asList());
-        when(busUpvoteRepository.existsByUserIdAndBusId(1L, 1L)).thenReturn(false);
-        when(busUpvoteRepository.existsByUserIdAndBusId(1L, 2L)).thenReturn(false);
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(Arrays.asList());
+        when(busUpvoteRepository.findUpvotedBusIds(eq(1L), anyCollection())).thenReturn(List.of());
 
         PagedBusResponse response = busService.getAllBuses(user, 0, 10);
 
@@ -409,9 +416,8 @@ class BusServiceTests {
         Page<Bus> busPage = new PageImpl<>(buses, PageRequest.of(0, 10), 2);
         
         when(busRepository.findBusesInstalledByUser(eq(user), any(PageRequest.class))).thenReturn(busPage);
-        when(routeStopRepository.findByRouteOrderByStopIndex(route)).thenReturn(Arrays.asList());
-        when(busUpvoteRepository.existsByUserIdAndBusId(1L, 1L)).thenReturn(false);
-        when(busUpvoteRepository.existsByUserIdAndBusId(1L, 2L)).thenReturn(false);
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(Arrays.asList());
+        when(busUpvoteRepository.findUpvotedBusIds(eq(1L), anyCollection())).thenReturn(List.of());
 
         PagedBusResponse response = busService.getInstalledBuses(user, 0, 10);
 
@@ -473,9 +479,8 @@ class BusServiceTests {
         Page<Bus> busPage = new PageImpl<>(buses, PageRequest.of(0, 2), 3);
         
         when(busRepository.findBusesInstalledByUser(eq(user), any(PageRequest.class))).thenReturn(busPage);
-        when(routeStopRepository.findByRouteOrderByStopIndex(route)).thenReturn(Arrays.asList());
-        when(busUpvoteRepository.existsByUserIdAndBusId(1L, 1L)).thenReturn(false);
-        when(busUpvoteRepository.existsByUserIdAndBusId(1L, 2L)).thenReturn(false);
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(Arrays.asList());
+        when(busUpvoteRepository.findUpvotedBusIds(eq(1L), anyCollection())).thenReturn(List.of());
 
         PagedBusResponse response = busService.getInstalledBuses(user, 0, 2);
 
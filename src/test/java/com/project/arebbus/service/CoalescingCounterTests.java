@@ -0,0 +1,116 @@
+package com.project.arebbus.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class CoalescingCounterTests {
+
+    @Test
+    void testConcurrentAddsAndFlushesLoseNothing() throws Exception {
+        Map<Long, Long> written = new HashMap<>();
+        CoalescingCounter counter = new CoalescingCounter(deltas -> deltas.forEach((key, delta) -> written.merge(key, delta, Long::sum)));
+
+        int threads = 8;
+        int addsPerThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean adding = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (adding.get()) {
+                    counter.flush();
+                }
+            });
+            List<Future<?>> adders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                adders.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < addsPerThread; i++) {
+                        // Mostly one hot key, every third add undoes the previous one
+                        long key = i % 10 == 0 ? thread : 100L;
+                        counter.add(key, i % 3 == 2 ? -1 : 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> adder : adders) {
+                adder.get();
+            }
+            adding.set(false);
+            flusher.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        counter.flush();
+
+        long perThread = 0;
+        long hot = 0;
+        for (int i = 0; i < addsPerThread; i++) {
+            long delta = i % 3 == 2 ? -1 : 1;
+            if (i % 10 == 0) {
+                perThread += delta;
+            } else {
+                hot += delta;
+            }
+        }
+        Assertions.assertThat(written.get(100L)).isEqualTo(hot * threads);
+        for (long t = 0; t < threads; t++) {
+            Assertions.assertThat(written.get(t)).isEqualTo(perThread);
+        }
+        Assertions.assertThat(counter.pending(100L)).isZero();
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        List<Map<Long, Long>> batches = new ArrayList<>();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        CoalescingCounter counter = new CoalescingCounter(deltas -> {
+            if (failing.get()) {
+                throw new IllegalStateException("database down");
+            }
+            batches.add(Map.copyOf(deltas));
+        });
+
+        counter.add(1L, 1);
+        counter.add(1L, 1);
+        Assertions.assertThatThrownBy(counter::flush).isInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(counter.pending(1L)).isEqualTo(2);
+
+        counter.add(1L, -1);
+        failing.set(false);
+        counter.flush();
+
+        Assertions.assertThat(batches).containsExactly(Map.of(1L, 1L));
+        Assertions.assertThat(counter.pending(1L)).isZero();
+    }
+
+    @Test
+    void testIdleKeysAreRetiredWithoutLosingLateAdds() {
+        List<Map<Long, Long>> batches = new ArrayList<>();
+        CoalescingCounter counter = new CoalescingCounter(deltas -> batches.add(Map.copyOf(deltas)));
+
+        counter.add(1L, 1);
+        counter.flush();
+        for (int i = 0; i < 4; i++) {
+            counter.flush();
+        }
+        // Retired, so a new add starts over from zero
+        Assertions.assertThat(counter.pending(1L)).isZero();
+        counter.add(1L, 3);
+        counter.flush();
+
+        Assertions.assertThat(batches).containsExactly(Map.of(1L, 1L), Map.of(1L, 3L));
+    }
+}
@@ -0,0 +1,156 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.Bus;
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.LocationRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LiveLocationStoreTests {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @InjectMocks
+    private LiveLocationStore liveLocationStore;
+
+    private final User user = User.builder().id(1L).name("testUser").email("test@gmail.com").build();
+
+    @Test
+    void testWarmUpKeepsLatestLocationPerUser() {
+        Bus bus1 = Bus.builder().id(1L).name("Bus 1").build();
+        Bus bus2 = Bus.builder().id(2L).name("Bus 2").build();
+        LocalDateTime now = LocalDateTime.now();
+
+        when(locationRepository.findLatestForEachUser()).thenReturn(Arrays.asList(
+                location(bus1, now.minusMinutes(5), LocationStatus.ON_BUS),
+                location(bus2, now, LocationStatus.WAITING)));
+
+        liveLocationStore.warmUp();
+
+        Assertions.assertThat(liveLocationStore.latest(user))
+                .hasValueSatisfying(entry -> {
+                    Assertions.assertThat(entry.busId()).isEqualTo(2L);
+                    Assertions.assertThat(entry.busName()).isEqualTo("Bus 2");
+                    Assertions.assertThat(entry.status()).isEqualTo(LocationStatus.WAITING);
+                });
+        Assertions.assertThat(liveLocationStore.ridersOf(1L)).isEmpty();
+        Assertions.assertThat(liveLocationStore.ridersOf(2L)).hasSize(1);
+    }
+
+    @Test
+    void testLatestDoesNotQueryDatabaseAfterWarmUp() {
+        when(locationRepository.findLatestForEachUser()).thenReturn(List.of());
+
+        liveLocationStore.warmUp();
+
+        Assertions.assertThat(liveLocationStore.latest(user)).isEmpty();
+        verify(locationRepository, never()).findFirstByUserIdOrderByTimeDesc(any());
+    }
+
+    @Test
+    void testLatestReadsLatestRowBeforeWarmUp() {
+        Bus bus = Bus.builder().id(3L).name("Bus 3").build();
+        when(locationRepository.findFirstByUserIdOrderByTimeDesc(user.getId()))
+                .thenReturn(Optional.of(location(bus, LocalDateTime.now(), LocationStatus.ON_BUS)));
+
+        Assertions.assertThat(liveLocationStore.latest(user))
+                .hasValueSatisfying(entry -> Assertions.assertThat(entry.busId()).isEqualTo(3L));
+    }
+
+    @Test
+    void testPutMovesUserBetweenBusShards() {
+        liveLocationStore.put(entry(1L, LocationStatus.WAITING));
+        liveLocationStore.put(entry(2L, LocationStatus.ON_BUS));
+
+        Assertions.assertThat(liveLocationStore.ridersOf(1L)).isEmpty();
+        Assertions.assertThat(liveLocationStore.ridersOf(2L))
+                .extracting(LiveLocationStore.Entry::status)
+                .containsExactly(LocationStatus.ON_BUS);
+    }
+
+    @Test
+    void testCompareAndSetRefusesStaleExpectedEntry() {
+        LiveLocationStore.Entry waiting = entry(1L, LocationStatus.WAITING);
+        LiveLocationStore.Entry onBus = entry(1L, LocationStatus.ON_BUS);
+        LiveLocationStore.Entry stopped = entry(2L, LocationStatus.NO_TRACK);
+
+        Assertions.assertThat(liveLocationStore.compareAndSet(null, waiting)).isTrue();
+        Assertions.assertThat(liveLocationStore.compareAndSet(waiting, stopped)).isTrue();
+        Assertions.assertThat(liveLocationStore.compareAndSet(waiting, onBus)).isFalse();
+
+        Assertions.assertThat(liveLocationStore.latest(user)).containsSame(stopped);
+        Assertions.assertThat(liveLocationStore.ridersOf(1L)).isEmpty();
+        Assertions.assertThat(liveLocationStore.ridersOf(2L)).containsExactly(stopped);
+    }
+
+    @Test
+    void testRacingTransitionsLeaveOnlyTheWinnerInShards() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long busId = t % 3;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        LiveLocationStore.Entry current = liveLocationStore.latest(user).orElse(null);
+                        liveLocationStore.compareAndSet(current, entry(busId, LocationStatus.ON_BUS));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        LiveLocationStore.Entry latest = liveLocationStore.latest(user).orElseThrow();
+        for (long busId = 0; busId < 3; busId++) {
+            Assertions.assertThat(liveLocationStore.ridersOf(busId))
+                    .isEqualTo(busId == latest.busId() ? List.of(latest) : List.of());
+        }
+    }
+
+    private Location location(Bus bus, LocalDateTime time, LocationStatus status) {
+        return Location.builder()
+                .busId(bus.getId())
+                .userId(user.getId())
+                .latitude(new BigDecimal("23.73"))
+                .longitude(new BigDecimal("90.39"))
+                .time(time)
+                .status(status)
+                .bus(bus)
+                .user(user)
+                .build();
+    }
+
+    private LiveLocationStore.Entry entry(Long busId, LocationStatus status) {
+        return new LiveLocationStore.Entry(
+                user.getId(), busId, "Bus " + busId,
+                new BigDecimal("23.73"), new BigDecimal("90.39"), LocalDateTime.now(), status);
+    }
+}
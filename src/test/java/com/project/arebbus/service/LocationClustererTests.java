@@ -0,0 +1,79 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.BusLocationCluster;
+import com.project.arebbus.model.LocationStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class LocationClustererTests {
+
+    @Test
+    void testGridMergesChainsAndKeepsDistantGroupsApart() {
+        List<LiveLocationStore.Entry> locations = List.of(
+                entry(1L, "23.7500", "90.3900"),
+                entry(2L, "23.7508", "90.3900"),
+                entry(3L, "23.7516", "90.3900"),
+                entry(4L, "23.7600", "90.3900"));
+
+        List<BusLocationCluster> clusters = new GridLocationClusterer(0.001).cluster(locations);
+
+        Assertions.assertThat(clusters).hasSize(2);
+        Assertions.assertThat(clusters.get(0).getUserCount()).isEqualTo(3);
+        Assertions.assertThat(clusters.get(0).getLatitude()).isEqualByComparingTo("23.7508");
+        Assertions.assertThat(clusters.get(0).getLongitude()).isEqualByComparingTo("90.3900");
+        Assertions.assertThat(clusters.get(1).getUserCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGridLinksAcrossCellBoundaries() {
+        List<LiveLocationStore.Entry> locations = List.of(
+                entry(1L, "23.7509", "90.3909"),
+                entry(2L, "23.7511", "90.3911"));
+
+        Assertions.assertThat(new GridLocationClusterer(0.001).cluster(locations)).hasSize(1);
+    }
+
+    @Test
+    void testMetersThresholdAccountsForLongitudeScale() {
+        // 0.0009 degrees of longitude at 60N is about 50 m, of latitude about 100 m
+        List<LiveLocationStore.Entry> east = List.of(entry(1L, "60.0000", "10.0000"), entry(2L, "60.0000", "10.0009"));
+        List<LiveLocationStore.Entry> north = List.of(entry(1L, "60.0000", "10.0000"), entry(2L, "60.0009", "10.0000"));
+
+        MetersLocationClusterer clusterer = new MetersLocationClusterer(75);
+
+        Assertions.assertThat(clusterer.cluster(east)).hasSize(1);
+        Assertions.assertThat(clusterer.cluster(north)).hasSize(2);
+    }
+
+    @Test
+    void testDbscanDoesNotChainThroughSparseRidersAndCountsNoise() {
+        List<LiveLocationStore.Entry> locations = new ArrayList<>();
+        for (long i = 0; i < 4; i++) {
+            locations.add(entry(i, "23.7500", "90.390" + i));
+        }
+        locations.add(entry(10L, "23.7500", "90.3950"));
+        locations.add(entry(11L, "23.7500", "90.3960"));
+
+        List<BusLocationCluster> clusters = new DbscanLocationClusterer(0.001, 3).cluster(locations);
+
+        Assertions.assertThat(clusters).extracting(BusLocationCluster::getUserCount).containsExactly(4, 1, 1);
+        Assertions.assertThat(clusters.stream().mapToInt(BusLocationCluster::getUserCount).sum()).isEqualTo(6);
+    }
+
+    @Test
+    void testEmptyInputGivesNoClusters() {
+        Assertions.assertThat(new GridLocationClusterer(0.001).cluster(List.of())).isEmpty();
+        Assertions.assertThat(new DbscanLocationClusterer(0.001, 3).cluster(List.of())).isEmpty();
+    }
+
+    private LiveLocationStore.Entry entry(Long userId, String latitude, String longitude) {
+        return new LiveLocationStore.Entry(
+                userId, 1L, "Bus", new BigDecimal(latitude), new BigDecimal(longitude),
+                LocalDateTime.now(), LocationStatus.ON_BUS);
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.repositories.LocationHistoryRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+class LocationHistoryWriterTests {
+
+    @Mock
+    private LocationHistoryRepository locationHistoryRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefusedPointIsSetAsideAndTheRestAreWritten() {
+        LocationHistoryWriter writer = new LocationHistoryWriter(locationHistoryRepository, 10, 100);
+        Location refused = point(2L, now.minusYears(1));
+        List<Location> written = new ArrayList<>();
+        doAnswer(invocation -> {
+            Collection<Location> batch = invocation.getArgument(0);
+            if (batch.contains(refused)) {
+                throw new DataIntegrityViolationException("no partition of relation found for row");
+            }
+            written.addAll(batch);
+            return null;
+        }).when(locationHistoryRepository).insertAll(anyCollection());
+
+        writer.appendAll(List.of(point(1L, now), refused, point(3L, now)));
+        writer.flush();
+
+        Assertions.assertThat(written).extracting(Location::getUserId).containsExactly(1L, 3L);
+        Assertions.assertThat(writer.rejectedCount()).isEqualTo(1);
+        Assertions.assertThat(writer.bufferedCount()).isZero();
+
+        writer.flush();
+        Assertions.assertThat(written).hasSize(2);
+    }
+
+    @Test
+    void testBatchIsKeptWhileDatabaseIsUnavailable() {
+        LocationHistoryWriter writer = new LocationHistoryWriter(locationHistoryRepository, 10, 100);
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(locationHistoryRepository).insertAll(anyCollection());
+
+        writer.appendAll(List.of(point(1L, now), point(2L, now)));
+        writer.flush();
+
+        Assertions.assertThat(writer.bufferedCount()).isEqualTo(2);
+        Assertions.assertThat(writer.rejectedCount()).isZero();
+    }
+
+    private static Location point(Long userId, LocalDateTime time) {
+        return Location.builder()
+                .busId(1L)
+                .userId(userId)
+                .latitude(BigDecimal.ONE)
+                .longitude(BigDecimal.ONE)
+                .time(time)
+                .status(LocationStatus.ON_BUS)
+                .build();
+    }
+}
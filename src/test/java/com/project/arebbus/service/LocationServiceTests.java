@@ -0,0 +1,209 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.LocationBatchRequest;
+import com.project.arebbus.dto.LocationBatchResponse;
+import com.project.arebbus.dto.LocationPoint;
+import com.project.arebbus.dto.LocationResponse;
+import com.project.arebbus.dto.LocationUpdateRequest;
+import com.project.arebbus.exception.InvalidLocationBatchException;
+import com.project.arebbus.exception.InvalidLocationStatusTransitionException;
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.BusRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LocationServiceTests {
+
+    @Mock
+    private BusRepository busRepository;
+
+    @Mock
+    private LiveLocationStore liveLocationStore;
+
+    @Mock
+    private LocationWriteBehind locationWriteBehind;
+
+    @Mock
+    private BusLocationStream busLocationStream;
+
+    @Mock
+    private LocationClusterer locationClusterer;
+
+    @Mock
+    private BusRiderCounters busRiderCounters;
+
+    @Mock
+    private LocationHistoryWriter locationHistoryWriter;
+
+    @Mock
+    private BusEtaEngine busEtaEngine;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LocationService locationService;
+
+    private final User user = User.builder().id(1L).name("rider").email("rider@gmail.com").build();
+    private final LocalDateTime start = LocalDateTime.now().minusMinutes(10);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(locationService, "maxBatchPoints", 4);
+        ReflectionTestUtils.setField(locationService, "maxClockSkewSeconds", 60L);
+    }
+
+    @Test
+    void testBatchAppliesNewestPointAndAppendsAllToHistory() {
+        LiveLocationStore.Entry last = new LiveLocationStore.Entry(
+                1L, 5L, "Bus 5", BigDecimal.ONE, BigDecimal.ONE, start, LocationStatus.ON_BUS);
+        when(liveLocationStore.latest(user)).thenReturn(Optional.of(last));
+        when(liveLocationStore.compareAndSet(eq(last), any())).thenReturn(true);
+
+        LocationBatchResponse response = locationService.updateUserLocations(user, new LocationBatchRequest(List.of(
+                point("23.75", "90.39", start.plusMinutes(1)),
+                point("23.76", "90.39", start.plusMinutes(1)),
+                point("95.00", "90.39", start.plusMinutes(2)),
+                point("23.77", "90.39", start.plusMinutes(3)))));
+
+        Assertions.assertThat(response.getAccepted()).isEqualTo(2);
+        Assertions.assertThat(response.getRejected()).containsExactly(1, 2);
+        Assertions.assertThat(response.getLatest().getLatitude()).isEqualByComparingTo("23.77");
+        Assertions.assertThat(response.getLatest().getStatus()).isEqualTo(LocationStatus.ON_BUS);
+
+        ArgumentCaptor<List<Location>> history = ArgumentCaptor.captor();
+        verify(locationHistoryWriter).appendAll(history.capture());
+        Assertions.assertThat(history.getValue()).extracting(Location::getTime).containsExactly(start.plusMinutes(1));
+        verify(locationHistoryWriter, times(1)).append(any());
+        verify(locationWriteBehind, times(1)).enqueue(any());
+    }
+
+    @Test
+    void testStaleAndFuturePointsDoNotChangeLiveLocation() {
+        LiveLocationStore.Entry last = new LiveLocationStore.Entry(
+                1L, 5L, "Bus 5", BigDecimal.ONE, BigDecimal.ONE, start, LocationStatus.WAITING);
+        when(liveLocationStore.latest(user)).thenReturn(Optional.of(last));
+
+        LocationBatchResponse response = locationService.updateUserLocations(user, new LocationBatchRequest(List.of(
+                point("23.75", "90.39", start.minusMinutes(1)),
+                point("23.75", "90.39", LocalDateTime.now().plusHours(1)))));
+
+        Assertions.assertThat(response.getAccepted()).isZero();
+        Assertions.assertThat(response.getLatest().getLatitude()).isEqualByComparingTo("1");
+        verify(liveLocationStore, never()).compareAndSet(any(), any());
+    }
+
+    @Test
+    void testPointsAheadOfServerClockAreStoredAtServerTime() {
+        LiveLocationStore.Entry last = new LiveLocationStore.Entry(
+                1L, 5L, "Bus 5", BigDecimal.ONE, BigDecimal.ONE, start, LocationStatus.ON_BUS);
+        when(liveLocationStore.latest(user)).thenReturn(Optional.of(last));
+        when(liveLocationStore.compareAndSet(eq(last), any())).thenReturn(true);
+
+        LocationBatchResponse response = locationService.updateUserLocations(user, new LocationBatchRequest(List.of(
+                point("23.75", "90.39", LocalDateTime.now().plusSeconds(30)),
+                point("23.76", "90.39", LocalDateTime.now().plusSeconds(40)))));
+        LocalDateTime after = LocalDateTime.now();
+
+        Assertions.assertThat(response.getAccepted()).isEqualTo(2);
+        Assertions.assertThat(response.getLatest().getTime()).isBeforeOrEqualTo(after);
+        ArgumentCaptor<Location> live = ArgumentCaptor.forClass(Location.class);
+        verify(locationWriteBehind).enqueue(live.capture());
+        Assertions.assertThat(live.getValue().getTime()).isBeforeOrEqualTo(after);
+    }
+
+    @Test
+    void testOversizedBatchIsRejected() {
+        List<LocationPoint> points = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            points.add(point("23.75", "90.39", start.plusMinutes(i)));
+        }
+
+        Assertions.assertThatThrownBy(() -> locationService.updateUserLocations(user, new LocationBatchRequest(points)))
+                .isInstanceOf(InvalidLocationBatchException.class);
+    }
+
+    @Test
+    void testOnBusRevalidatesAgainstLocationThatWonRace() {
+        LiveLocationStore.Entry waiting = new LiveLocationStore.Entry(
+                1L, 5L, "Bus 5", BigDecimal.ONE, BigDecimal.ONE, start, LocationStatus.WAITING);
+        LiveLocationStore.Entry stopped = new LiveLocationStore.Entry(
+                1L, 5L, null, BigDecimal.ONE, BigDecimal.ONE, start.plusMinutes(1), LocationStatus.NO_TRACK);
+        // A concurrent NO_TRACK request replaces the WAITING location before the swap
+        when(liveLocationStore.latest(user)).thenReturn(Optional.of(waiting), Optional.of(stopped));
+        when(liveLocationStore.compareAndSet(eq(waiting), any())).thenReturn(false);
+
+        Assertions.assertThatThrownBy(() -> locationService.setUserOnBus(
+                        user, new LocationUpdateRequest(BigDecimal.ONE, BigDecimal.ONE)))
+                .isInstanceOf(InvalidLocationStatusTransitionException.class)
+                .hasMessageContaining("Current status: NO_TRACK");
+        verify(locationWriteBehind, never()).enqueue(any());
+        verify(busRiderCounters, never()).transition(any(), any());
+    }
+
+    @Test
+    void testAcceptedTransitionIsPublishedWithReplacedEntry() {
+        LiveLocationStore.Entry waiting = new LiveLocationStore.Entry(
+                1L, 5L, "Bus 5", BigDecimal.ONE, BigDecimal.ONE, start, LocationStatus.WAITING);
+        when(liveLocationStore.latest(user)).thenReturn(Optional.of(waiting));
+        when(liveLocationStore.compareAndSet(eq(waiting), any())).thenReturn(true);
+
+        LocationResponse response = locationService.setUserOnBus(
+                user, new LocationUpdateRequest(new BigDecimal("23.75"), new BigDecimal("90.39")));
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(LocationStatus.ON_BUS);
+        Assertions.assertThat(response.getBusId()).isEqualTo(5L);
+        verify(busRiderCounters).transition(eq(waiting), any());
+        verify(locationWriteBehind).enqueue(any());
+        verify(busRepository, never()).findById(any());
+    }
+
+    @Test
+    void testTransitionIsNeverStampedBeforeTheEntryItReplaces() {
+        // A row stored with a client time ahead of the server clock
+        LocalDateTime ahead = LocalDateTime.now().plusMinutes(1);
+        LiveLocationStore.Entry onBus = new LiveLocationStore.Entry(
+                1L, 5L, "Bus 5", BigDecimal.ONE, BigDecimal.ONE, ahead, LocationStatus.ON_BUS);
+        when(liveLocationStore.latest(user)).thenReturn(Optional.of(onBus));
+        when(liveLocationStore.compareAndSet(eq(onBus), any())).thenReturn(true);
+
+        LocationResponse response = locationService.setUserNoTrack(
+                user, new LocationUpdateRequest(BigDecimal.ONE, BigDecimal.ONE));
+
+        Assertions.assertThat(response.getTime()).isEqualTo(ahead);
+        ArgumentCaptor<Location> row = ArgumentCaptor.forClass(Location.class);
+        verify(locationWriteBehind).enqueue(row.capture());
+        Assertions.assertThat(row.getValue().getStatus()).isEqualTo(LocationStatus.NO_TRACK);
+        Assertions.assertThat(row.getValue().getTime()).isEqualTo(ahead);
+    }
+
+    private LocationPoint point(String latitude, String longitude, LocalDateTime time) {
+        return new LocationPoint(new BigDecimal(latitude), new BigDecimal(longitude), time);
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.Location;
+import com.project.arebbus.model.LocationStatus;
+import com.project.arebbus.repositories.LocationRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LocationWriteBehindTests {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRepeatedUpdatesOfSameRowAreCoalesced() {
+        LocationWriteBehind writeBehind = new LocationWriteBehind(locationRepository, 500, 0);
+
+        writeBehind.enqueue(location(1L, 1L, "23.70"));
+        writeBehind.enqueue(location(1L, 1L, "23.71"));
+        writeBehind.enqueue(location(1L, 2L, "23.72"));
+        writeBehind.flushIfDue();
+
+        ArgumentCaptor<Collection<Location>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(locationRepository).upsertAll(batch.capture());
+        Assertions.assertThat(batch.getValue())
+                .extracting(Location::getLatitude)
+                .containsExactlyInAnyOrder(new BigDecimal("23.71"), new BigDecimal("23.72"));
+        Assertions.assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOlderWriteEnqueuedLateDoesNotReplaceNewer() {
+        LocationWriteBehind writeBehind = new LocationWriteBehind(locationRepository, 500, 0);
+        Location newer = location(1L, 1L, "23.71");
+        Location older = location(1L, 1L, "23.70");
+        older.setTime(newer.getTime().minusSeconds(1));
+
+        writeBehind.enqueue(newer);
+        writeBehind.enqueue(older);
+        writeBehind.flushIfDue();
+
+        ArgumentCaptor<Collection<Location>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(locationRepository).upsertAll(batch.capture());
+        Assertions.assertThat(batch.getValue()).containsExactly(newer);
+    }
+
+    @Test
+    void testFlushWaitsForStalenessBound() {
+        LocationWriteBehind writeBehind = new LocationWriteBehind(locationRepository, 500, 60_000);
+
+        writeBehind.enqueue(location(1L, 1L, "23.70"));
+        writeBehind.flushIfDue();
+
+        verify(locationRepository, never()).upsertAll(anyCollection());
+        Assertions.assertThat(writeBehind.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testFailedFlushIsRequeued() {
+        LocationWriteBehind writeBehind = new LocationWriteBehind(locationRepository, 500, 0);
+        doThrow(new IllegalStateException("database down")).when(locationRepository).upsertAll(anyCollection());
+
+        writeBehind.enqueue(location(1L, 1L, "23.70"));
+        writeBehind.flush();
+
+        Assertions.assertThat(writeBehind.pendingCount()).isEqualTo(1);
+    }
+
+    private Location location(Long busId, Long userId, String latitude) {
+        return Location.builder()
+                .busId(busId)
+                .userId(userId)
+                .latitude(new BigDecimal(latitude))
+                .longitude(new BigDecimal("90.39"))
+                .time(LocalDateTime.now())
+                .status(LocationStatus.ON_BUS)
+                .build();
+    }
+}
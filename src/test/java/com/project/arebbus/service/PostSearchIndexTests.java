@@ -0,0 +1,121 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.repositories.CommentRepository;
+import com.project.arebbus.repositories.PostRepository;
+import com.project.arebbus.repositories.TagRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostSearchIndexTests {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private PostSearchIndex index() {
+        return new PostSearchIndex(postRepository, tagRepository, commentRepository, 1.2, 0.75);
+    }
+
+    @Test
+    void testBuildIndexesContentTagsAndComments() {
+        when(tagRepository.findAllTagNamesByPost()).thenReturn(List.<Object[]>of(new Object[]{2L, "traffic"}));
+        when(postRepository.findAllContents()).thenReturn(List.of(
+                new Object[]{1L, "Bus 12 is late"},
+                new Object[]{2L, "Jam near Farmgate"}));
+        when(commentRepository.findAllContents()).thenReturn(List.<Object[]>of(new Object[]{10L, 1L, "Still waiting at Shahbag"}));
+
+        PostSearchIndex index = index();
+        index.build();
+
+        Assertions.assertThat(index.isReady()).isTrue();
+        Assertions.assertThat(index.search("late", 0, 10).postIds()).containsExactly(1L);
+        Assertions.assertThat(index.search("TRAFFIC", 0, 10).postIds()).containsExactly(2L);
+        Assertions.assertThat(index.search("shahbag", 0, 10).postIds()).containsExactly(1L);
+        Assertions.assertThat(index.search("metro", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void testRarerRepeatedWordsAndShorterPostsRankHigher() {
+        PostSearchIndex index = index();
+        index.addPost(1L, "bus late", List.of());
+        index.addPost(2L, "bus late late", List.of());
+        index.addPost(3L, "bus crowded", List.of());
+        index.addPost(4L, "bus on time", List.of());
+
+        Assertions.assertThat(index.search("late bus", 0, 10).postIds()).containsExactly(2L, 1L, 3L, 4L);
+        Assertions.assertThat(index.search("crowded bus", 0, 10).postIds().get(0)).isEqualTo(3L);
+    }
+
+    @Test
+    void testTagWordsOutweighContentWords() {
+        PostSearchIndex index = index();
+        index.addPost(1L, "rain today", List.of());
+        index.addPost(2L, "today", List.of("rain"));
+        index.addPost(3L, "sunny", List.of());
+
+        Assertions.assertThat(index.search("rain", 0, 10).postIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testSearchPagesThroughRanking() {
+        PostSearchIndex index = index();
+        for (long id = 1; id <= 5; id++) {
+            index.addPost(id, "delay", List.of());
+        }
+
+        PostSearchIndex.Hits second = index.search("delay", 1, 2);
+
+        Assertions.assertThat(second.total()).isEqualTo(5);
+        Assertions.assertThat(second.postIds()).containsExactly(3L, 2L);
+        Assertions.assertThat(index.search("delay", 2, 2).postIds()).containsExactly(1L);
+        Assertions.assertThat(index.search("delay", 3, 2).postIds()).isEmpty();
+    }
+
+    @Test
+    void testRemovePostDropsItsCommentsAndRepeatedAddsAreIgnored() {
+        PostSearchIndex index = index();
+        index.addPost(1L, "accident", List.of());
+        index.addPost(1L, "accident", List.of());
+        index.addComment(10L, 1L, "ambulance arrived");
+        index.addComment(10L, 1L, "ambulance arrived");
+        index.addPost(2L, "accident ambulance ambulance", List.of());
+
+        Assertions.assertThat(index.search("ambulance", 0, 10).postIds()).containsExactly(2L, 1L);
+
+        index.removePost(1L);
+
+        Assertions.assertThat(index.search("accident ambulance", 0, 10).postIds()).containsExactly(2L);
+    }
+
+    @Test
+    void testRemovedPostIsNotAddedBackByRunningBuild() {
+        when(tagRepository.findAllTagNamesByPost()).thenReturn(List.of());
+        when(postRepository.findAllContents()).thenReturn(List.<Object[]>of(new Object[]{1L, "Bus 12 is late"}));
+        when(commentRepository.findAllContents()).thenReturn(List.<Object[]>of(new Object[]{10L, 1L, "Still late"}));
+
+        PostSearchIndex index = index();
+        index.removePost(1L);
+        index.build();
+        index.addPost(1L, "Bus 12 is late", List.of());
+
+        Assertions.assertThat(index.search("late", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void testTokenizeKeepsLettersOfAnyScript() {
+        Assertions.assertThat(PostSearchIndex.tokenize("Bus-12, বাস দেরি!")).containsExactly("bus", "12", "বাস", "দেরি");
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.ProfileResponse;
+import com.project.arebbus.model.User;
+import com.project.arebbus.model.UserName;
+import com.project.arebbus.repositories.UserRepository;
+import com.project.arebbus.security.JwtPrincipalCache;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileServiceTests {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtPrincipalCache jwtPrincipalCache;
+
+    @Mock
+    private RouteSnapshotCache routeSnapshotCache;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @InjectMocks
+    private ProfileService profileService;
+
+    @Test
+    void testChangeNameUpdatesStoredCopyAndLeavesSharedPrincipalAlone() {
+        User principal = user();
+        User stored = user();
+        Cache cache = mock(Cache.class);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        ProfileResponse response = profileService.changeName(principal, "renamed");
+
+        Assertions.assertThat(response.getName()).isEqualTo("renamed");
+        Assertions.assertThat(principal.getName()).isEqualTo("testUser");
+        verify(userRepository).save(stored);
+        verify(jwtPrincipalCache).evictUser("test@gmail.com");
+        verify(cache).evict(UserName.class, 1L);
+    }
+
+    @Test
+    void testFailedSaveEvictsNothing() {
+        User principal = user();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user()));
+        when(userRepository.save(any(User.class))).thenThrow(new IllegalStateException("database down"));
+
+        Assertions.assertThatThrownBy(() -> profileService.changeName(principal, "renamed"))
+                .isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(principal.getName()).isEqualTo("testUser");
+        verify(jwtPrincipalCache, never()).evictUser(any());
+    }
+
+    private static User user() {
+        return User.builder().id(1L).name("testUser").email("test@gmail.com").build();
+    }
+}
@@ -18,10 +18,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -29,7 +32,10 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +50,12 @@ class RouteServiceTests {
     @Mock
     private StopRepository stopRepository;
 
+    @Mock
+    private TransitNetwork transitNetwork;
+
+    @Spy
+    private RouteSnapshotCache routeSnapshotCache = new RouteSnapshotCache();
+
     @InjectMocks
     private RouteService routeService;
 
@@ -97,6 +109,35 @@ class RouteServiceTests {
         Assertions.assertThat(response.getStops().get(1).getName()).isEqualTo("Stop 2");
     }
 
+    @Test
+    void testCreatedRouteReachesPlannerOnlyAfterCommit() {
+        User user = User.builder().id(1L).name("testUser").build();
+        Stop stop = Stop.builder()
+                .id(1L)
+                .name("Stop 1")
+                .latitude(new BigDecimal("40.7128"))
+                .longitude(new BigDecimal("-74.0060"))
+                .author(user)
+                .build();
+        RouteCreateRequest request = new RouteCreateRequest();
+        request.setName("Test Route");
+        request.setStopIds(List.of(1L));
+
+        when(routeRepository.save(any(Route.class))).thenReturn(Route.builder().id(1L).name("Test Route").author(user).build());
+        when(stopRepository.findById(1L)).thenReturn(Optional.of(stop));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            routeService.createRoute(user, request);
+            verify(transitNetwork, never()).addRoute(any(), any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(transitNetwork).addRoute(eq(1L), eq("Test Route"), any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void testCreateRouteThrowsExceptionWhenStopNotFound() {
         User user = User.builder()
@@ -154,7 +195,7 @@ class RouteServiceTests {
                 .build();
 
         when(routeRepository.findById(1L)).thenReturn(Optional.of(route));
-        when(routeStopRepository.findByRouteOrderByStopIndex(route)).thenReturn(Arrays.asList(routeStop));
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(Arrays.asList(routeStop));
 
         RouteResponse response = routeService.getRouteById(1L);
 
@@ -221,8 +262,7 @@ class RouteServiceTests {
         Page<Route> routePage = new PageImpl<>(routes, PageRequest.of(0, 10), 2);
 
         when(routeRepository.findAll(eq(PageRequest.of(0, 10)))).thenReturn(routePage);
-        when(routeStopRepository.findByRouteOrderByStopIndex(route1)).thenReturn(Arrays.asList(routeStop1));
-        when(routeStopRepository.findByRouteOrderByStopIndex(route2)).thenReturn(Arrays.asList());
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(Arrays.asList(routeStop1));
 
         PagedRouteResponse response = routeService.getAllRoutes(0, 10);
 
@@ -280,7 +320,7 @@ class RouteServiceTests {
         Page<Route> routePage = new PageImpl<>(routes, PageRequest.of(1, 5), 10);
 
         when(routeRepository.findAll(eq(PageRequest.of(1, 5)))).thenReturn(routePage);
-        when(routeStopRepository.findByRouteOrderByStopIndex(route)).thenReturn(Arrays.asList());
+        when(routeStopRepository.findByRouteIdsWithStops(anyCollection())).thenReturn(Arrays.asList());
 
         PagedRouteResponse response = routeService.getAllRoutes(1, 5);
 
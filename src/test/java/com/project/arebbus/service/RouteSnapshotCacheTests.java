@@ -0,0 +1,80 @@
+package com.project.arebbus.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.arebbus.config.RouteJsonConfiguration;
+import com.project.arebbus.dto.RouteResponse;
+import com.project.arebbus.model.Route;
+import com.project.arebbus.model.RouteStop;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.User;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class RouteSnapshotCacheTests {
+
+    private final User author = User.builder().id(1L).name("author").build();
+
+    private final Route route = Route.builder().id(1L).name("Route").author(author).build();
+
+    private final Stop stop = Stop.builder()
+            .id(1L)
+            .name("Stop")
+            .latitude(new BigDecimal("23.750000"))
+            .longitude(new BigDecimal("90.390000"))
+            .author(author)
+            .build();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<Collection<Long>, List<RouteStop>> loader = routeIds -> {
+        loads.incrementAndGet();
+        return List.of(RouteStop.builder().routeId(1L).stopId(1L).stopIndex(0L).route(route).stop(stop).build());
+    };
+
+    @Test
+    void testSnapshotIsSharedUntilInvalidated() {
+        RouteSnapshotCache cache = new RouteSnapshotCache();
+
+        RouteResponse first = cache.get(route, loader);
+        RouteResponse second = cache.getAll(List.of(route), loader).get(1L);
+
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(loads).hasValue(1);
+        Assertions.assertThat(first.getStops()).extracting("name").containsExactly("Stop");
+
+        cache.invalidateAll();
+        RouteResponse rebuilt = cache.get(route, loader);
+
+        Assertions.assertThat(rebuilt).isNotSameAs(first).isEqualTo(first);
+        Assertions.assertThat(loads).hasValue(2);
+        Assertions.assertThat(cache.isSnapshot(first)).isFalse();
+    }
+
+    @Test
+    void testSnapshotIsWrittenFromItsEncodedJson() throws Exception {
+        RouteSnapshotCache cache = new RouteSnapshotCache();
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new RouteJsonConfiguration().preEncodedRouteModule(cache));
+        ObjectMapper plain = new ObjectMapper();
+
+        RouteResponse snapshot = cache.get(route, loader);
+        String expected = plain.writeValueAsString(snapshot);
+
+        Assertions.assertThat(mapper.writeValueAsString(snapshot)).isEqualTo(expected);
+        Assertions.assertThat(mapper.writeValueAsString(List.of(snapshot))).isEqualTo("[" + expected + "]");
+
+        // Snapshots are never modified; this only shows that the kept JSON is what gets written
+        snapshot.setName("Changed");
+        Assertions.assertThat(mapper.writeValueAsString(snapshot)).isEqualTo(expected);
+
+        RouteResponse copy = RouteResponse.builder()
+                .id(1L).name("Copy").authorName("author").stops(snapshot.getStops()).build();
+        Assertions.assertThat(mapper.writeValueAsString(copy)).isEqualTo(plain.writeValueAsString(copy));
+    }
+}
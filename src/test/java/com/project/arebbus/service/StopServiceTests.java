@@ -32,6 +32,12 @@ class StopServiceTests {
     @Mock
     private StopRepository stopRepository;
 
+    @Mock
+    private StopSpatialIndex stopSpatialIndex;
+
+    @Mock
+    private BusEtaEngine busEtaEngine;
+
     @InjectMocks
     private StopService stopService;
 
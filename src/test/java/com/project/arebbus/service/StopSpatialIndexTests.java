@@ -0,0 +1,103 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.StopResponse;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.StopRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StopSpatialIndexTests {
+
+    @Mock
+    private StopRepository stopRepository;
+
+    @Mock
+    private AuthorNames authorNames;
+
+    private final User user = User.builder().id(1L).name("testUser").build();
+
+    @Test
+    void testBuildAndFindWithinReturnsNearestFirst() {
+        when(stopRepository.findAllWithAuthor()).thenReturn(Arrays.asList(
+                stop(1L, "23.7500", "90.3900", user),
+                stop(2L, "23.7460", "90.3900", user),
+                stop(3L, "23.9000", "90.3900", user)));
+
+        StopSpatialIndex index = new StopSpatialIndex(stopRepository, authorNames, 0.01);
+        index.build();
+
+        Assertions.assertThat(index.isReady()).isTrue();
+        Assertions.assertThat(index.findWithin(23.7450, 90.3900, 1.0))
+                .extracting(StopResponse::getId)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testFindWithinCrossesCellBoundaries() {
+        StopSpatialIndex index = new StopSpatialIndex(stopRepository, authorNames, 0.01);
+        index.add(stop(1L, "23.7499", "90.3999", user));
+        index.add(stop(2L, "23.7501", "90.4001", user));
+
+        Assertions.assertThat(index.findWithin(23.7500, 90.4000, 0.1))
+                .extracting(StopResponse::getId)
+                .containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void testFindWithinWrapsAroundAntimeridian() {
+        StopSpatialIndex index = new StopSpatialIndex(stopRepository, authorNames, 0.01);
+        index.add(stop(1L, "0.0000", "179.9990", user));
+        index.add(stop(2L, "0.0000", "-179.9990", user));
+
+        Assertions.assertThat(index.findWithin(0, 180, 1.0))
+                .extracting(StopResponse::getId)
+                .containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void testAuthorIsNamedWhenStopsAreRead() {
+        StopSpatialIndex index = new StopSpatialIndex(stopRepository, authorNames, 0.01);
+        index.add(stop(1L, "23.7500", "90.3900", user));
+        when(authorNames.namesOf(List.of(1L))).thenReturn(Map.of(1L, "renamedUser"));
+
+        Assertions.assertThat(index.findWithin(23.7500, 90.3900, 0.1))
+                .extracting(StopResponse::getAuthorName)
+                .containsExactly("renamedUser");
+    }
+
+    @Test
+    void testStopAddedDuringBuildIsIndexedOnce() {
+        StopSpatialIndex index = new StopSpatialIndex(stopRepository, authorNames, 0.01);
+        Stop created = stop(1L, "23.7500", "90.3900", user);
+        index.add(created);
+        when(stopRepository.findAllWithAuthor()).thenReturn(List.of(created));
+
+        index.build();
+
+        Assertions.assertThat(index.findWithin(23.7500, 90.3900, 0.1))
+                .extracting(StopResponse::getId)
+                .containsExactly(1L);
+    }
+
+    private Stop stop(Long id, String latitude, String longitude, User author) {
+        return Stop.builder()
+                .id(id)
+                .name("Stop " + id)
+                .latitude(new BigDecimal(latitude))
+                .longitude(new BigDecimal(longitude))
+                .author(author)
+                .build();
+    }
+}
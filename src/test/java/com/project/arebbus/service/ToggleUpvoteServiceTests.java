@@ -0,0 +1,125 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.PostRepository;
+import com.project.arebbus.repositories.UpvoteCountRepository;
+import com.project.arebbus.repositories.UpvoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ExtendWith(MockitoExtension.class)
+class ToggleUpvoteServiceTests {
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UpvoteRepository upvoteRepository;
+
+    @Mock
+    private UpvoteCountRepository upvoteCountRepository;
+
+    private PostUpvoteCounter postUpvoteCounter;
+
+    private ToggleUpvoteService toggleUpvoteService;
+
+    /** Stands in for the upvotes table, keyed by "userId:postId" */
+    private final Set<String> upvotes = ConcurrentHashMap.newKeySet();
+
+    /** Stands in for Post.num_upvote of the post */
+    private final AtomicLong numUpvote = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.lenient().when(postRepository.existsById(1L)).thenReturn(true);
+        Mockito.lenient().when(upvoteRepository.removeUpvote(ArgumentMatchers.anyLong(), ArgumentMatchers.eq(1L)))
+                .thenAnswer(call -> upvotes.remove(call.getArgument(0) + ":1") ? 1 : 0);
+        Mockito.lenient().when(upvoteRepository.addUpvote(ArgumentMatchers.anyLong(), ArgumentMatchers.eq(1L)))
+                .thenAnswer(call -> upvotes.add(call.getArgument(0) + ":1") ? 1 : 0);
+        Mockito.lenient().doAnswer(call -> {
+            Map<Long, Long> deltas = call.getArgument(0);
+            numUpvote.addAndGet(deltas.getOrDefault(1L, 0L));
+            return null;
+        }).when(upvoteCountRepository).addPostUpvotes(ArgumentMatchers.anyMap());
+
+        postUpvoteCounter = new PostUpvoteCounter(upvoteCountRepository);
+        toggleUpvoteService = new ToggleUpvoteService(
+                postRepository, upvoteRepository, postUpvoteCounter, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testToggleAddsThenRemovesUpvote() {
+        User user = User.builder().id(7L).build();
+
+        Assertions.assertThat(toggleUpvoteService.toggleUpvote(user, 1L).isUpvoteStatus()).isTrue();
+        Assertions.assertThat(postUpvoteCounter.pending(1L)).isEqualTo(1);
+        Assertions.assertThat(toggleUpvoteService.toggleUpvote(user, 1L).isUpvoteStatus()).isFalse();
+        Assertions.assertThat(postUpvoteCounter.pending(1L)).isZero();
+
+        postUpvoteCounter.flush();
+        Assertions.assertThat(numUpvote.get()).isZero();
+        Mockito.verify(upvoteCountRepository, Mockito.never()).addPostUpvotes(ArgumentMatchers.anyMap());
+    }
+
+    @Test
+    void testUnknownPostIsRejected() {
+        Mockito.when(postRepository.existsById(2L)).thenReturn(false);
+
+        Assertions.assertThatThrownBy(() -> toggleUpvoteService.toggleUpvote(User.builder().id(7L).build(), 2L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Post not found with id: 2");
+    }
+
+    @Test
+    void testConcurrentTogglesKeepCountEqualToUpvotes() throws Exception {
+        int threads = 8;
+        int togglesPerThread = 2500;
+        int users = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> togglers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                togglers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < togglesPerThread; i++) {
+                        User user = User.builder().id((long) ((thread * 31 + i) % users)).build();
+                        toggleUpvoteService.toggleUpvote(user, 1L);
+                        if (i % 500 == 0) {
+                            postUpvoteCounter.flush();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> toggler : togglers) {
+                toggler.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        postUpvoteCounter.flush();
+
+        Assertions.assertThat(numUpvote.get()).isEqualTo(upvotes.size());
+        Assertions.assertThat(postUpvoteCounter.pending(1L)).isZero();
+    }
+}
@@ -0,0 +1,102 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.JourneyLegResponse;
+import com.project.arebbus.dto.JourneyResponse;
+import com.project.arebbus.dto.StopResponse;
+import com.project.arebbus.model.Stop;
+import com.project.arebbus.model.User;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+class TransitNetworkTests {
+
+    private static final User AUTHOR = User.builder().id(100L).name("author").build();
+
+    // Stops on a line along the equator, 0.01 degrees (about 1.1 km) apart
+    private final Stop a = stop(1L, "0.00");
+    private final Stop b = stop(2L, "0.01");
+    private final Stop c = stop(3L, "0.02");
+    private final Stop d = stop(4L, "0.03");
+    private final Stop e = stop(5L, "0.04");
+
+    @Test
+    void testDirectRideFollowsRouteInBothDirections() {
+        TransitNetwork network = new TransitNetwork(null, ids -> Map.of(AUTHOR.getId(), AUTHOR.getName()), true);
+        network.addRoute(10L, "Line 10", List.of(a, b, c));
+
+        List<JourneyResponse> forward = network.plan(1L, 3L, 2);
+        List<JourneyResponse> backward = network.plan(3L, 2L, 2);
+
+        Assertions.assertThat(forward).hasSize(1);
+        Assertions.assertThat(forward.get(0).getTransfers()).isZero();
+        Assertions.assertThat(forward.get(0).getLegs().get(0).getStops()).extracting(StopResponse::getId)
+                .containsExactly(1L, 2L, 3L);
+        Assertions.assertThat(backward.get(0).getLegs().get(0).getStops()).extracting(StopResponse::getId)
+                .containsExactly(3L, 2L);
+        Assertions.assertThat(forward.get(0).getLegs().get(0).getStops()).extracting(StopResponse::getAuthorName)
+                .containsOnly("author");
+    }
+
+    @Test
+    void testOneWayRouteCannotBeRiddenBackwards() {
+        TransitNetwork network = new TransitNetwork(null, ids -> Map.of(AUTHOR.getId(), AUTHOR.getName()), false);
+        network.addRoute(10L, "Line 10", List.of(a, b, c));
+
+        Assertions.assertThat(network.plan(3L, 1L, 2)).isEmpty();
+    }
+
+    @Test
+    void testTransferIsFoundAndShorterJourneyWithMoreTransfersIsKept() {
+        TransitNetwork network = new TransitNetwork(null, ids -> Map.of(AUTHOR.getId(), AUTHOR.getName()), false);
+        // A long detour without transfers and a short trip over two routes
+        network.addRoute(10L, "Detour", List.of(a, e, d, c, stop(7L, "0.06")));
+        network.addRoute(20L, "First", List.of(a, b));
+        network.addRoute(30L, "Second", List.of(b, stop(7L, "0.06")));
+
+        List<JourneyResponse> journeys = network.plan(1L, 7L, 3);
+
+        Assertions.assertThat(journeys).extracting(JourneyResponse::getTransfers).containsExactly(0, 1);
+        Assertions.assertThat(journeys.get(1).getLegs()).extracting(JourneyLegResponse::getRouteId)
+                .containsExactly(20L, 30L);
+        Assertions.assertThat(journeys.get(1).getDistanceKm()).isLessThan(journeys.get(0).getDistanceKm());
+    }
+
+    @Test
+    void testTransfersAreLimited() {
+        TransitNetwork network = new TransitNetwork(null, ids -> Map.of(AUTHOR.getId(), AUTHOR.getName()), true);
+        network.addRoute(10L, "A-B", List.of(a, b));
+        network.addRoute(20L, "B-C", List.of(b, c));
+        network.addRoute(30L, "C-D", List.of(c, d));
+
+        Assertions.assertThat(network.plan(1L, 4L, 1)).isEmpty();
+        Assertions.assertThat(network.plan(1L, 4L, 2)).extracting(JourneyResponse::getTransfers).containsExactly(2);
+    }
+
+    @Test
+    void testAddedRouteConnectsStopsAndIsAddedOnce() {
+        TransitNetwork network = new TransitNetwork(null, ids -> Map.of(AUTHOR.getId(), AUTHOR.getName()), true);
+        network.addRoute(10L, "A-B", List.of(a, b));
+        Assertions.assertThat(network.plan(1L, 5L, 2)).isEmpty();
+
+        network.addRoute(20L, "B-E", List.of(b, e));
+        network.addRoute(20L, "B-E", List.of(b, e));
+
+        List<JourneyResponse> journeys = network.plan(1L, 5L, 2);
+        Assertions.assertThat(journeys).hasSize(1);
+        Assertions.assertThat(journeys.get(0).getDistanceKm()).isEqualByComparingTo("4.448");
+    }
+
+    private Stop stop(Long id, String longitude) {
+        return Stop.builder()
+                .id(id)
+                .name("Stop " + id)
+                .latitude(BigDecimal.ZERO)
+                .longitude(new BigDecimal(longitude))
+                .author(AUTHOR)
+                .build();
+    }
+}
@@ -0,0 +1,236 @@
+package com.project.arebbus.service;
+
+import com.project.arebbus.dto.CursorPostResponse;
+import com.project.arebbus.dto.PagedPostResponse;
+import com.project.arebbus.dto.PostSummaryResponse;
+import com.project.arebbus.dto.UserPostDeleteRequest;
+import com.project.arebbus.exception.InvalidCursorException;
+import com.project.arebbus.exception.InvalidPageException;
+import com.project.arebbus.model.Post;
+import com.project.arebbus.model.PostTag;
+import com.project.arebbus.model.Tag;
+import com.project.arebbus.model.Upvote;
+import com.project.arebbus.model.User;
+import com.project.arebbus.repositories.UpvoteCountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({UserPostService.class, PostFeedAssembler.class, PostUpvoteCounter.class, UpvoteCounters.class,
+        UpvoteCountRepository.class, PostSearchIndex.class})
+class UserPostServiceQueryCountTests {
+    @Autowired
+    private UserPostService userPostService;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        User[] authors = new User[3];
+        for (int i = 0; i < authors.length; i++) {
+            authors[i] = entityManager.persist(User.builder()
+                    .email("author" + i + "@gmail.com")
+                    .name("author" + i)
+                    .password("testpass")
+                    .reputation(0)
+                    .image("https://picsum.photos/seed/example/300/200")
+                    .valid(true)
+                    .build());
+        }
+        testUser = authors[0];
+
+        Tag traffic = entityManager.persist(Tag.builder().name("traffic").build());
+        Tag delay = entityManager.persist(Tag.builder().name("delay").build());
+
+        for (int i = 0; i < 25; i++) {
+            Post post = entityManager.persist(Post.builder()
+                    .author(authors[i % authors.length])
+                    .content("Post " + i)
+                    .numUpvote(0L)
+                    .build());
+            entityManager.persist(PostTag.builder().postId(post.getId()).tagId(traffic.getId()).build());
+            if (i % 2 == 0) {
+                entityManager.persist(PostTag.builder().postId(post.getId()).tagId(delay.getId()).build());
+            }
+            if (i % 3 == 0) {
+                entityManager.persist(Upvote.builder().userId(testUser.getId()).postId(post.getId()).build());
+            }
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void testFeedQueryCountIsIndependentOfPageSize() {
+        long smallPage = countStatements(() -> userPostService.getAllPostsPage(testUser, 0, 5));
+        long largePage = countStatements(() -> userPostService.getAllPostsPage(testUser, 0, 20));
+
+        Assertions.assertThat(largePage).isEqualTo(smallPage);
+        // page with authors, count, tags and upvotes
+        Assertions.assertThat(largePage).isLessThanOrEqualTo(4);
+
+        Assertions.assertThat(countStatements(() -> userPostService.getPostsByTags(testUser, List.of("traffic"), 0, 20)))
+                .isLessThanOrEqualTo(4);
+        Assertions.assertThat(countStatements(() -> userPostService.getMyPostsPage(testUser, 0, 5)))
+                .isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void testFeedAssemblesTagsAndUpvotes() {
+        entityManager.clear();
+
+        PagedPostResponse response = userPostService.getAllPostsPage(testUser, 0, 25);
+
+        Assertions.assertThat(response.getPosts()).hasSize(25);
+        Assertions.assertThat(response.getTotalElements()).isEqualTo(25);
+        for (PostSummaryResponse post : response.getPosts()) {
+            int index = Integer.parseInt(post.getContent().substring("Post ".length()));
+            Assertions.assertThat(post.getAuthorName()).isEqualTo("author" + index % 3);
+            if (index % 2 == 0) {
+                Assertions.assertThat(post.getTags()).containsExactlyInAnyOrder("traffic", "delay");
+            } else {
+                Assertions.assertThat(post.getTags()).containsExactly("traffic");
+            }
+            Assertions.assertThat(post.isUpvoted()).isEqualTo(index % 3 == 0);
+        }
+    }
+
+    @Test
+    void testCursorFeedWalksEveryPostOnceWithoutCounting() {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> expected = userPostService.getAllPostsPage(testUser, 0, 25).getPosts().stream()
+                .map(PostSummaryResponse::getPostId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        CursorPostResponse page;
+        do {
+            entityManager.clear();
+            statistics.clear();
+            page = userPostService.getAllPostsFeed(testUser, cursor, 7);
+            // page with authors, tags and upvotes
+            Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+            page.getPosts().forEach(post -> walked.add(post.getPostId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        Assertions.assertThat(walked).containsExactlyElementsOf(expected);
+        Assertions.assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testCursorFeedByTagsAndAuthor() {
+        entityManager.clear();
+
+        CursorPostResponse delayed = userPostService.getPostsByTagsFeed(testUser, List.of("delay"), null, 20);
+        CursorPostResponse mine = userPostService.getMyPostsFeed(testUser, null, 20);
+
+        Assertions.assertThat(delayed.getPosts()).hasSize(13);
+        Assertions.assertThat(delayed.isHasNext()).isFalse();
+        Assertions.assertThat(mine.getPosts()).hasSize(9)
+                .allSatisfy(post -> Assertions.assertThat(post.getAuthorName()).isEqualTo("author0"));
+    }
+
+    @Test
+    void testSearchRanksRareWordsFirstAndLoadsPageInFixedQueries() {
+        postSearchIndex.build();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PagedPostResponse response = userPostService.searchPosts(testUser, "post 7", 0, 5);
+
+        // posts with authors, tags and upvotes
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        Assertions.assertThat(response.getTotalElements()).isEqualTo(25);
+        Assertions.assertThat(response.getTotalPages()).isEqualTo(5);
+        Assertions.assertThat(response.getPosts()).hasSize(5);
+        Assertions.assertThat(response.getPosts().get(0).getContent()).isEqualTo("Post 7");
+
+        Assertions.assertThat(userPostService.searchPosts(testUser, "delay", 0, 20).getTotalElements()).isEqualTo(13);
+    }
+
+    @Test
+    void testSearchTotalLeavesOutPostsDeletedElsewhere() {
+        postSearchIndex.addPost(Long.MAX_VALUE, "Deleted through another instance", List.of());
+
+        PagedPostResponse response = userPostService.searchPosts(testUser, "another instance", 0, 5);
+
+        Assertions.assertThat(response.getPosts()).isEmpty();
+        Assertions.assertThat(response.getTotalElements()).isZero();
+        Assertions.assertThat(response.getTotalPages()).isZero();
+    }
+
+    @Test
+    void testDeletedPostLeavesSearchOnlyAfterCommit() {
+        Long postId = userPostService.getMyPostsFeed(testUser, null, 1).getPosts().get(0).getPostId();
+        postSearchIndex.addPost(postId, "Overturned truck", List.of());
+        UserPostDeleteRequest request = new UserPostDeleteRequest();
+        request.setPostId(postId);
+
+        userPostService.deletePost(testUser, request);
+        Assertions.assertThat(postSearchIndex.search("overturned", 0, 5).postIds()).containsExactly(postId);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        Assertions.assertThat(postSearchIndex.search("overturned", 0, 5).postIds()).isEmpty();
+    }
+
+    @Test
+    void testOutOfRangePagesAreRejected() {
+        Assertions.assertThatThrownBy(() -> userPostService.getAllPostsFeed(testUser, null, -1))
+                .isInstanceOf(InvalidPageException.class);
+        Assertions.assertThatThrownBy(() -> userPostService.getMyPostsFeed(testUser, null, Integer.MAX_VALUE))
+                .isInstanceOf(InvalidPageException.class);
+        Assertions.assertThatThrownBy(() -> userPostService.getPostsByTagsFeed(testUser, List.of("delay"), null, 0))
+                .isInstanceOf(InvalidPageException.class);
+        Assertions.assertThatThrownBy(() -> userPostService.getAllPostsPage(testUser, -1, 10))
+                .isInstanceOf(InvalidPageException.class);
+        Assertions.assertThatThrownBy(() -> userPostService.searchPosts(testUser, "post", 0, 101))
+                .isInstanceOf(InvalidPageException.class);
+        Assertions.assertThatThrownBy(() -> userPostService.searchPosts(testUser, "post", -1, 10))
+                .isInstanceOf(InvalidPageException.class);
+        Assertions.assertThat(userPostService.getAllPostsFeed(testUser, null, 100).getPosts()).hasSize(25);
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        Assertions.assertThatThrownBy(() -> userPostService.getAllPostsFeed(testUser, "not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private long countStatements(Supplier<PagedPostResponse> feed) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Assertions.assertThat(feed.get().getPosts()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+}
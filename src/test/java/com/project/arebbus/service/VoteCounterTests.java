@@ -0,0 +1,188 @@
+package com.project.arebbus.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class VoteCounterTests {
+
+    /** In-memory votes table with a num_upvote per entity */
+    private static class FakeStore implements VoteCounter.Store {
+        private final Set<VoteCounter.Vote> votes = ConcurrentHashMap.newKeySet();
+        private final Map<Long, Long> counts = new ConcurrentHashMap<>();
+        private final AtomicInteger existsCalls = new AtomicInteger();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private volatile boolean failing;
+
+        @Override
+        public boolean exists(Long userId, Long entityId) {
+            existsCalls.incrementAndGet();
+            return votes.contains(new VoteCounter.Vote(userId, entityId));
+        }
+
+        @Override
+        public synchronized void apply(List<VoteCounter.Vote> added, List<VoteCounter.Vote> removed) {
+            if (failing) {
+                throw new IllegalStateException("database down");
+            }
+            batchSizes.add(added.size() + removed.size());
+            for (VoteCounter.Vote vote : added) {
+                if (votes.add(vote)) {
+                    counts.merge(vote.entityId(), 1L, Long::sum);
+                }
+            }
+            for (VoteCounter.Vote vote : removed) {
+                if (votes.remove(vote)) {
+                    counts.merge(vote.entityId(), -1L, Long::sum);
+                }
+            }
+        }
+
+        long count(Long entityId) {
+            return counts.getOrDefault(entityId, 0L);
+        }
+    }
+
+    @Test
+    void testRepeatedTogglesWithinWindowWriteOnlyNetChange() {
+        FakeStore store = new FakeStore();
+        VoteCounter counter = new VoteCounter(store);
+
+        Assertions.assertThat(counter.toggle(1L, 10L)).isTrue();
+        Assertions.assertThat(counter.toggle(1L, 10L)).isFalse();
+        Assertions.assertThat(counter.toggle(1L, 10L)).isTrue();
+        Assertions.assertThat(counter.toggle(2L, 10L)).isTrue();
+        Assertions.assertThat(counter.toggle(2L, 10L)).isFalse();
+
+        Assertions.assertThat(store.existsCalls).hasValue(2);
+        Assertions.assertThat(counter.pending(10L)).isEqualTo(1);
+        Assertions.assertThat(counter.pendingState(1L, 10L)).isTrue();
+
+        counter.flush();
+
+        Assertions.assertThat(store.batchSizes).containsExactly(1);
+        Assertions.assertThat(store.count(10L)).isEqualTo(1);
+        Assertions.assertThat(counter.pending(10L)).isZero();
+        Assertions.assertThat(counter.pendingState(1L, 10L)).isNull();
+
+        // The next window starts from the written state
+        Assertions.assertThat(counter.toggle(1L, 10L)).isFalse();
+        counter.flush();
+        Assertions.assertThat(store.count(10L)).isZero();
+    }
+
+    @Test
+    void testFailedFlushKeepsVotesPending() {
+        FakeStore store = new FakeStore();
+        VoteCounter counter = new VoteCounter(store);
+
+        counter.toggle(1L, 10L);
+        store.failing = true;
+        Assertions.assertThatThrownBy(counter::flush).isInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(counter.pending(10L)).isEqualTo(1);
+
+        // Toggled back while nothing was written, so there is nothing left to write
+        Assertions.assertThat(counter.toggle(1L, 10L)).isFalse();
+        store.failing = false;
+        counter.flush();
+
+        Assertions.assertThat(store.batchSizes).isEmpty();
+        Assertions.assertThat(store.votes).isEmpty();
+        Assertions.assertThat(counter.pending(10L)).isZero();
+    }
+
+    @Test
+    void testConcurrentTogglesAndFlushesKeepCountsEqualToVotes() throws Exception {
+        FakeStore store = new FakeStore();
+        VoteCounter counter = new VoteCounter(store);
+
+        int threads = 8;
+        int togglesPerThread = 2500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean toggling = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (toggling.get()) {
+                    counter.flush();
+                }
+            });
+            List<Future<?>> togglers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                togglers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < togglesPerThread; i++) {
+                        counter.toggle((long) ((thread * 31 + i) % 40), (long) (i % 3));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> toggler : togglers) {
+                toggler.get();
+            }
+            toggling.set(false);
+            flusher.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        counter.flush();
+
+        // A vote exists exactly when it was toggled an odd number of times
+        Map<VoteCounter.Vote, Integer> toggles = new HashMap<>();
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < togglesPerThread; i++) {
+                toggles.merge(new VoteCounter.Vote((long) ((t * 31 + i) % 40), (long) (i % 3)), 1, Integer::sum);
+            }
+        }
+        toggles.values().removeIf(n -> n % 2 == 0);
+        Assertions.assertThat(store.votes).containsExactlyInAnyOrderElementsOf(toggles.keySet());
+        for (long entityId = 0; entityId < 3; entityId++) {
+            long id = entityId;
+            long votes = store.votes.stream().filter(vote -> vote.entityId() == id).count();
+            Assertions.assertThat(store.count(entityId)).isEqualTo(votes);
+            Assertions.assertThat(counter.pending(entityId)).isZero();
+        }
+    }
+
+    @Test
+    void testPersistedStateReadBeforeCommittedFlushIsReadAgain() {
+        AtomicReference<VoteCounter> counter = new AtomicReference<>();
+        FakeStore store = new FakeStore() {
+            private boolean raced;
+
+            @Override
+            public boolean exists(Long userId, Long entityId) {
+                boolean persisted = super.exists(userId, entityId);
+                if (!raced) {
+                    // Another request upvotes and a flush commits it while this answer is stale
+                    raced = true;
+                    counter.get().toggle(userId, entityId);
+                    counter.get().flush();
+                }
+                return persisted;
+            }
+        };
+        counter.set(new VoteCounter(store));
+
+        Assertions.assertThat(counter.get().toggle(1L, 10L)).isFalse();
+        counter.get().flush();
+
+        Assertions.assertThat(store.count(10L)).isZero();
+        Assertions.assertThat(counter.get().pending(10L)).isZero();
+    }
+}